@@ -0,0 +1,77 @@
+package com.aero.quickfix.quant.benchmark;
+
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.service.BacktestEngine;
+import com.aero.quickfix.quant.service.IndicatorStore;
+import com.aero.quickfix.quant.service.MetricsCalculator;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BacktestEngine simulation throughput for an SMA crossover, in both accounting modes.
+ * Runs the same simulation as runBacktest without the database round-trips.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BacktestEngineBenchmark {
+
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    @Param({"1000", "10000", "100000"})
+    private int bars;
+
+    private BacktestEngine engine;
+    private Strategy strategy;
+    private BarSeries series;
+    private Map<String, double[]> indicators;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        engine = new BacktestEngine();
+        ReflectionTestUtils.setField(engine, "metricsCalculator", new MetricsCalculator());
+        ReflectionTestUtils.setField(engine, "indicatorStore", new IndicatorStore(null, 16, false));
+        strategy = new SmaCrossoverStrategy(20, 50);
+        series = SyntheticBars.series(bars, 42);
+        indicators = engine.calculateIndicators(strategy, series);
+        endDate = SyntheticBars.endDate(bars);
+    }
+
+    @Benchmark
+    public BacktestEngine.Simulation simulateExact() {
+        return engine.evaluateRange(strategy, series, indicators, 0, series.size(),
+            SyntheticBars.START, endDate, CAPITAL, BacktestEngine.AccountingMode.EXACT);
+    }
+
+    @Benchmark
+    public BacktestEngine.Simulation simulateFast() {
+        return engine.evaluateRange(strategy, series, indicators, 0, series.size(),
+            SyntheticBars.START, endDate, CAPITAL, BacktestEngine.AccountingMode.FAST);
+    }
+
+    @Benchmark
+    public Map<String, double[]> indicators() {
+        Map<String, double[]> computed = new HashMap<>();
+        for (String indicator : strategy.getRequiredIndicators()) {
+            computed.put(indicator, engine.calculateIndicator(indicator, series));
+        }
+        return computed;
+    }
+
+    @Benchmark
+    public Map<String, double[]> indicatorsCached() {
+        return engine.calculateIndicators(strategy, series);
+    }
+}
@@ -0,0 +1,69 @@
+package com.aero.quickfix.quant.benchmark;
+
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.model.BarSeries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IndicatorCalculator throughput: primitive array variants used by the engine,
+ * plus the list-based SMA for comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndicatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int bars;
+
+    private BarSeries series;
+    private double[] closes;
+    private List<Double> closeList;
+
+    @Setup
+    public void setUp() {
+        series = SyntheticBars.series(bars, 42);
+        closes = series.closes();
+        closeList = new ArrayList<>(closes.length);
+        for (double close : closes) {
+            closeList.add(close);
+        }
+    }
+
+    @Benchmark
+    public double[] sma50() {
+        return IndicatorCalculator.calculateSMA(closes, 50);
+    }
+
+    @Benchmark
+    public List<Double> sma50List() {
+        return IndicatorCalculator.calculateSMA(closeList, 50);
+    }
+
+    @Benchmark
+    public double[] ema26() {
+        return IndicatorCalculator.calculateEMA(closes, 26);
+    }
+
+    @Benchmark
+    public double[] rsi14() {
+        return IndicatorCalculator.calculateRSI(closes, 14);
+    }
+
+    @Benchmark
+    public double[] macd() {
+        return IndicatorCalculator.calculateMACDLine(closes, 12, 26, 9);
+    }
+
+    @Benchmark
+    public double[] atr14() {
+        return IndicatorCalculator.calculateATR(series, 14);
+    }
+}
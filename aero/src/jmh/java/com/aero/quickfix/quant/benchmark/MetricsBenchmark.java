@@ -0,0 +1,74 @@
+package com.aero.quickfix.quant.benchmark;
+
+import com.aero.quickfix.quant.service.MetricsCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsCalculator throughput over an equity curve of the given length.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int bars;
+
+    private final MetricsCalculator metricsCalculator = new MetricsCalculator();
+    private double[] equity;
+    private List<BigDecimal> equityCurve;
+    private double[] returns;
+    private List<Double> returnList;
+
+    @Setup
+    public void setUp() {
+        equity = SyntheticBars.series(bars, 42).closes();
+        equityCurve = new ArrayList<>(equity.length);
+        for (double value : equity) {
+            equityCurve.add(BigDecimal.valueOf(value));
+        }
+        returns = metricsCalculator.calculateDailyReturns(equity);
+        returnList = new ArrayList<>(returns.length);
+        for (double value : returns) {
+            returnList.add(value);
+        }
+    }
+
+    @Benchmark
+    public double[] dailyReturns() {
+        return metricsCalculator.calculateDailyReturns(equity);
+    }
+
+    @Benchmark
+    public BigDecimal sharpe() {
+        return metricsCalculator.calculateSharpeRatio(returns);
+    }
+
+    @Benchmark
+    public BigDecimal sharpeList() {
+        return metricsCalculator.calculateSharpeRatio(returnList);
+    }
+
+    @Benchmark
+    public BigDecimal sortino() {
+        return metricsCalculator.calculateSortinoRatio(returns, 0.0);
+    }
+
+    @Benchmark
+    public BigDecimal maxDrawdown() {
+        return metricsCalculator.calculateMaxDrawdown(equity);
+    }
+
+    @Benchmark
+    public BigDecimal maxDrawdownBigDecimal() {
+        return metricsCalculator.calculateMaxDrawdown(equityCurve);
+    }
+}
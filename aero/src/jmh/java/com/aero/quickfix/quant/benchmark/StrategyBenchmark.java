@@ -0,0 +1,49 @@
+package com.aero.quickfix.quant.benchmark;
+
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.Signal;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SmaCrossoverStrategy.generateSignal cost: one operation evaluates every bar of the series.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StrategyBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int bars;
+
+    private SmaCrossoverStrategy strategy;
+    private BarSeries series;
+    private Map<String, double[]> indicators;
+
+    @Setup
+    public void setUp() {
+        strategy = new SmaCrossoverStrategy(20, 50);
+        series = SyntheticBars.series(bars, 42);
+        indicators = new HashMap<>();
+        for (String indicator : strategy.getRequiredIndicators()) {
+            indicators.put(indicator, IndicatorCalculator.calculate(indicator, series));
+        }
+    }
+
+    @Benchmark
+    public void generateSignals(Blackhole blackhole) {
+        for (int i = strategy.getMinimumBars(); i < series.size(); i++) {
+            Signal signal = strategy.generateSignal(series, indicators, i);
+            blackhole.consume(signal);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.aero.quickfix.quant.benchmark;
+
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic OHLCV generator for benchmarks.
+ * Daily bars from a seeded geometric random walk with a slow cycle, so moving
+ * average strategies trade at a realistic rate and runs are reproducible.
+ */
+public final class SyntheticBars {
+
+    public static final LocalDate START = LocalDate.of(1990, 1, 1);
+    public static final String SYMBOL = "BENCH";
+
+    private SyntheticBars() {
+    }
+
+    public static List<OHLCVData> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<OHLCVData> bars = new ArrayList<>(count);
+        double price = 100;
+        for (int i = 0; i < count; i++) {
+            double open = price;
+            price = Math.max(1, price * (1 + 0.002 * Math.sin(i / 40.0) + random.nextGaussian() * 0.01));
+            double high = Math.max(open, price) * (1 + random.nextDouble() * 0.005);
+            double low = Math.min(open, price) * (1 - random.nextDouble() * 0.005);
+            bars.add(new OHLCVData(START.plusDays(i).atStartOfDay(), SYMBOL,
+                BigDecimal.valueOf(open), BigDecimal.valueOf(high), BigDecimal.valueOf(low),
+                BigDecimal.valueOf(price), 1_000L + random.nextInt(100_000)));
+        }
+        return bars;
+    }
+
+    public static BarSeries series(int count, long seed) {
+        return BarSeries.from(SYMBOL, generate(count, seed));
+    }
+
+    public static LocalDate endDate(int count) {
+        return START.plusDays(count - 1);
+    }
+}
@@ -2,21 +2,38 @@ package com.aero.quickfix.client;
 
 import com.aero.quickfix.dto.MarketPriceDto;
 import com.aero.quickfix.quant.model.OHLCVData;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
@@ -36,6 +53,8 @@ public class FinvizMarketDataClient {
     
     // Alpha Vantage API (fallback)
     private static final String ALPHA_VANTAGE_BASE_URL = "https://www.alphavantage.co/query";
+    // Compact responses hold the latest 100 trading days; stay well inside that in calendar days
+    private static final int COMPACT_WINDOW_DAYS = 120;
 
     // IEX Cloud (alternative - free tier)
     private static final String IEX_BASE_URL = "https://cloud.iexapis.com/stable";
@@ -49,12 +68,74 @@ public class FinvizMarketDataClient {
     @Value("${finviz.enabled:true}")
     private boolean enabled;
 
+    // Most requests each provider may have open at once; the free tiers throttle bursts
+    @Value("${finviz.max-concurrency:4}")
+    private int finnhubMaxConcurrency;
+
+    @Value("${alpha-vantage.max-concurrency:2}")
+    private int alphaVantageMaxConcurrency;
+
+    // Request quotas, kept just under the free tiers (Finnhub 60/min, Alpha Vantage 5/min)
+    @Value("${finviz.requests-per-minute:55}")
+    private int finnhubRequestsPerMinute;
+
+    @Value("${finviz.burst:5}")
+    private int finnhubBurst;
+
+    @Value("${alpha-vantage.requests-per-minute:4}")
+    private int alphaVantageRequestsPerMinute;
+
+    @Value("${alpha-vantage.burst:1}")
+    private int alphaVantageBurst;
+
+    // Requests each provider queue holds per priority, and how long one may wait there
+    @Value("${finviz.max-queue-depth:100}")
+    private int finnhubMaxQueueDepth;
+
+    @Value("${alpha-vantage.max-queue-depth:20}")
+    private int alphaVantageMaxQueueDepth;
+
+    @Value("${market.queue.max-wait-ms:120000}")
+    private long queueMaxWaitMs;
+
+    // Longest the async path waits for a response once connected
+    @Value("${market.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // How long to back off after a 429 that carries no Retry-After
+    private static final long DEFAULT_RATE_LIMIT_PAUSE_MS = 60 * 1000;
+
+    // Circuit breaker: consecutive failures that open a provider's circuit, and for how long
+    @Value("${market.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
+
+    @Value("${market.breaker.open-ms:30000}")
+    private long breakerOpenMs;
+
+    // Hedged fallback spends Alpha Vantage quota, so it is opt-in
+    @Value("${market.hedge.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${market.hedge.min-delay-ms:250}")
+    private long hedgeMinDelayMs;
+
+    private ProviderScheduler finnhubScheduler;
+    private ProviderScheduler alphaVantageScheduler;
+    private ProviderHealth finnhubHealth;
+    private ProviderHealth alphaVantageHealth;
+    private final AtomicLong hedgedRequests = new AtomicLong();
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    // Runs the blocking RestTemplate calls once the scheduler starts them
+    private final ExecutorService blockingCalls = Executors.newVirtualThreadPerTaskExecutor();
 
-    public FinvizMarketDataClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public FinvizMarketDataClient(RestTemplate restTemplate, ObjectMapper objectMapper, HttpClient httpClient) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
         logInitialization();
     }
 
@@ -65,115 +146,302 @@ public class FinvizMarketDataClient {
         logger.info("FinvizMarketDataClient initialized - Finnhub API: {}, Enabled: {}", finnhubPreview, enabled);
     }
 
+    @PostConstruct
+    void initSchedulers() {
+        finnhubScheduler = new ProviderScheduler("finnhub", finnhubRequestsPerMinute, finnhubBurst,
+            finnhubMaxConcurrency, finnhubMaxQueueDepth, queueMaxWaitMs);
+        alphaVantageScheduler = new ProviderScheduler("alpha-vantage", alphaVantageRequestsPerMinute, alphaVantageBurst,
+            alphaVantageMaxConcurrency, alphaVantageMaxQueueDepth, queueMaxWaitMs);
+        finnhubHealth = new ProviderHealth("finnhub", breakerFailureThreshold, breakerOpenMs);
+        alphaVantageHealth = new ProviderHealth("alpha-vantage", breakerFailureThreshold, breakerOpenMs);
+    }
+
+    /**
+     * Run a blocking provider call through the provider's scheduler and wait for it
+     */
+    private <T> T callScheduled(ProviderScheduler scheduler, String key, ProviderScheduler.Priority priority,
+                                Supplier<T> call) {
+        return scheduler.submit(key, priority, () -> CompletableFuture.supplyAsync(call, blockingCalls)).join();
+    }
+
+    private static String quoteKey(String symbol) {
+        return "quote:" + symbol;
+    }
+
     /**
-     * Fetch latest price for a symbol using Finnhub API.
+     * Fetch latest price for a symbol, waiting for the result.
      * @param symbol Stock symbol (e.g., AAPL, CRDB)
      * @return MarketPriceDto with current price
      */
     public MarketPriceDto fetchLatestPrice(String symbol) {
+        return fetchLatestPriceAsync(symbol).join();
+    }
+
+    /**
+     * Fetch latest price for a symbol without blocking the caller, as an interactive request.
+     */
+    public CompletableFuture<MarketPriceDto> fetchLatestPriceAsync(String symbol) {
+        return fetchLatestPriceAsync(symbol, ProviderScheduler.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Fetch latest price for a symbol without blocking the caller.
+     * Finnhub is asked first and Alpha Vantage is the fallback, over the shared non-blocking
+     * HttpClient: requests wait in each provider's queue at the given priority, and the
+     * future completes on the client's threads once a response arrives.
+     * A provider whose circuit is open is skipped outright. With hedging enabled, Alpha
+     * Vantage is also asked when Finnhub has not answered within its recent p95 latency,
+     * and the first valid price wins.
+     * @param symbol Stock symbol (e.g., AAPL, CRDB)
+     * @param priority Queue priority at the providers
+     * @return Future of a MarketPriceDto; completes exceptionally only if every provider asked failed unexpectedly
+     */
+    public CompletableFuture<MarketPriceDto> fetchLatestPriceAsync(String symbol, ProviderScheduler.Priority priority) {
+        return fetchLatestPriceAsync(symbol, priority, ProviderScheduler.NO_DEADLINE);
+    }
+
+    /**
+     * Fetch latest price for a symbol for a caller that stops waiting at a deadline.
+     * Requests still queued at the deadline are dropped rather than started, and the
+     * fallback provider is not asked once the deadline has passed.
+     * @param deadlineNanos {@link System#nanoTime()} the caller waits until, or ProviderScheduler.NO_DEADLINE
+     */
+    public CompletableFuture<MarketPriceDto> fetchLatestPriceAsync(String symbol, ProviderScheduler.Priority priority,
+                                                                   long deadlineNanos) {
         if (!enabled) {
             logger.debug("Market data disabled for symbol: {}", symbol);
-            return new MarketPriceDto(symbol, "Market data service is disabled");
+            return CompletableFuture.completedFuture(new MarketPriceDto(symbol, "Market data service is disabled"));
         }
 
-        try {
-            // Try Finnhub first
-            if (finnhubApiKey != null && !finnhubApiKey.isEmpty()) {
-                MarketPriceDto result = fetchFromFinnhub(symbol);
-                if (result.isValid()) {
-                    return result;
-                }
-            }
+        boolean finnhubConfigured = finnhubApiKey != null && !finnhubApiKey.isEmpty();
+        boolean alphaVantageConfigured = alphaVantageApiKey != null && !alphaVantageApiKey.isEmpty();
+        if (!finnhubConfigured && !alphaVantageConfigured) {
+            logger.warn("No API keys configured for market data. Please set finviz.api.key and/or alpha-vantage.api.key");
+            return CompletableFuture.completedFuture(new MarketPriceDto(symbol, "Market data APIs not configured"));
+        }
 
-            // Try Alpha Vantage as fallback
-            if (alphaVantageApiKey != null && !alphaVantageApiKey.isEmpty()) {
-                return fetchFromAlphaVantage(symbol);
+        boolean useFinnhub = finnhubConfigured && finnhubHealth.allowRequest();
+        CompletableFuture<MarketPriceDto> primary = useFinnhub
+            ? sendQuoteAsync(symbol, "Finnhub", finnhubScheduler, finnhubHealth, priority, deadlineNanos,
+                finnhubQuoteUrl(symbol), this::parseFinnhubQuote)
+            : CompletableFuture.completedFuture(new MarketPriceDto(symbol,
+                finnhubConfigured ? "Finnhub unavailable (circuit open)" : "Finnhub not configured"));
+
+        // Completed when Alpha Vantage should be asked: Finnhub failed, or the hedge delay passed
+        CompletableFuture<Void> fallback = new CompletableFuture<>();
+        CompletableFuture<MarketPriceDto> secondary = fallback.thenCompose(ignored ->
+            alphaVantageConfigured && System.nanoTime() < deadlineNanos && alphaVantageHealth.allowRequest()
+                ? sendQuoteAsync(symbol, "Alpha Vantage", alphaVantageScheduler, alphaVantageHealth, priority, deadlineNanos,
+                    alphaVantageQuoteUrl(symbol), this::parseAlphaVantageQuote)
+                : CompletableFuture.completedFuture(null));
+
+        CompletableFuture<MarketPriceDto> result = new CompletableFuture<>();
+        primary.whenComplete((price, error) -> {
+            if (error == null && price.isValid()) {
+                result.complete(price);
+            } else {
+                fallback.complete(null);
             }
+        });
+        secondary.whenComplete((price, error) -> {
+            if (error == null && price != null && price.isValid()) {
+                result.complete(price);
+                return;
+            }
+            primary.whenComplete((first, firstError) -> {
+                if (firstError == null && (first.isValid() || price == null)) {
+                    // Report Finnhub's error unless Alpha Vantage was actually asked
+                    result.complete(first);
+                } else if (error == null && price != null) {
+                    result.complete(price);
+                } else if (firstError == null) {
+                    result.complete(first);
+                } else {
+                    result.completeExceptionally(error != null ? error : firstError);
+                }
+            });
+        });
 
-            logger.warn("No API keys configured for market data. Please set finviz.api.key and/or alpha-vantage.api.key");
-            return new MarketPriceDto(symbol, "Market data APIs not configured");
-
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching price for {}: {}", symbol, e.getMessage(), e);
-            return new MarketPriceDto(symbol, "Error: " + e.getMessage());
+        if (useFinnhub && hedgingEnabled && alphaVantageConfigured) {
+            scheduleHedge(symbol, primary, fallback);
         }
+        return result;
     }
 
     /**
-     * Fetch price from Finnhub API.
+     * Ask the secondary provider too if the primary is still pending after its p95 latency.
+     * Skipped until enough latencies are known, and while the secondary has a backlog,
+     * so hedges never spend quota that queued requests are waiting for.
      */
-    private MarketPriceDto fetchFromFinnhub(String symbol) {
-        try {
-            String url = String.format("%s/quote?symbol=%s&token=%s",
-                    FINNHUB_BASE_URL,
-                    URLEncoder.encode(symbol, StandardCharsets.UTF_8),
-                    finnhubApiKey);
-
-            logger.debug("Fetching price from Finnhub for: {}", symbol);
-            
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode jsonNode = objectMapper.readTree(response);
-
-            if (jsonNode.has("c")) {
-                BigDecimal price = new BigDecimal(jsonNode.get("c").asDouble());
-                logger.debug("Received price for {} from Finnhub: {}", symbol, price);
-                
-                MarketPriceDto dto = new MarketPriceDto();
-                dto.setSymbol(symbol);
-                dto.setPrice(price);
-                dto.setLastUpdated(System.currentTimeMillis());
-                return dto;
+    private void scheduleHedge(String symbol, CompletableFuture<MarketPriceDto> primary, CompletableFuture<Void> fallback) {
+        long p95 = finnhubHealth.latencyPercentileMs(0.95);
+        if (p95 < 0) {
+            return;
+        }
+        long delayMs = Math.max(hedgeMinDelayMs, p95);
+        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (!primary.isDone() && alphaVantageScheduler.getQueueDepth() == 0 && fallback.complete(null)) {
+                hedgedRequests.incrementAndGet();
+                logger.debug("Finnhub slower than {} ms for {}; hedging with Alpha Vantage", delayMs, symbol);
             }
+        });
+    }
 
-            logger.warn("No price data available from Finnhub for symbol: {}", symbol);
-            return new MarketPriceDto(symbol, "No price data available from Finnhub for symbol: " + symbol);
+    /**
+     * Raise a queued quote request to interactive priority, e.g. when a user starts
+     * waiting on a background refresh
+     */
+    public void prioritize(String symbol) {
+        finnhubScheduler.prioritize(quoteKey(symbol));
+        alphaVantageScheduler.prioritize(quoteKey(symbol));
+    }
 
-        } catch (HttpClientErrorException e) {
-            logger.debug("HTTP error {} fetching price from Finnhub for {}: {}", 
-                    e.getStatusCode(), symbol, e.getResponseBodyAsString());
-            return new MarketPriceDto(symbol, "Finnhub HTTP " + e.getStatusCode());
-        } catch (Exception e) {
-            logger.debug("Error fetching from Finnhub for {}: {}", symbol, e.getMessage());
-            return new MarketPriceDto(symbol, "Finnhub error: " + e.getMessage());
-        }
+    /**
+     * Queue depth, rate-limit counters and circuit state per provider
+     */
+    public Map<String, Object> getProviderStats() {
+        Map<String, Object> finnhub = finnhubScheduler.getStats();
+        finnhub.putAll(finnhubHealth.getStats());
+        Map<String, Object> alphaVantage = alphaVantageScheduler.getStats();
+        alphaVantage.putAll(alphaVantageHealth.getStats());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("finnhub", finnhub);
+        stats.put("alphaVantage", alphaVantage);
+        stats.put("hedgingEnabled", hedgingEnabled);
+        stats.put("hedgedRequests", hedgedRequests.get());
+        return stats;
     }
 
     /**
-     * Fetch price from Alpha Vantage API as fallback.
+     * Queue one quote request with the provider's scheduler. Quotes for a symbol already
+     * queued share that request. The outcome is recorded in the provider's health:
+     * transport errors and error statuses other than 404 count as failures.
+     * Errors become invalid results; a 429 also pauses the queue.
      */
-    private MarketPriceDto fetchFromAlphaVantage(String symbol) {
-        try {
-            String url = String.format("%s?function=GLOBAL_QUOTE&symbol=%s&apikey=%s",
-                    ALPHA_VANTAGE_BASE_URL,
-                    URLEncoder.encode(symbol, StandardCharsets.UTF_8),
-                    alphaVantageApiKey);
-
-            logger.debug("Fetching price from Alpha Vantage for: {}", symbol);
-            
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode jsonNode = objectMapper.readTree(response);
-
-            if (jsonNode.has("Global Quote")) {
-                JsonNode quote = jsonNode.get("Global Quote");
-                if (quote.has("05. price")) {
-                    BigDecimal price = new BigDecimal(quote.get("05. price").asText());
-                    logger.debug("Received price for {} from Alpha Vantage: {}", symbol, price);
-                    
-                    MarketPriceDto dto = new MarketPriceDto();
-                    dto.setSymbol(symbol);
-                    dto.setPrice(price);
-                    dto.setLastUpdated(System.currentTimeMillis());
-                    return dto;
+    private CompletableFuture<MarketPriceDto> sendQuoteAsync(String symbol, String provider, ProviderScheduler scheduler,
+                                                             ProviderHealth health, ProviderScheduler.Priority priority,
+                                                             long deadlineNanos, String url, QuoteParser parser) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(readTimeoutMs))
+            .GET()
+            .build();
+
+        return scheduler.submit(quoteKey(symbol), priority, deadlineNanos, () -> {
+                logger.debug("Fetching price from {} for: {}", provider, symbol);
+                long started = System.nanoTime();
+                return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        if (error == null && (response.statusCode() == 200 || response.statusCode() == 404)) {
+                            health.recordSuccess(System.nanoTime() - started);
+                        } else {
+                            health.recordFailure();
+                        }
+                    });
+            })
+            .handle((response, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof RejectedExecutionException) {
+                        // Queue full or waited too long: busy, not unhealthy
+                        return new MarketPriceDto(symbol, provider + " busy: " + cause.getMessage());
+                    }
+                    logger.debug("Error fetching from {} for {}: {}", provider, symbol, cause.toString());
+                    return new MarketPriceDto(symbol, provider + " error: " + cause);
+                }
+                if (response.statusCode() == 429) {
+                    scheduler.throttle(retryAfterMs(response.headers().firstValue("Retry-After").orElse(null)));
+                    return new MarketPriceDto(symbol, provider + " rate limit exceeded");
+                }
+                if (response.statusCode() != 200) {
+                    logger.debug("HTTP error {} fetching price from {} for {}: {}",
+                            response.statusCode(), provider, symbol, response.body());
+                    return new MarketPriceDto(symbol, provider + " HTTP " + response.statusCode());
+                }
+                try {
+                    return parser.parse(symbol, response.body());
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Error parsing {} response for {}: {}", provider, symbol, e.getMessage());
+                    return new MarketPriceDto(symbol, provider + " error: " + e.getMessage());
                 }
+            });
+    }
+
+    /**
+     * Back-off from a Retry-After header in seconds, or the default if absent
+     */
+    private static long retryAfterMs(String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException e) {
+                // HTTP-date form; fall back to the default
             }
+        }
+        return DEFAULT_RATE_LIMIT_PAUSE_MS;
+    }
 
-            logger.warn("No price data available from Alpha Vantage for symbol: {}", symbol);
-            return new MarketPriceDto(symbol, "No price data available from Alpha Vantage for symbol: " + symbol);
+    @PreDestroy
+    void shutdown() {
+        finnhubScheduler.shutdown();
+        alphaVantageScheduler.shutdown();
+        blockingCalls.shutdownNow();
+    }
 
-        } catch (Exception e) {
-            logger.debug("Error fetching from Alpha Vantage for {}: {}", symbol, e.getMessage());
-            return new MarketPriceDto(symbol, "Alpha Vantage error: " + e.getMessage());
+    private String finnhubQuoteUrl(String symbol) {
+        return String.format("%s/quote?symbol=%s&token=%s",
+                FINNHUB_BASE_URL,
+                URLEncoder.encode(symbol, StandardCharsets.UTF_8),
+                finnhubApiKey);
+    }
+
+    private String alphaVantageQuoteUrl(String symbol) {
+        return String.format("%s?function=GLOBAL_QUOTE&symbol=%s&apikey=%s",
+                ALPHA_VANTAGE_BASE_URL,
+                URLEncoder.encode(symbol, StandardCharsets.UTF_8),
+                alphaVantageApiKey);
+    }
+
+    /**
+     * Parse a Finnhub /quote response
+     */
+    private MarketPriceDto parseFinnhubQuote(String symbol, String response) throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(response);
+
+        // Unknown symbols come back as all-zero quotes
+        if (jsonNode.has("c") && jsonNode.get("c").decimalValue().signum() > 0) {
+            BigDecimal price = jsonNode.get("c").decimalValue();
+            logger.debug("Received price for {} from Finnhub: {}", symbol, price);
+            return new MarketPriceDto(symbol, price);
         }
+
+        logger.warn("No price data available from Finnhub for symbol: {}", symbol);
+        return new MarketPriceDto(symbol, "No price data available from Finnhub for symbol: " + symbol);
+    }
+
+    /**
+     * Parse an Alpha Vantage GLOBAL_QUOTE response
+     */
+    private MarketPriceDto parseAlphaVantageQuote(String symbol, String response) throws IOException {
+        JsonNode jsonNode = objectMapper.readTree(response);
+
+        // Alpha Vantage reports an exhausted quota as a 200 with a Note/Information message
+        if (!jsonNode.has("Global Quote") && (jsonNode.has("Note") || jsonNode.has("Information"))) {
+            alphaVantageScheduler.throttle(DEFAULT_RATE_LIMIT_PAUSE_MS);
+            return new MarketPriceDto(symbol, "Alpha Vantage rate limit exceeded");
+        }
+
+        if (jsonNode.has("Global Quote")) {
+            JsonNode quote = jsonNode.get("Global Quote");
+            if (quote.has("05. price")) {
+                BigDecimal price = new BigDecimal(quote.get("05. price").asText());
+                logger.debug("Received price for {} from Alpha Vantage: {}", symbol, price);
+                return new MarketPriceDto(symbol, price);
+            }
+        }
+
+        logger.warn("No price data available from Alpha Vantage for symbol: {}", symbol);
+        return new MarketPriceDto(symbol, "No price data available from Alpha Vantage for symbol: " + symbol);
     }
 
     /**
@@ -182,91 +450,183 @@ public class FinvizMarketDataClient {
      * @param from Start date
      * @param to End date
      * @return List of OHLCVData
+     * @throws IllegalStateException if the history could not be fetched
      */
     public List<OHLCVData> fetchHistoricalOHLCV(String symbol, LocalDate from, LocalDate to) {
         List<OHLCVData> result = new ArrayList<>();
+        streamHistoricalOHLCV(symbol, from, to, result::add);
+        return result;
+    }
 
+    /**
+     * Stream historical OHLCV bars for a symbol from Alpha Vantage into a consumer,
+     * one bar at a time as the response is parsed.
+     * @param symbol Stock symbol
+     * @param from Start date
+     * @param to End date
+     * @param sink Receives each bar within the range
+     * @return Number of bars emitted; 0 only when the provider answered with no bars in the range
+     * @throws IllegalStateException if the history could not be fetched: market data disabled, no API key,
+     *         a failed or rejected request, or an error or rate-limit response
+     */
+    public int streamHistoricalOHLCV(String symbol, LocalDate from, LocalDate to, Consumer<OHLCVData> sink) {
         if (!enabled) {
-            logger.debug("Market data disabled for symbol: {}", symbol);
-            return result;
+            throw new IllegalStateException("Market data disabled; cannot fetch history for " + symbol);
+        }
+        if (alphaVantageApiKey == null || alphaVantageApiKey.isEmpty()) {
+            throw new IllegalStateException("Alpha Vantage API key not configured. Please set alpha-vantage.api.key");
         }
 
         try {
-            if (alphaVantageApiKey == null || alphaVantageApiKey.isEmpty()) {
-                logger.warn("Alpha Vantage API key not configured. Cannot fetch historical data. Please set alpha-vantage.api.key");
-                return result;
-            }
-
             // Fetch daily data from Alpha Vantage
-            result.addAll(fetchHistoricalFromAlphaVantage(symbol, from, to));
+            int count = callScheduled(alphaVantageScheduler, null, ProviderScheduler.Priority.BACKGROUND,
+                () -> fetchHistoricalFromAlphaVantage(symbol, from, to, sink));
 
             logger.info("Fetched {} historical records for {} from {} to {}", 
-                    result.size(), symbol, from, to);
+                    count, symbol, from, to);
 
-            return result;
+            return count;
 
-        } catch (Exception e) {
-            logger.error("Error fetching historical data for {}: {}", symbol, e.getMessage(), e);
-            return result;
+        } catch (RuntimeException e) {
+            // Queue rejections, expiries and HTTP failures all surface here
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("Error fetching historical data for {}: {}", symbol, cause.getMessage());
+            if (cause instanceof IllegalStateException) {
+                throw (IllegalStateException) cause;
+            }
+            throw new IllegalStateException("Historical data request failed for " + symbol + ": " + cause.getMessage(), cause);
         }
     }
 
     /**
      * Fetch historical data from Alpha Vantage API.
+     * The response body is read with a streaming JsonParser straight off the connection,
+     * so a full-history payload is never held as a String or JsonNode tree and days
+     * outside the range are skipped without being materialized.
+     * HTTP and parse failures propagate so the caller can tell them from an empty range.
      */
-    private List<OHLCVData> fetchHistoricalFromAlphaVantage(String symbol, LocalDate from, LocalDate to) {
-        List<OHLCVData> result = new ArrayList<>();
+    private int fetchHistoricalFromAlphaVantage(String symbol, LocalDate from, LocalDate to, Consumer<OHLCVData> sink) {
+        // Compact output (latest 100 bars) is a fraction of the full 20-year payload
+        String outputSize = from.isBefore(LocalDate.now().minusDays(COMPACT_WINDOW_DAYS)) ? "full" : "compact";
+        String url = String.format("%s?function=TIME_SERIES_DAILY&symbol=%s&outputsize=%s&apikey=%s",
+                ALPHA_VANTAGE_BASE_URL,
+                URLEncoder.encode(symbol, StandardCharsets.UTF_8),
+                outputSize,
+                alphaVantageApiKey);
+
+        logger.debug("Fetching historical data from Alpha Vantage for: {} ({} output)", symbol, outputSize);
+
+        Integer count = restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                return parseDailyTimeSeries(parser, symbol, from, to, sink);
+            }
+        });
+        return count != null ? count : 0;
+    }
 
-        try {
-            String url = String.format("%s?function=TIME_SERIES_DAILY&symbol=%s&outputsize=full&apikey=%s",
-                    ALPHA_VANTAGE_BASE_URL,
-                    URLEncoder.encode(symbol, StandardCharsets.UTF_8),
-                    alphaVantageApiKey);
-
-            logger.debug("Fetching historical data from Alpha Vantage for: {}", symbol);
-            
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode jsonNode = objectMapper.readTree(response);
-
-            if (jsonNode.has("Time Series (Daily)")) {
-                JsonNode timeSeries = jsonNode.get("Time Series (Daily)");
-                DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
-
-                timeSeries.fields().forEachRemaining(entry -> {
-                    try {
-                        String dateStr = entry.getKey();
-                        LocalDate date = LocalDate.parse(dateStr, formatter);
-
-                        // Only include data within requested range
-                        if (!date.isBefore(from) && !date.isAfter(to)) {
-                            JsonNode dayData = entry.getValue();
-
-                            OHLCVData ohlcv = new OHLCVData();
-                            ohlcv.setSymbol(symbol);
-                            ohlcv.setTime(date.atStartOfDay());
-                            ohlcv.setOpen(new BigDecimal(dayData.get("1. open").asText()));
-                            ohlcv.setHigh(new BigDecimal(dayData.get("2. high").asText()));
-                            ohlcv.setLow(new BigDecimal(dayData.get("3. low").asText()));
-                            ohlcv.setClose(new BigDecimal(dayData.get("4. close").asText()));
-                            ohlcv.setVolume(dayData.get("5. volume").asLong());
-
-                            result.add(ohlcv);
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing OHLCV data for {}: {}", symbol, e.getMessage());
+    /**
+     * Parse a TIME_SERIES_DAILY response token by token.
+     * Dates are ISO strings, so the range check is a string comparison and
+     * out-of-range days are skipped with skipChildren.
+     * A response without a time series is a failure, not an empty range: an error message
+     * throws, and a Note/Information rate-limit message also pauses the Alpha Vantage queue.
+     */
+    int parseDailyTimeSeries(JsonParser parser, String symbol, LocalDate from, LocalDate to,
+                             Consumer<OHLCVData> sink) throws IOException {
+        String fromKey = from.toString();
+        String toKey = to.toString();
+        int count = 0;
+        boolean hasSeries = false;
+        String error = null;
+        String rateLimit = null;
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalStateException("Unexpected Alpha Vantage response for " + symbol);
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("Time Series (Daily)".equals(field) && value == JsonToken.START_OBJECT) {
+                hasSeries = true;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String dateKey = parser.getCurrentName();
+                    parser.nextToken();
+                    // Only include data within requested range
+                    if (dateKey.compareTo(fromKey) < 0 || dateKey.compareTo(toKey) > 0) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    OHLCVData ohlcv = parseDailyBar(parser, symbol, dateKey);
+                    if (ohlcv != null) {
+                        sink.accept(ohlcv);
+                        count++;
                     }
-                });
-            } else if (jsonNode.has("Error Message")) {
-                logger.error("Alpha Vantage API error: {}", jsonNode.get("Error Message").asText());
-            } else if (jsonNode.has("Note")) {
-                logger.warn("Alpha Vantage API rate limit: {}", jsonNode.get("Note").asText());
+                }
+            } else if ("Error Message".equals(field)) {
+                error = parser.getText();
+            } else if ("Note".equals(field) || "Information".equals(field)) {
+                rateLimit = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!hasSeries) {
+            if (rateLimit != null) {
+                alphaVantageScheduler.throttle(DEFAULT_RATE_LIMIT_PAUSE_MS);
+                throw new IllegalStateException("Alpha Vantage rate limit: " + rateLimit);
             }
+            throw new IllegalStateException("Alpha Vantage API error for " + symbol + ": "
+                + (error != null ? error : "no time series in response"));
+        }
+        return count;
+    }
 
-        } catch (Exception e) {
-            logger.error("Error fetching historical data from Alpha Vantage for {}: {}", symbol, e.getMessage(), e);
+    /**
+     * Read one day's object; the parser is positioned on its START_OBJECT
+     */
+    private OHLCVData parseDailyBar(JsonParser parser, String symbol, String dateKey) throws IOException {
+        String open = null, high = null, low = null, close = null, volume = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "1. open":
+                    open = parser.getText();
+                    break;
+                case "2. high":
+                    high = parser.getText();
+                    break;
+                case "3. low":
+                    low = parser.getText();
+                    break;
+                case "4. close":
+                    close = parser.getText();
+                    break;
+                case "5. volume":
+                    volume = parser.getText();
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
         }
 
-        return result;
+        try {
+            OHLCVData ohlcv = new OHLCVData();
+            ohlcv.setSymbol(symbol);
+            ohlcv.setTime(LocalDate.parse(dateKey).atStartOfDay());
+            ohlcv.setOpen(new BigDecimal(open));
+            ohlcv.setHigh(new BigDecimal(high));
+            ohlcv.setLow(new BigDecimal(low));
+            ohlcv.setClose(new BigDecimal(close));
+            ohlcv.setVolume(Long.parseLong(volume));
+            return ohlcv;
+        } catch (Exception e) {
+            logger.warn("Error parsing OHLCV data for {} on {}: {}", symbol, dateKey, e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -292,4 +652,12 @@ public class FinvizMarketDataClient {
         }
         return sources.isEmpty() ? "None" : String.join(", ", sources);
     }
+
+    /**
+     * Turns a provider's quote response body into a price
+     */
+    @FunctionalInterface
+    private interface QuoteParser {
+        MarketPriceDto parse(String symbol, String response) throws IOException;
+    }
 }
@@ -0,0 +1,144 @@
+package com.aero.quickfix.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health of one market data provider, with a circuit breaker.
+ * After {@code failureThreshold} consecutive failures the circuit opens and the
+ * provider is skipped for {@code openMs}. A single trial request is then let through
+ * (half-open): success closes the circuit, failure opens it again.
+ * Latencies of recent successful requests are kept for percentile-based hedging.
+ */
+public class ProviderHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderHealth.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int LATENCY_SAMPLES = 128;
+    // Fewer samples than this give no percentile
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String provider;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+    private boolean trialInFlight;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyNext;
+    private long successes;
+    private long failures;
+    private long rejected;
+    private long timesOpened;
+
+    public ProviderHealth(String provider, int failureThreshold, long openMs) {
+        this.provider = provider;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+    }
+
+    /**
+     * Whether a request may be sent now. While half-open only one trial request is allowed;
+     * a trial that never reports back is replaced after another open period.
+     */
+    public synchronized boolean allowRequest() {
+        long now = System.nanoTime();
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openNanos) {
+                    rejected++;
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                logger.info("{} circuit half-open; sending a trial request", provider);
+                return startTrial(now);
+            case HALF_OPEN:
+                if (!trialInFlight || now - trialStartedAt >= openNanos) {
+                    return startTrial(now);
+                }
+                rejected++;
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private boolean startTrial(long now) {
+        trialInFlight = true;
+        trialStartedAt = now;
+        return true;
+    }
+
+    public synchronized void recordSuccess(long latencyNanos) {
+        successes++;
+        consecutiveFailures = 0;
+        latencies[latencyNext] = latencyNanos;
+        latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        if (state != State.CLOSED) {
+            logger.info("{} circuit closed", provider);
+            state = State.CLOSED;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void recordFailure() {
+        failures++;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            logger.warn("{} circuit opened after {} consecutive failures; skipping it for {} ms",
+                provider, consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(openNanos));
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+            timesOpened++;
+        }
+    }
+
+    /**
+     * Latency percentile of recent successful requests in ms, or -1 if too few were seen
+     */
+    public synchronized long latencyPercentileMs(double percentile) {
+        if (latencyCount < MIN_LATENCY_SAMPLES) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * latencyCount) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(index, latencyCount - 1))]);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Circuit state, counters and latency percentiles for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("successes", successes);
+        stats.put("failures", failures);
+        stats.put("rejected", rejected);
+        stats.put("timesOpened", timesOpened);
+        stats.put("p50LatencyMs", latencyPercentileMs(0.50));
+        stats.put("p95LatencyMs", latencyPercentileMs(0.95));
+        return stats;
+    }
+}
@@ -0,0 +1,378 @@
+package com.aero.quickfix.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Request scheduler for one market data provider.
+ * Requests are queued and started only when the provider's token bucket has a token
+ * and fewer than {@code maxConcurrent} requests are open, so over any minute at most
+ * {@code burst + requestsPerMinute} requests reach the provider. Interactive requests
+ * are always started before background refreshes, and a request for a key that is
+ * already queued shares the queued request instead of costing a second token.
+ * When the provider reports a rate limit anyway, the bucket is drained and the
+ * queue paused for the provider's back-off.
+ * Each priority queue holds at most {@code maxQueued} requests, and a request still
+ * queued after {@code maxWaitMs} is dropped, so callers never wait without bound when
+ * demand outruns the quota. Both fail the request's future with a
+ * {@link RejectedExecutionException}.
+ */
+public class ProviderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderScheduler.class);
+
+    /**
+     * Who is waiting for a request: a user request, or a background refresh
+     */
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    /**
+     * Deadline for requests that may wait as long as the queue allows
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final String provider;
+    private final int requestsPerMinute;
+    private final int burst;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final double tokensPerNano;
+
+    private final Deque<Task<?>> interactive = new ArrayDeque<>();
+    private final Deque<Task<?>> background = new ArrayDeque<>();
+    private final Map<String, Task<?>> queuedByKey = new HashMap<>();
+    private final ScheduledExecutorService timer;
+
+    // Guarded by this
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int running;
+    private boolean drainScheduled;
+    private long submitted;
+    private long coalesced;
+    private long rateLimited;
+    private long rejected;
+    private long expired;
+
+    public ProviderScheduler(String provider, int requestsPerMinute, int burst, int maxConcurrent,
+                             int maxQueued, long maxWaitMs) {
+        this.provider = provider;
+        this.requestsPerMinute = Math.max(1, requestsPerMinute);
+        this.burst = Math.max(1, burst);
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.maxWaitMs = Math.max(1, maxWaitMs);
+        this.tokensPerNano = this.requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, provider + "-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a request. The call is made once the provider has capacity for it.
+     * @param key Identifies equivalent requests (e.g. the symbol); null never coalesces
+     * @param priority Queue to wait in
+     * @param call Starts the request; must not block
+     * @return Future completed with the request's result, or failed with a
+     *         RejectedExecutionException if the queue is full or the request waited too long
+     */
+    public <T> CompletableFuture<T> submit(String key, Priority priority, Supplier<CompletableFuture<T>> call) {
+        return submit(key, priority, NO_DEADLINE, call);
+    }
+
+    /**
+     * Queue a request that is only worth starting before a deadline, e.g. when its caller
+     * stops waiting then. A request still queued at its deadline is dropped like one that
+     * waited too long; joining it with a later deadline extends it.
+     * @param deadlineNanos {@link System#nanoTime()} after which the call is not started, or NO_DEADLINE
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String key, Priority priority, long deadlineNanos,
+                                           Supplier<CompletableFuture<T>> call) {
+        Task<T> task;
+        List<Task<?>> ready;
+        int depth;
+        synchronized (this) {
+            submitted++;
+            if (key != null) {
+                Task<?> queued = queuedByKey.get(key);
+                if (queued != null) {
+                    coalesced++;
+                    queued.deadlineNanos = Math.max(queued.deadlineNanos, deadlineNanos);
+                    if (priority == Priority.INTERACTIVE) {
+                        promote(queued);
+                    }
+                    return (CompletableFuture<T>) queued.result;
+                }
+            }
+            Deque<Task<?>> queue = priority == Priority.INTERACTIVE ? interactive : background;
+            depth = queue.size();
+            if (depth >= maxQueued) {
+                rejected++;
+                task = null;
+                ready = List.of();
+            } else {
+                task = new Task<>(key, priority, deadlineNanos, call);
+                queue.addLast(task);
+                if (key != null) {
+                    queuedByKey.put(key, task);
+                }
+                ready = takeReady();
+            }
+        }
+        if (task == null) {
+            logger.warn("{} {} queue full ({} requests); rejecting request", provider, priority, depth);
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                provider + " queue full (" + depth + " " + priority + " requests waiting)"));
+        }
+        start(ready);
+        if (!task.result.isDone()) {
+            task.expiresNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            scheduleExpiry(task);
+        }
+        return task.result;
+    }
+
+    private void scheduleExpiry(Task<?> task) {
+        long delay = Math.min(task.expiresNanos, task.deadlineNanos) - System.nanoTime();
+        timer.schedule(() -> expire(task), Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Drop a request that is still queued once it has waited its limit or passed its deadline
+     */
+    private void expire(Task<?> task) {
+        synchronized (this) {
+            if (System.nanoTime() < Math.min(task.expiresNanos, task.deadlineNanos)) {
+                // A later caller extended the deadline
+                if (interactive.contains(task) || background.contains(task)) {
+                    scheduleExpiry(task);
+                }
+                return;
+            }
+            if (!interactive.remove(task) && !background.remove(task)) {
+                return;
+            }
+            if (task.key != null) {
+                queuedByKey.remove(task.key, task);
+            }
+            expired++;
+        }
+        logger.debug("{} request {} expired before it could start", provider, task.key);
+        task.result.completeExceptionally(new RejectedExecutionException(
+            provider + " request not started before its deadline"));
+    }
+
+    /**
+     * Move a queued background request ahead of the remaining background work,
+     * e.g. when a user starts waiting on it
+     */
+    public synchronized void prioritize(String key) {
+        Task<?> queued = queuedByKey.get(key);
+        if (queued != null) {
+            promote(queued);
+        }
+    }
+
+    /**
+     * Stop starting requests for a while after the provider reported a rate limit
+     */
+    public void throttle(long pauseMs) {
+        synchronized (this) {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMs);
+            pausedUntilNanos = Math.max(pausedUntilNanos, until);
+            tokens = 0;
+            rateLimited++;
+            scheduleDrain(pausedUntilNanos - System.nanoTime());
+        }
+        logger.warn("{} rate limit reached; pausing requests for {} ms ({} queued)", provider, pauseMs, getQueueDepth());
+    }
+
+    public synchronized int getQueueDepth() {
+        return interactive.size() + background.size();
+    }
+
+    /**
+     * Queue depth, open requests and counters for monitoring
+     */
+    public synchronized Map<String, Object> getStats() {
+        refill(System.nanoTime());
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("provider", provider);
+        stats.put("queueDepth", interactive.size() + background.size());
+        stats.put("queuedInteractive", interactive.size());
+        stats.put("queuedBackground", background.size());
+        stats.put("running", running);
+        stats.put("availableTokens", Math.floor(tokens));
+        stats.put("requestsPerMinute", requestsPerMinute);
+        stats.put("burst", burst);
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("submitted", submitted);
+        stats.put("coalesced", coalesced);
+        stats.put("rateLimited", rateLimited);
+        stats.put("rejected", rejected);
+        stats.put("expired", expired);
+        stats.put("maxQueued", maxQueued);
+        stats.put("maxWaitMs", maxWaitMs);
+        stats.put("pausedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - System.nanoTime())));
+        return stats;
+    }
+
+    /**
+     * Stop the timer and fail everything still queued, so no caller is left waiting
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        List<Task<?>> abandoned;
+        synchronized (this) {
+            abandoned = new ArrayList<>(interactive);
+            abandoned.addAll(background);
+            interactive.clear();
+            background.clear();
+            queuedByKey.clear();
+        }
+        for (Task<?> task : abandoned) {
+            task.result.completeExceptionally(new RejectedExecutionException(provider + " scheduler shut down"));
+        }
+    }
+
+    private void promote(Task<?> task) {
+        if (task.priority == Priority.BACKGROUND && background.remove(task)) {
+            task.priority = Priority.INTERACTIVE;
+            interactive.addLast(task);
+        }
+    }
+
+    /**
+     * Take as many queued requests as tokens and open slots allow.
+     * If requests are left waiting on tokens, a drain is scheduled for when the next
+     * token is due; requests waiting on a slot are started when a running one completes.
+     * Requests found past their deadline are returned marked as dropped, without using a token.
+     */
+    private List<Task<?>> takeReady() {
+        long now = System.nanoTime();
+        refill(now);
+        List<Task<?>> ready = new ArrayList<>();
+        while (running < maxConcurrent && now >= pausedUntilNanos && tokens >= 1) {
+            Task<?> task = interactive.pollFirst();
+            if (task == null) {
+                task = background.pollFirst();
+            }
+            if (task == null) {
+                break;
+            }
+            if (task.key != null) {
+                queuedByKey.remove(task.key, task);
+            }
+            if (now >= task.deadlineNanos) {
+                task.dropped = true;
+                expired++;
+                ready.add(task);
+                continue;
+            }
+            tokens -= 1;
+            running++;
+            ready.add(task);
+        }
+        if (running < maxConcurrent && (!interactive.isEmpty() || !background.isEmpty())) {
+            long untilToken = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            scheduleDrain(Math.max(pausedUntilNanos - now, untilToken));
+        }
+        return ready;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            timer.schedule(this::drainLater, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void drainLater() {
+        List<Task<?>> ready;
+        synchronized (this) {
+            drainScheduled = false;
+            ready = takeReady();
+        }
+        start(ready);
+    }
+
+    private void completed() {
+        List<Task<?>> ready;
+        synchronized (this) {
+            running--;
+            ready = takeReady();
+        }
+        start(ready);
+    }
+
+    // Outside the lock: a call may complete synchronously and re-enter completed()
+    private void start(List<Task<?>> ready) {
+        for (Task<?> task : ready) {
+            if (task.dropped) {
+                task.result.completeExceptionally(new RejectedExecutionException(
+                    provider + " request not started before its deadline"));
+            } else {
+                task.start(this::completed);
+            }
+        }
+    }
+
+    /**
+     * A queued request and the future its callers hold
+     */
+    private static final class Task<T> {
+        private final String key;
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Guarded by the scheduler
+        private Priority priority;
+        private long deadlineNanos;
+        private long expiresNanos = NO_DEADLINE;
+        private boolean dropped;
+
+        private Task(String key, Priority priority, long deadlineNanos, Supplier<CompletableFuture<T>> call) {
+            this.key = key;
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+            this.call = call;
+        }
+
+        private void start(Runnable onDone) {
+            CompletableFuture<T> request;
+            try {
+                request = call.get();
+            } catch (RuntimeException e) {
+                request = CompletableFuture.failedFuture(e);
+            }
+            request.whenComplete((value, error) -> {
+                onDone.run();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package com.aero.quickfix.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Application configuration for REST clients and utilities.
  */
 @Configuration
 public class AppConfig {
 
+    @Value("${market.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${market.http.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
     /**
      * RestTemplate bean for HTTP requests to external APIs (EODHD).
+     * Connections are kept alive and reused by the JDK; connect and read are bounded
+     * so a stalled provider cannot hold a request thread indefinitely.
      */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Non-blocking HttpClient for market data quotes.
+     * One shared instance keeps a pool of keep-alive connections per host and
+     * multiplexes requests over HTTP/2 where the provider supports it.
+     * Read timeouts are set per request.
+     */
+    @Bean
+    public HttpClient marketDataHttpClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
     }
 }
@@ -0,0 +1,26 @@
+package com.aero.quickfix.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Persistence Configuration
+ * Enables Hibernate JDBC batching so bulk saves (e.g. backtest trade logs) are sent
+ * as batched INSERTs instead of one round-trip per row. Values already set through
+ * spring.jpa.properties take precedence.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${quant.persistence.batch-size:500}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -95,7 +95,7 @@ public class QuickFixApplicationAdapter implements Application {
                 // Field not present, that's ok
             }
             
-            TradeData tradeData = new TradeData(orderId, symbol, "1".equals(side) ? "SELL" : "BUY", 
+            TradeData tradeData = new TradeData(orderId, symbol, mapSide(side),
                                                 orderQty, price, mapOrderStatus(ordStatus), "ExecutionReport");
             tradeData.setExecutedQty(lastQty);
             if (lastQty > 0) {
@@ -119,7 +119,7 @@ public class QuickFixApplicationAdapter implements Application {
             double orderQty = message.getDouble(quickfix.field.OrderQty.FIELD);
             double price = message.getDouble(quickfix.field.Price.FIELD);
             
-            TradeData tradeData = new TradeData(orderId, symbol, "1".equals(side) ? "SELL" : "BUY", 
+            TradeData tradeData = new TradeData(orderId, symbol, mapSide(side),
                                                 orderQty, price, "NEW", "NewOrder");
             
             tradeDataRepository.save(tradeData);
@@ -131,6 +131,18 @@ public class QuickFixApplicationAdapter implements Application {
         }
     }
 
+    /**
+     * FIX Side (tag 54) code to the side name stored with trades and used by "side" subscriptions
+     */
+    static String mapSide(String fixSide) {
+        return switch(fixSide) {
+            case "1" -> "BUY";
+            case "2" -> "SELL";
+            case "5" -> "SELL_SHORT";
+            default -> fixSide;
+        };
+    }
+
     private String mapOrderStatus(String fixStatus) {
         return switch(fixStatus) {
             case "0" -> "NEW";
@@ -4,15 +4,19 @@ import com.aero.quickfix.dto.MarketPriceDto;
 import com.aero.quickfix.service.InvestmentService;
 import com.aero.quickfix.service.MarketDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for market data operations.
  * Provides endpoints for fetching real-time market prices and company fundamentals.
+ * Price endpoints complete asynchronously, so request threads are not held during upstream fetches.
  */
 @RestController
 @RequestMapping("/api/market")
@@ -25,15 +29,18 @@ public class MarketDataController {
     @Autowired
     private InvestmentService investmentService;
 
+    // Most distinct symbols one multi-symbol request may ask for
+    @Value("${market.fanout.max-symbols:50}")
+    private int maxSymbols;
+
     /**
      * Get current market price for a symbol.
      * @param symbol Stock symbol (e.g., CRDB.TZ for Tanzania stocks)
      * @return MarketPriceDto with current price and metadata
      */
     @GetMapping("/price/{symbol}")
-    public ResponseEntity<MarketPriceDto> getMarketPrice(@PathVariable String symbol) {
-        MarketPriceDto price = marketDataService.getCurrentPrice(symbol);
-        return ResponseEntity.ok(price);
+    public CompletableFuture<ResponseEntity<MarketPriceDto>> getMarketPrice(@PathVariable String symbol) {
+        return marketDataService.getCurrentPriceAsync(symbol).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -64,16 +71,24 @@ public class MarketDataController {
 
     /**
      * Get cache statistics.
-     * @return Cache size and status information
+     * @return Cache size, configuration and hit/miss/load-time/eviction counters
      */
     @GetMapping("/cache/stats")
     public ResponseEntity<Map<String, Object>> getCacheStats() {
-        int cacheSize = marketDataService.getCacheSize();
-        return ResponseEntity.ok(Map.of(
-                "cacheSize", cacheSize,
-                "cacheExpirationMs", 5 * 360 * 1000,
-                "timestamp", System.currentTimeMillis()
-        ));
+        Map<String, Object> stats = marketDataService.getCacheStats();
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get upstream provider scheduler statistics.
+     * @return Queue depth, open requests, available tokens and rate-limit counters per provider
+     */
+    @GetMapping("/providers")
+    public ResponseEntity<Map<String, Object>> getProviderStats() {
+        Map<String, Object> stats = new java.util.LinkedHashMap<>(marketDataService.getProviderStats());
+        stats.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(stats);
     }
 
     /**
@@ -91,20 +106,25 @@ public class MarketDataController {
     }
 
     /**
-     * Get prices for multiple symbols.
-     * @param symbols Comma-separated symbols
-     * @return Map of symbol to price
+     * Get prices for multiple symbols, fetched concurrently.
+     * Symbols not priced within the deadline come back as invalid entries.
+     * @param symbols Comma-separated symbols, at most {@code market.fanout.max-symbols} distinct ones
+     * @return Map of symbol to price, or 400 if too many symbols were requested
      */
     @GetMapping("/prices")
-    public ResponseEntity<Map<String, MarketPriceDto>> getMultiplePrices(@RequestParam String symbols) {
-        String[] symbolArray = symbols.split(",");
-        Map<String, MarketPriceDto> prices = new java.util.HashMap<>();
-
-        for (String symbol : symbolArray) {
-            prices.put(symbol.trim(), marketDataService.getCurrentPrice(symbol.trim()));
+    public CompletableFuture<ResponseEntity<?>> getMultiplePrices(@RequestParam String symbols) {
+        List<String> symbolList = Arrays.stream(symbols.split(","))
+            .map(String::trim)
+            .filter(symbol -> !symbol.isEmpty())
+            .distinct()
+            .toList();
+
+        if (symbolList.size() > maxSymbols) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of(
+                "error", "Too many symbols: " + symbolList.size() + " requested, at most " + maxSymbols + " allowed")));
         }
 
-        return ResponseEntity.ok(prices);
+        return marketDataService.getCurrentPricesAsync(symbolList).<ResponseEntity<?>>thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -113,7 +133,7 @@ public class MarketDataController {
      * @return Map of DSE stocks with current prices
      */
     @GetMapping("/dse/stocks")
-    public ResponseEntity<Map<String, MarketPriceDto>> getDseStocks() {
+    public CompletableFuture<ResponseEntity<Map<String, MarketPriceDto>>> getDseStocks() {
         // All DSE listed companies
         String[] dseStocks = {
             // Major Banks & Financial
@@ -134,12 +154,7 @@ public class MarketDataController {
             "Tanzania.TZ"   // Tanzania National
         };
 
-        Map<String, MarketPriceDto> stocks = new java.util.HashMap<>();
-        for (String stock : dseStocks) {
-            stocks.put(stock, marketDataService.getCurrentPrice(stock));
-        }
-
-        return ResponseEntity.ok(stocks);
+        return marketDataService.getCurrentPricesAsync(Arrays.asList(dseStocks)).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -147,7 +162,7 @@ public class MarketDataController {
      * @return List of popular US stock prices
      */
     @GetMapping("/us/stocks")
-    public ResponseEntity<Map<String, MarketPriceDto>> getUsStocks() {
+    public CompletableFuture<ResponseEntity<Map<String, MarketPriceDto>>> getUsStocks() {
         // Popular US stocks for demonstration
         String[] usStocks = {
             "AAPL",     // Apple Inc.
@@ -162,12 +177,7 @@ public class MarketDataController {
             "AMD"       // Advanced Micro Devices
         };
 
-        Map<String, MarketPriceDto> stocks = new java.util.HashMap<>();
-        for (String stock : usStocks) {
-            stocks.put(stock, marketDataService.getCurrentPrice(stock));
-        }
-
-        return ResponseEntity.ok(stocks);
+        return marketDataService.getCurrentPricesAsync(Arrays.asList(usStocks)).thenApply(ResponseEntity::ok);
     }
 
     /**
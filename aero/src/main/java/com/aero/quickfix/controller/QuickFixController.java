@@ -2,6 +2,7 @@ package com.aero.quickfix.controller;
 
 import com.aero.quickfix.dto.TradeStatsDto;
 import com.aero.quickfix.model.TradeData;
+import com.aero.quickfix.repository.TradeAggregates;
 import com.aero.quickfix.repository.TradeDataRepository;
 import com.aero.quickfix.service.QuickFixService;
 import org.slf4j.Logger;
@@ -91,6 +92,14 @@ public class QuickFixController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get trade totals broken down by symbol and side.
+     */
+    @GetMapping("/trades/stats")
+    public ResponseEntity<TradeAggregates.Snapshot> getTradeStats() {
+        return ResponseEntity.ok(tradeDataRepository.getStatsSnapshot());
+    }
+
     /**
      * Get all trades.
      */
@@ -0,0 +1,106 @@
+package com.aero.quickfix.dto;
+
+import com.aero.quickfix.model.TradeData;
+import com.aero.quickfix.repository.TradeAggregates;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trades saved with sequence numbers [fromSeq, toSeq), oldest first, and the totals after them.
+ * The totals are absolute, so applying a delta twice or after a snapshot never skews them.
+ */
+public class TradeDeltaDto {
+
+    private int version;
+    private long fromSeq;
+    private long toSeq;
+    private List<TradeData> trades;
+    private int totalTrades;
+    private long totalVolume;
+    private double averagePrice;
+    // Totals per subscribed topic; left out for clients receiving every trade
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, TradeAggregates.Totals> topicTotals;
+
+    public TradeDeltaDto() {}
+
+    public TradeDeltaDto(int version, long fromSeq, long toSeq, List<TradeData> trades,
+                         int totalTrades, long totalVolume, double averagePrice) {
+        this.version = version;
+        this.fromSeq = fromSeq;
+        this.toSeq = toSeq;
+        this.trades = trades;
+        this.totalTrades = totalTrades;
+        this.totalVolume = totalVolume;
+        this.averagePrice = averagePrice;
+    }
+
+    public String getType() {
+        return "delta";
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public long getFromSeq() {
+        return fromSeq;
+    }
+
+    public void setFromSeq(long fromSeq) {
+        this.fromSeq = fromSeq;
+    }
+
+    public long getToSeq() {
+        return toSeq;
+    }
+
+    public void setToSeq(long toSeq) {
+        this.toSeq = toSeq;
+    }
+
+    public List<TradeData> getTrades() {
+        return trades;
+    }
+
+    public void setTrades(List<TradeData> trades) {
+        this.trades = trades;
+    }
+
+    public int getTotalTrades() {
+        return totalTrades;
+    }
+
+    public void setTotalTrades(int totalTrades) {
+        this.totalTrades = totalTrades;
+    }
+
+    public long getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(long totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+
+    public double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(double averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public Map<String, TradeAggregates.Totals> getTopicTotals() {
+        return topicTotals;
+    }
+
+    public void setTopicTotals(Map<String, TradeAggregates.Totals> topicTotals) {
+        this.topicTotals = topicTotals;
+    }
+}
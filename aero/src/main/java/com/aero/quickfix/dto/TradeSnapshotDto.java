@@ -0,0 +1,43 @@
+package com.aero.quickfix.dto;
+
+import com.aero.quickfix.model.TradeData;
+import java.util.List;
+
+/**
+ * Full trade stats for a delta-protocol client, taken at a trade sequence number.
+ * Deltas that follow pick up from {@code seq}.
+ */
+public class TradeSnapshotDto extends TradeStatsDto {
+
+    private int version;
+    private long seq;
+
+    public TradeSnapshotDto() {}
+
+    public TradeSnapshotDto(int version, long seq, int totalTrades, long totalVolume, double averagePrice,
+                            List<TradeData> recentTrades) {
+        super(totalTrades, totalVolume, averagePrice, recentTrades);
+        this.version = version;
+        this.seq = seq;
+    }
+
+    public String getType() {
+        return "snapshot";
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+}
@@ -1,7 +1,10 @@
 package com.aero.quickfix.dto;
 
 import com.aero.quickfix.model.TradeData;
+import com.aero.quickfix.repository.TradeAggregates;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for trade statistics and data response.
@@ -12,6 +15,9 @@ public class TradeStatsDto {
     private long totalVolume;
     private double averagePrice;
     private List<TradeData> recentTrades;
+    // Totals per subscribed topic; left out for clients receiving every trade
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, TradeAggregates.Totals> topicTotals;
 
     public TradeStatsDto() {}
 
@@ -53,4 +59,12 @@ public class TradeStatsDto {
     public void setRecentTrades(List<TradeData> recentTrades) {
         this.recentTrades = recentTrades;
     }
+
+    public Map<String, TradeAggregates.Totals> getTopicTotals() {
+        return topicTotals;
+    }
+
+    public void setTopicTotals(Map<String, TradeAggregates.Totals> topicTotals) {
+        this.topicTotals = topicTotals;
+    }
 }
@@ -1,20 +1,39 @@
 package com.aero.quickfix.quant.controller;
 
+import com.aero.quickfix.quant.dto.BacktestJobDTO;
 import com.aero.quickfix.quant.dto.BacktestRequestDTO;
 import com.aero.quickfix.quant.dto.BacktestResultDTO;
+import com.aero.quickfix.quant.dto.BatchBacktestRequestDTO;
+import com.aero.quickfix.quant.dto.OptimizationRequestDTO;
+import com.aero.quickfix.quant.dto.WalkForwardRequestDTO;
+import com.aero.quickfix.quant.model.BacktestJob;
 import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.service.BacktestEngine;
+import com.aero.quickfix.quant.service.BacktestJobService;
+import com.aero.quickfix.quant.service.BatchBacktestService;
+import com.aero.quickfix.quant.service.StrategyOptimizer;
+import com.aero.quickfix.quant.service.WalkForwardAnalyzer;
+import com.aero.quickfix.quant.strategy.ParameterRange;
 import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
 import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -26,10 +45,24 @@ import java.util.stream.Collectors;
 public class BacktestController {
 
     private static final Logger logger = LoggerFactory.getLogger(BacktestController.class);
+    private static final int MAX_BATCH_JOBS = 5000;
+    private static final long BATCH_STREAM_TIMEOUT_MS = 30 * 60 * 1000;
 
     @Autowired
     private BacktestEngine backtestEngine;
 
+    @Autowired
+    private BacktestJobService backtestJobService;
+
+    @Autowired
+    private BatchBacktestService batchBacktestService;
+
+    @Autowired
+    private StrategyOptimizer strategyOptimizer;
+
+    @Autowired
+    private WalkForwardAnalyzer walkForwardAnalyzer;
+
     @Autowired
     private SmaCrossoverStrategy smaCrossoverStrategy;
 
@@ -71,21 +104,11 @@ public class BacktestController {
     public ResponseEntity<?> runBacktest(@RequestBody BacktestRequestDTO request) {
         try {
             // Validate request
-            if (request.getStrategyName() == null || request.getStrategyName().isEmpty()) {
+            String error = validate(request.getStrategyName(), request.getSymbol(),
+                request.getStartDate(), request.getEndDate(), request.getInitialCapital());
+            if (error != null) {
                 return ResponseEntity.badRequest()
-                    .body(Map.of("error", "strategyName is required"));
-            }
-            if (request.getSymbol() == null || request.getSymbol().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("error", "symbol is required"));
-            }
-            if (request.getStartDate() == null || request.getEndDate() == null) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("error", "startDate and endDate are required"));
-            }
-            if (request.getInitialCapital() == null || request.getInitialCapital().doubleValue() <= 0) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("error", "initialCapital must be greater than 0"));
+                    .body(Map.of("error", error));
             }
 
             // Get strategy
@@ -119,6 +142,332 @@ public class BacktestController {
         }
     }
 
+    /**
+     * POST /api/quant/jobs
+     * Queue a backtest and return its job id immediately; poll GET /api/quant/jobs/{id}
+     * or subscribe on /ws/backtests for progress and results
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitBacktestJob(@RequestBody BacktestRequestDTO request) {
+        try {
+            // Validate request
+            String error = validate(request.getStrategyName(), request.getSymbol(),
+                request.getStartDate(), request.getEndDate(), request.getInitialCapital());
+            if (error != null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", error));
+            }
+
+            Strategy strategy = getStrategy(request.getStrategyName());
+            if (strategy == null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unknown strategy: " + request.getStrategyName()));
+            }
+
+            int priority = request.getPriority() != null ? request.getPriority() : 0;
+            BacktestJob job = backtestJobService.submit(strategy, request.getSymbol(),
+                request.getStartDate(), request.getEndDate(), request.getInitialCapital(), priority);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backtestJobService.toDTO(job));
+
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error submitting backtest job", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/quant/jobs/{id}
+     * Get the status, progress and (once completed) results of a backtest job
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getBacktestJob(@PathVariable UUID id) {
+        BacktestJob job = backtestJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(backtestJobService.toDTO(job));
+    }
+
+    /**
+     * GET /api/quant/jobs
+     * List retained backtest jobs, most recent first
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<?> getBacktestJobs() {
+        List<BacktestJobDTO> jobs = backtestJobService.getJobs().stream()
+            .map(backtestJobService::toDTO)
+            .collect(Collectors.toList());
+
+        return ResponseEntity.ok(Map.of(
+            "queued", backtestJobService.getQueuedCount(),
+            "running", backtestJobService.getRunningCount(),
+            "count", jobs.size(),
+            "jobs", jobs
+        ));
+    }
+
+    /**
+     * DELETE /api/quant/jobs/{id}
+     * Cancel a queued or running backtest job
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<?> cancelBacktestJob(@PathVariable UUID id) {
+        BacktestJob job = backtestJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!backtestJobService.cancel(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Job already finished", "status", job.getStatus().name()));
+        }
+        return ResponseEntity.accepted().body(backtestJobService.toDTO(job));
+    }
+
+    /**
+     * POST /api/quant/backtest/batch
+     * Run a set of strategies over a universe of symbols in parallel.
+     * Results are streamed as server-sent events ("result", "error") as each job
+     * finishes, followed by a single "complete" event with the batch summary.
+     * If the client disconnects or the stream times out, the remaining jobs are cancelled.
+     */
+    @PostMapping(value = "/backtest/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> runBatchBacktest(@RequestBody BatchBacktestRequestDTO request) {
+        // Validate request
+        String invalid = validate("strategyNames", request.getStrategyNames() != null && !request.getStrategyNames().isEmpty(),
+            "symbols", request.getSymbols() != null && !request.getSymbols().isEmpty(),
+            request.getStartDate(), request.getEndDate(), request.getInitialCapital());
+        if (invalid != null) {
+            return batchError(invalid);
+        }
+
+        List<String> symbols = request.getSymbols().stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(symbol -> !symbol.isEmpty())
+            .distinct()
+            .collect(Collectors.toList());
+
+        List<Strategy> strategies = new ArrayList<>();
+        for (String strategyName : new LinkedHashSet<>(request.getStrategyNames())) {
+            Strategy strategy = strategyName == null ? null : getStrategy(strategyName);
+            if (strategy == null) {
+                return batchError("Unknown strategy: " + strategyName);
+            }
+            if (!strategies.contains(strategy)) {
+                strategies.add(strategy);
+            }
+        }
+
+        if (symbols.size() * strategies.size() > MAX_BATCH_JOBS) {
+            return batchError("Batch exceeds " + MAX_BATCH_JOBS + " symbol/strategy combinations");
+        }
+
+        logger.info("Running batch backtest - Strategies: {}, Symbols: {}, Period: {} to {}",
+            request.getStrategyNames(), symbols.size(), request.getStartDate(), request.getEndDate());
+
+        SseEmitter emitter = new SseEmitter(BATCH_STREAM_TIMEOUT_MS);
+
+        CompletableFuture<BatchBacktestService.BatchSummary> batch = batchBacktestService.runBatch(symbols, strategies,
+            request.getStartDate(), request.getEndDate(), request.getInitialCapital(),
+            new BatchBacktestService.BatchListener() {
+                @Override
+                public void onResult(BacktestResults result) {
+                    sendEvent(emitter, "result", modelMapper.map(result, BacktestResultDTO.class));
+                }
+
+                @Override
+                public void onError(String symbol, String strategyName, Throwable error) {
+                    sendEvent(emitter, "error", Map.of(
+                        "symbol", symbol,
+                        "strategyName", strategyName,
+                        "error", String.valueOf(error.getMessage())
+                    ));
+                }
+            });
+        batch.whenComplete((summary, error) -> {
+            if (batch.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                logger.error("Batch backtest failed", error);
+                emitter.completeWithError(error);
+                return;
+            }
+            sendEvent(emitter, "complete", summary);
+            emitter.complete();
+        });
+
+        // Stop the batch once nobody is listening; a no-op after it finished
+        emitter.onCompletion(() -> batch.cancel(false));
+        emitter.onTimeout(() -> {
+            logger.warn("Batch stream timed out after {} ms; cancelling remaining jobs", BATCH_STREAM_TIMEOUT_MS);
+            batch.cancel(false);
+        });
+        emitter.onError(error -> batch.cancel(false));
+
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * POST /api/quant/optimize
+     * Sweep strategy parameters (grid or random search) and return the best sets by Sharpe ratio
+     */
+    @PostMapping("/optimize")
+    public ResponseEntity<?> optimize(@RequestBody OptimizationRequestDTO request) {
+        try {
+            // Validate request
+            String error = validate(request.getStrategyName(), request.getSymbol(),
+                request.getStartDate(), request.getEndDate(), request.getInitialCapital());
+            if (error != null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", error));
+            }
+
+            StrategyDescriptor descriptor = getStrategyDescriptor(request.getStrategyName());
+            if (descriptor == null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Strategy has no tunable parameters: " + request.getStrategyName()));
+            }
+
+            List<ParameterRange> ranges = request.getParameters() != null && !request.getParameters().isEmpty()
+                ? request.getParameters()
+                : descriptor.getDefaultRanges();
+            int topN = Math.min(request.getTopN() != null ? request.getTopN() : 10, StrategyOptimizer.MAX_TOP_N);
+            String method = request.getMethod() != null ? request.getMethod().toLowerCase() : "grid";
+
+            logger.info("Running optimization - Strategy: {}, Symbol: {}, Method: {}, Period: {} to {}",
+                request.getStrategyName(), request.getSymbol(), method, request.getStartDate(), request.getEndDate());
+
+            BarSeries series = backtestEngine.loadBarSeries(request.getSymbol(), request.getStartDate(), request.getEndDate());
+
+            StrategyOptimizer.OptimizationReport report;
+            switch (method) {
+                case "grid":
+                    report = strategyOptimizer.gridSearch(descriptor, ranges, series,
+                        request.getStartDate(), request.getEndDate(), request.getInitialCapital(), topN);
+                    break;
+                case "random":
+                    long seed = request.getSeed() != null ? request.getSeed() : System.nanoTime();
+                    int samples = Math.min(request.getSamples() != null ? request.getSamples() : 100,
+                        StrategyOptimizer.MAX_COMBINATIONS);
+                    report = strategyOptimizer.randomSearch(descriptor, ranges, samples, seed, series,
+                        request.getStartDate(), request.getEndDate(), request.getInitialCapital(), topN);
+                    break;
+                default:
+                    return ResponseEntity.badRequest()
+                        .body(Map.of("error", "method must be 'grid' or 'random'"));
+            }
+
+            List<Map<String, Object>> results = report.getTopResults().stream()
+                .map(r -> Map.<String, Object>of(
+                    "parameters", r.getParameters(),
+                    "result", modelMapper.map(r.getResults(), BacktestResultDTO.class)
+                ))
+                .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                "strategyName", descriptor.getName(),
+                "symbol", request.getSymbol(),
+                "method", method,
+                "evaluated", report.getEvaluated(),
+                "skipped", report.getSkipped(),
+                "results", results
+            ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error running optimization", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/quant/walk-forward
+     * Optimize on rolling train windows, trade each result on the following test window
+     * and report the combined out-of-sample performance
+     */
+    @PostMapping("/walk-forward")
+    public ResponseEntity<?> walkForward(@RequestBody WalkForwardRequestDTO request) {
+        try {
+            // Validate request
+            String error = validate(request.getStrategyName(), request.getSymbol(),
+                request.getStartDate(), request.getEndDate(), request.getInitialCapital());
+            if (error != null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", error));
+            }
+
+            StrategyDescriptor descriptor = getStrategyDescriptor(request.getStrategyName());
+            if (descriptor == null) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Strategy has no tunable parameters: " + request.getStrategyName()));
+            }
+
+            List<ParameterRange> ranges = request.getParameters() != null && !request.getParameters().isEmpty()
+                ? request.getParameters()
+                : descriptor.getDefaultRanges();
+            String method = request.getMethod() != null ? request.getMethod().toLowerCase() : "grid";
+            if (!method.equals("grid") && !method.equals("random")) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", "method must be 'grid' or 'random'"));
+            }
+            Integer samples = method.equals("random")
+                ? Math.min(request.getSamples() != null ? request.getSamples() : 100, StrategyOptimizer.MAX_COMBINATIONS)
+                : null;
+            long seed = request.getSeed() != null ? request.getSeed() : System.nanoTime();
+            int trainMonths = request.getTrainMonths() != null ? request.getTrainMonths() : 24;
+            int testMonths = request.getTestMonths() != null ? request.getTestMonths() : 6;
+            boolean anchored = Boolean.TRUE.equals(request.getAnchored());
+
+            logger.info("Running walk-forward analysis - Strategy: {}, Symbol: {}, Method: {}, Period: {} to {}",
+                request.getStrategyName(), request.getSymbol(), method, request.getStartDate(), request.getEndDate());
+
+            WalkForwardAnalyzer.WalkForwardReport report = walkForwardAnalyzer.run(descriptor, ranges, samples, seed,
+                request.getSymbol(), request.getStartDate(), request.getEndDate(), request.getInitialCapital(),
+                trainMonths, testMonths, anchored);
+
+            List<Map<String, Object>> windows = new ArrayList<>();
+            for (WalkForwardAnalyzer.WindowResult window : report.getWindows()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("trainStart", window.getTrainStart());
+                entry.put("trainEnd", window.getTrainEnd());
+                entry.put("testStart", window.getTestStart());
+                entry.put("testEnd", window.getTestEnd());
+                entry.put("parameters", window.getParameters());
+                entry.put("inSample", window.getInSample() != null
+                    ? modelMapper.map(window.getInSample(), BacktestResultDTO.class) : null);
+                entry.put("outOfSample", window.getOutOfSample() != null
+                    ? modelMapper.map(window.getOutOfSample(), BacktestResultDTO.class) : null);
+                windows.add(entry);
+            }
+
+            return ResponseEntity.ok(Map.of(
+                "strategyName", descriptor.getName(),
+                "symbol", request.getSymbol(),
+                "method", method,
+                "anchored", anchored,
+                "windows", windows,
+                "outOfSample", modelMapper.map(report.getAggregate(), BacktestResultDTO.class)
+            ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error running walk-forward analysis", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/quant/backtest/{id}
      * Get backtest results by ID
@@ -181,11 +530,85 @@ public class BacktestController {
                 "Technical Indicators",
                 "Strategy Framework",
                 "Backtesting Engine",
+                "Asynchronous Backtest Jobs",
+                "Batch Backtesting",
+                "Parameter Optimization",
+                "Walk-Forward Analysis",
                 "Performance Metrics"
             )
         ));
     }
 
+    /**
+     * Helper method to check the fields shared by single-strategy requests.
+     * Returns the first problem found, or null when the request is valid
+     */
+    private String validate(String strategyName, String symbol, LocalDate startDate, LocalDate endDate,
+                            BigDecimal initialCapital) {
+        return validate("strategyName", strategyName != null && !strategyName.isEmpty(),
+            "symbol", symbol != null && !symbol.isEmpty(), startDate, endDate, initialCapital);
+    }
+
+    /**
+     * Helper method to check the fields shared by every backtest request, naming the
+     * strategy and symbol fields as the request calls them
+     */
+    private String validate(String strategyField, boolean hasStrategy, String symbolField, boolean hasSymbol,
+                            LocalDate startDate, LocalDate endDate, BigDecimal initialCapital) {
+        if (!hasStrategy) {
+            return strategyField + " is required";
+        }
+        if (!hasSymbol) {
+            return symbolField + " is required";
+        }
+        if (startDate == null || endDate == null) {
+            return "startDate and endDate are required";
+        }
+        if (initialCapital == null || initialCapital.doubleValue() <= 0) {
+            return "initialCapital must be greater than 0";
+        }
+        return null;
+    }
+
+    /**
+     * Helper method to send an event from a worker thread
+     */
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                logger.debug("Client stopped listening to batch stream: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (IllegalStateException e) {
+                logger.debug("Batch stream already closed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Helper method to reject a batch request with a single error event
+     */
+    private ResponseEntity<SseEmitter> batchError(String message) {
+        SseEmitter emitter = new SseEmitter();
+        sendEvent(emitter, "error", Map.of("error", message));
+        emitter.complete();
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * Helper method to get a parameterized strategy descriptor by name
+     */
+    private StrategyDescriptor getStrategyDescriptor(String strategyName) {
+        switch (strategyName.toLowerCase()) {
+            case "sma crossover":
+            case "sma_crossover":
+                return SmaCrossoverStrategy.descriptor();
+            default:
+                return null;
+        }
+    }
+
     /**
      * Helper method to get strategy by name
      */
@@ -0,0 +1,97 @@
+package com.aero.quickfix.quant.dto;
+
+import com.aero.quickfix.quant.model.BacktestJob;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * BacktestJobDTO
+ * Status of an asynchronous backtest job, as returned by the job endpoints
+ * and pushed over /ws/backtests
+ */
+public class BacktestJobDTO {
+
+    private UUID jobId;
+    private String strategyName;
+    private String symbol;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer priority;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    private Integer barsProcessed;
+    private Integer totalBars;
+    private Double progress; // Percentage
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private BacktestResultDTO result; // Only once COMPLETED
+
+    // Constructors
+    public BacktestJobDTO() {}
+
+    public BacktestJobDTO(BacktestJob job, BacktestResultDTO result) {
+        this.jobId = job.getId();
+        this.strategyName = job.getStrategyName();
+        this.symbol = job.getSymbol();
+        this.startDate = job.getStartDate();
+        this.endDate = job.getEndDate();
+        this.priority = job.getPriority();
+        this.status = job.getStatus().name();
+        this.barsProcessed = job.getBarsProcessed();
+        this.totalBars = job.getTotalBars();
+        this.progress = Math.round(job.getProgress() * 10) / 10.0;
+        this.submittedAt = job.getSubmittedAt();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+        this.error = job.getError();
+        this.result = result;
+    }
+
+    // Getters and Setters
+    public UUID getJobId() { return jobId; }
+    public void setJobId(UUID jobId) { this.jobId = jobId; }
+
+    public String getStrategyName() { return strategyName; }
+    public void setStrategyName(String strategyName) { this.strategyName = strategyName; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getBarsProcessed() { return barsProcessed; }
+    public void setBarsProcessed(Integer barsProcessed) { this.barsProcessed = barsProcessed; }
+
+    public Integer getTotalBars() { return totalBars; }
+    public void setTotalBars(Integer totalBars) { this.totalBars = totalBars; }
+
+    public Double getProgress() { return progress; }
+    public void setProgress(Double progress) { this.progress = progress; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public BacktestResultDTO getResult() { return result; }
+    public void setResult(BacktestResultDTO result) { this.result = result; }
+}
@@ -22,6 +22,7 @@ public class BacktestRequestDTO {
     private LocalDate endDate;
     
     private BigDecimal initialCapital; // Starting cash
+    private Integer priority = 0; // Async jobs only; higher runs first
 
     // Constructors
     public BacktestRequestDTO() {}
@@ -50,4 +51,7 @@ public class BacktestRequestDTO {
 
     public BigDecimal getInitialCapital() { return initialCapital; }
     public void setInitialCapital(BigDecimal initialCapital) { this.initialCapital = initialCapital; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
 }
@@ -30,6 +30,7 @@ public class BacktestResultDTO {
     private BigDecimal averageWin;
     private BigDecimal averageLoss;
     private BigDecimal profitFactor;
+    private boolean tradesIncomplete;
     private LocalDateTime createdAt;
 
     // Constructors
@@ -104,6 +105,9 @@ public class BacktestResultDTO {
     public BigDecimal getProfitFactor() { return profitFactor; }
     public void setProfitFactor(BigDecimal profitFactor) { this.profitFactor = profitFactor; }
 
+    public boolean isTradesIncomplete() { return tradesIncomplete; }
+    public void setTradesIncomplete(boolean tradesIncomplete) { this.tradesIncomplete = tradesIncomplete; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -0,0 +1,52 @@
+package com.aero.quickfix.quant.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * BatchBacktestRequestDTO
+ * Request body for running every strategy against every symbol of a universe
+ */
+public class BatchBacktestRequestDTO {
+
+    private List<String> strategyNames; // e.g., ["SMA Crossover"]
+    private List<String> symbols; // e.g., ["AAPL", "MSFT"]
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+    
+    private BigDecimal initialCapital; // Starting cash for each run
+
+    // Constructors
+    public BatchBacktestRequestDTO() {}
+
+    public BatchBacktestRequestDTO(List<String> strategyNames, List<String> symbols, LocalDate startDate,
+                                   LocalDate endDate, BigDecimal initialCapital) {
+        this.strategyNames = strategyNames;
+        this.symbols = symbols;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.initialCapital = initialCapital;
+    }
+
+    // Getters and Setters
+    public List<String> getStrategyNames() { return strategyNames; }
+    public void setStrategyNames(List<String> strategyNames) { this.strategyNames = strategyNames; }
+
+    public List<String> getSymbols() { return symbols; }
+    public void setSymbols(List<String> symbols) { this.symbols = symbols; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public BigDecimal getInitialCapital() { return initialCapital; }
+    public void setInitialCapital(BigDecimal initialCapital) { this.initialCapital = initialCapital; }
+}
@@ -0,0 +1,72 @@
+package com.aero.quickfix.quant.dto;
+
+import com.aero.quickfix.quant.strategy.ParameterRange;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * WalkForwardRequestDTO
+ * Request body for a walk-forward analysis
+ */
+public class WalkForwardRequestDTO {
+
+    private String strategyName; // e.g., "SMA Crossover"
+    private String symbol; // e.g., "AAPL"
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    private BigDecimal initialCapital; // Starting cash for each window
+    private Integer trainMonths = 24; // Length of each in-sample window
+    private Integer testMonths = 6; // Length of each out-of-sample window (and the step)
+    private Boolean anchored = false; // true: train windows all start at startDate
+    private String method = "grid"; // "grid" or "random"
+    private List<ParameterRange> parameters; // Optional; strategy defaults when omitted
+    private Integer samples = 100; // Random search only
+    private Long seed; // Random search only; random when omitted
+
+    // Constructors
+    public WalkForwardRequestDTO() {}
+
+    // Getters and Setters
+    public String getStrategyName() { return strategyName; }
+    public void setStrategyName(String strategyName) { this.strategyName = strategyName; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public BigDecimal getInitialCapital() { return initialCapital; }
+    public void setInitialCapital(BigDecimal initialCapital) { this.initialCapital = initialCapital; }
+
+    public Integer getTrainMonths() { return trainMonths; }
+    public void setTrainMonths(Integer trainMonths) { this.trainMonths = trainMonths; }
+
+    public Integer getTestMonths() { return testMonths; }
+    public void setTestMonths(Integer testMonths) { this.testMonths = testMonths; }
+
+    public Boolean getAnchored() { return anchored; }
+    public void setAnchored(Boolean anchored) { this.anchored = anchored; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+
+    public List<ParameterRange> getParameters() { return parameters; }
+    public void setParameters(List<ParameterRange> parameters) { this.parameters = parameters; }
+
+    public Integer getSamples() { return samples; }
+    public void setSamples(Integer samples) { this.samples = samples; }
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+}
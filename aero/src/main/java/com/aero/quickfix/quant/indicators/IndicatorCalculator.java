@@ -1,6 +1,9 @@
 package com.aero.quickfix.quant.indicators;
 
+import com.aero.quickfix.quant.model.BarSeries;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.springframework.stereotype.Component;
 
 /**
@@ -10,6 +13,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class IndicatorCalculator {
 
+    private static final Pattern PERIODIC_SPEC = Pattern.compile("(SMA|EMA|RSI|ATR)_(\\d+)");
+
     /**
      * Calculate Simple Moving Average (SMA)
      */
@@ -279,4 +284,159 @@ public class IndicatorCalculator {
 
         return cumReturns;
     }
+
+    // ------------------------------------------------------------------
+    // Primitive array variants for BarSeries
+    // Output arrays are aligned with the input (value i belongs to bar i)
+    // and hold Double.NaN during warm-up.
+    // ------------------------------------------------------------------
+
+    /**
+     * Calculate Simple Moving Average (SMA) over a primitive series
+     */
+    public static double[] calculateSMA(double[] prices, int period) {
+        if (prices.length < period) {
+            throw new IllegalArgumentException("Insufficient data for SMA calculation");
+        }
+        return fill(new StreamingSMA(period), prices);
+    }
+
+    /**
+     * Calculate Exponential Moving Average (EMA) over a primitive series
+     */
+    public static double[] calculateEMA(double[] prices, int period) {
+        if (prices.length < period) {
+            throw new IllegalArgumentException("Insufficient data for EMA calculation");
+        }
+        return fill(new StreamingEMA(period), prices);
+    }
+
+    /**
+     * Calculate Relative Strength Index (RSI) over a primitive series
+     */
+    public static double[] calculateRSI(double[] prices, int period) {
+        if (prices.length < period + 1) {
+            throw new IllegalArgumentException("Insufficient data for RSI calculation");
+        }
+        return fill(new StreamingRSI(period), prices);
+    }
+
+    /**
+     * Calculate the MACD line (fast EMA - slow EMA) over a primitive series
+     */
+    public static double[] calculateMACDLine(double[] prices, int fast, int slow, int signal) {
+        if (prices.length < slow) {
+            throw new IllegalArgumentException("Insufficient data for MACD calculation");
+        }
+        return fill(new StreamingMACD(fast, slow, signal), prices);
+    }
+
+    /**
+     * Calculate Average True Range (ATR) over a bar series
+     */
+    public static double[] calculateATR(BarSeries series, int period) {
+        if (series.size() < period) {
+            throw new IllegalArgumentException("Insufficient data for ATR calculation");
+        }
+        StreamingATR atr = new StreamingATR(period);
+        double[] result = new double[series.size()];
+        for (int i = 0; i < result.length; i++) {
+            atr.update(series.getHigh(i), series.getLow(i), series.getClose(i));
+            result[i] = atr.value();
+        }
+        return result;
+    }
+
+    /**
+     * Convert a list-based indicator series into an array aligned with barCount bars.
+     * Shorter lists are right-aligned so their last value belongs to the last bar;
+     * nulls become Double.NaN.
+     */
+    public static double[] toAlignedArray(List<Double> values, int barCount) {
+        double[] result = new double[barCount];
+        Arrays.fill(result, Double.NaN);
+        int offset = barCount - values.size();
+        for (int i = Math.max(0, -offset); i < values.size(); i++) {
+            Double value = values.get(i);
+            if (value != null) {
+                result[i + offset] = value;
+            }
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------------------
+    // Indicator specs, as named by Strategy.getRequiredIndicators()
+    // e.g. SMA_50, EMA_12, RSI_14, ATR_14, MACD, BOLLINGER_BANDS
+    // ------------------------------------------------------------------
+
+    /**
+     * Create a fresh streaming indicator for a spec, or null if the spec is unknown
+     */
+    public static StreamingIndicator createStreaming(String spec) {
+        Matcher matcher = PERIODIC_SPEC.matcher(spec);
+        if (matcher.matches()) {
+            int period = Integer.parseInt(matcher.group(2));
+            switch (matcher.group(1)) {
+                case "SMA":
+                    return new StreamingSMA(period);
+                case "EMA":
+                    return new StreamingEMA(period);
+                case "RSI":
+                    return new StreamingRSI(period);
+                case "ATR":
+                    return new StreamingATR(period);
+                default:
+                    break;
+            }
+        }
+
+        switch (spec) {
+            case "MACD":
+                return new StreamingMACD(12, 26, 9);
+            case "BOLLINGER_BANDS":
+                // For now, just track middle band (SMA20)
+                return new StreamingSMA(20);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Push bar {@code index} of a series into a streaming indicator.
+     * ATR consumes the full bar; everything else consumes the close.
+     */
+    public static void update(StreamingIndicator indicator, BarSeries series, int index) {
+        if (indicator instanceof StreamingATR atr) {
+            atr.update(series.getHigh(index), series.getLow(index), series.getClose(index));
+        } else {
+            indicator.update(series.getClose(index));
+        }
+    }
+
+    /**
+     * Calculate an indicator spec over a bar series, aligned by index.
+     * Returns null for unknown specs.
+     */
+    public static double[] calculate(String spec, BarSeries series) {
+        StreamingIndicator indicator = createStreaming(spec);
+        if (indicator == null) {
+            return null;
+        }
+        double[] result = new double[series.size()];
+        for (int i = 0; i < result.length; i++) {
+            update(indicator, series, i);
+            result[i] = indicator.value();
+        }
+        return result;
+    }
+
+    private static double[] fill(StreamingIndicator indicator, double[] prices) {
+        double[] result = new double[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            indicator.update(prices[i]);
+            result[i] = indicator.value();
+        }
+        return result;
+    }
 }
@@ -0,0 +1,78 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming Average True Range
+ * Simple average of the first {@code period} true ranges, then Wilder smoothing,
+ * matching IndicatorCalculator.calculateATR.
+ */
+public class StreamingATR implements StreamingIndicator {
+
+    private final int period;
+    private boolean hasPreviousClose;
+    private double previousClose;
+    private int count;
+    private double seedSum;
+    private double atr = Double.NaN;
+
+    public StreamingATR(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("ATR period must be positive");
+        }
+        this.period = period;
+    }
+
+    /**
+     * Push the next bar
+     */
+    public void update(double high, double low, double close) {
+        double tr = high - low;
+        if (hasPreviousClose) {
+            double hc = Math.abs(high - previousClose);
+            double lc = Math.abs(low - previousClose);
+            tr = Math.max(tr, Math.max(hc, lc));
+        }
+        previousClose = close;
+        hasPreviousClose = true;
+
+        if (count < period) {
+            seedSum += tr;
+            count++;
+            if (count == period) {
+                atr = seedSum / period;
+            }
+            return;
+        }
+        atr = (atr * (period - 1) + tr) / period;
+    }
+
+    /**
+     * Push a close-only bar (high = low = close)
+     */
+    @Override
+    public void update(double close) {
+        update(close, close, close);
+    }
+
+    @Override
+    public double value() {
+        return atr;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        hasPreviousClose = false;
+        previousClose = 0;
+        count = 0;
+        seedSum = 0;
+        atr = Double.NaN;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
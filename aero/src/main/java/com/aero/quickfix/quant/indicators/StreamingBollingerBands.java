@@ -0,0 +1,89 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming Bollinger Bands
+ * Rolling mean and population variance over a fixed window, maintained with
+ * Welford's update for the add and its inverse for the value leaving the window.
+ * value() returns the middle band.
+ */
+public class StreamingBollingerBands implements StreamingIndicator {
+
+    private final int period;
+    private final double stdDevs;
+    private final double[] window;
+    private int count;
+    private int head;
+    private double mean;
+    private double m2;
+
+    public StreamingBollingerBands(int period, double stdDevs) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Bollinger period must be positive");
+        }
+        this.period = period;
+        this.stdDevs = stdDevs;
+        this.window = new double[period];
+    }
+
+    @Override
+    public void update(double value) {
+        if (count < period) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        } else {
+            // Slide the window: replace the oldest value in one step
+            double oldest = window[head];
+            double oldMean = mean;
+            mean += (value - oldest) / period;
+            m2 += (value - oldest) * (value - mean + oldest - oldMean);
+            if (m2 < 0) {
+                m2 = 0; // guard against rounding drift
+            }
+        }
+        window[head] = value;
+        head = (head + 1) % period;
+    }
+
+    @Override
+    public double value() {
+        return middle();
+    }
+
+    public double middle() {
+        return isReady() ? mean : Double.NaN;
+    }
+
+    public double upper() {
+        return isReady() ? mean + stdDevs * stdDev() : Double.NaN;
+    }
+
+    public double lower() {
+        return isReady() ? mean - stdDevs * stdDev() : Double.NaN;
+    }
+
+    /**
+     * Population standard deviation of the current window
+     */
+    public double stdDev() {
+        return isReady() ? Math.sqrt(m2 / period) : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        head = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
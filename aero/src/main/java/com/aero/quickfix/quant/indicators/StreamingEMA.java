@@ -0,0 +1,57 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming Exponential Moving Average
+ * Seeded with the SMA of the first {@code period} values, then updated recursively,
+ * matching IndicatorCalculator.calculateEMA.
+ */
+public class StreamingEMA implements StreamingIndicator {
+
+    private final int period;
+    private final double multiplier;
+    private int count;
+    private double seedSum;
+    private double ema = Double.NaN;
+
+    public StreamingEMA(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("EMA period must be positive");
+        }
+        this.period = period;
+        this.multiplier = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(double value) {
+        if (count < period) {
+            seedSum += value;
+            count++;
+            if (count == period) {
+                ema = seedSum / period;
+            }
+            return;
+        }
+        ema = (value - ema) * multiplier + ema;
+    }
+
+    @Override
+    public double value() {
+        return ema;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        seedSum = 0;
+        ema = Double.NaN;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,31 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * StreamingIndicator
+ * Stateful counterpart to the list-based statics in IndicatorCalculator.
+ * Values are pushed one bar at a time and each update runs in constant time
+ * on primitive state, so a backtest loop or a live feed can drive it without
+ * recomputing over the whole history.
+ */
+public interface StreamingIndicator {
+
+    /**
+     * Push the next value (usually a close price) into the indicator
+     */
+    void update(double value);
+
+    /**
+     * Current indicator value, or Double.NaN while still warming up
+     */
+    double value();
+
+    /**
+     * Whether enough values have been seen to produce a value
+     */
+    boolean isReady();
+
+    /**
+     * Clear all state so the instance can be reused for another series
+     */
+    void reset();
+}
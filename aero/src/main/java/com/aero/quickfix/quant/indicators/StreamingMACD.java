@@ -0,0 +1,59 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming MACD
+ * Fast EMA minus slow EMA, with the signal line as an EMA of the MACD line
+ * once the slow EMA is seeded. value() returns the MACD line.
+ */
+public class StreamingMACD implements StreamingIndicator {
+
+    private final StreamingEMA fastEma;
+    private final StreamingEMA slowEma;
+    private final StreamingEMA signalEma;
+    private double macd = Double.NaN;
+
+    public StreamingMACD(int fast, int slow, int signal) {
+        if (fast >= slow) {
+            throw new IllegalArgumentException("MACD fast period must be shorter than slow period");
+        }
+        this.fastEma = new StreamingEMA(fast);
+        this.slowEma = new StreamingEMA(slow);
+        this.signalEma = new StreamingEMA(signal);
+    }
+
+    @Override
+    public void update(double value) {
+        fastEma.update(value);
+        slowEma.update(value);
+        if (slowEma.isReady()) {
+            macd = fastEma.value() - slowEma.value();
+            signalEma.update(macd);
+        }
+    }
+
+    @Override
+    public double value() {
+        return macd;
+    }
+
+    public double signal() {
+        return signalEma.value();
+    }
+
+    public double histogram() {
+        return signalEma.isReady() ? macd - signalEma.value() : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return slowEma.isReady();
+    }
+
+    @Override
+    public void reset() {
+        fastEma.reset();
+        slowEma.reset();
+        signalEma.reset();
+        macd = Double.NaN;
+    }
+}
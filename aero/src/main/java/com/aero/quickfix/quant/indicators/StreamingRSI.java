@@ -0,0 +1,77 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming Relative Strength Index (Wilder smoothing)
+ * Averages the first {@code period} gains/losses, then applies Wilder smoothing,
+ * matching IndicatorCalculator.calculateRSI bar for bar.
+ */
+public class StreamingRSI implements StreamingIndicator {
+
+    private final int period;
+    private boolean hasPrevious;
+    private double previous;
+    private int changes;
+    private double avgGain;
+    private double avgLoss;
+    private double rsi = Double.NaN;
+
+    public StreamingRSI(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("RSI period must be positive");
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(double value) {
+        if (!hasPrevious) {
+            previous = value;
+            hasPrevious = true;
+            return;
+        }
+
+        double change = value - previous;
+        previous = value;
+        double gain = Math.max(0, change);
+        double loss = Math.max(0, -change);
+
+        if (changes < period) {
+            // Warm-up: accumulate simple averages of the first period changes
+            avgGain += gain / period;
+            avgLoss += loss / period;
+            changes++;
+            return;
+        }
+
+        avgGain = (avgGain * (period - 1) + gain) / period;
+        avgLoss = (avgLoss * (period - 1) + loss) / period;
+        changes++;
+
+        double rs = avgLoss == 0 ? 100 : avgGain / avgLoss;
+        rsi = 100 - (100 / (1 + rs));
+    }
+
+    @Override
+    public double value() {
+        return rsi;
+    }
+
+    @Override
+    public boolean isReady() {
+        return changes > period;
+    }
+
+    @Override
+    public void reset() {
+        hasPrevious = false;
+        previous = 0;
+        changes = 0;
+        avgGain = 0;
+        avgLoss = 0;
+        rsi = Double.NaN;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,55 @@
+package com.aero.quickfix.quant.indicators;
+
+/**
+ * Streaming Simple Moving Average
+ * Keeps a rolling sum over a fixed ring buffer of the last {@code period} values.
+ */
+public class StreamingSMA implements StreamingIndicator {
+
+    private final int period;
+    private final double[] window;
+    private int count;
+    private int head;
+    private double sum;
+
+    public StreamingSMA(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("SMA period must be positive");
+        }
+        this.period = period;
+        this.window = new double[period];
+    }
+
+    @Override
+    public void update(double value) {
+        if (count == period) {
+            sum -= window[head];
+        } else {
+            count++;
+        }
+        window[head] = value;
+        sum += value;
+        head = (head + 1) % period;
+    }
+
+    @Override
+    public double value() {
+        return isReady() ? sum / period : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        head = 0;
+        sum = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
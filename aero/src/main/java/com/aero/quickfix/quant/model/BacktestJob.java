@@ -0,0 +1,98 @@
+package com.aero.quickfix.quant.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Backtest Job
+ * In-memory state of a backtest submitted to the asynchronous job queue.
+ * Written by the worker running the job and read concurrently by status requests,
+ * so all mutable state is volatile.
+ */
+public class BacktestJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final UUID id = UUID.randomUUID();
+    private final String strategyName;
+    private final String symbol;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal initialCapital;
+    private final int priority;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int barsProcessed;
+    private volatile int totalBars;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile BacktestResults results;
+    private volatile String error;
+
+    public BacktestJob(String strategyName, String symbol, LocalDate startDate, LocalDate endDate,
+                       BigDecimal initialCapital, int priority) {
+        this.strategyName = strategyName;
+        this.symbol = symbol;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.initialCapital = initialCapital;
+        this.priority = priority;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    /**
+     * Progress as a percentage of bars simulated (0 until the price history is loaded)
+     */
+    public double getProgress() {
+        int total = totalBars;
+        if (status == Status.COMPLETED) return 100.0;
+        return total > 0 ? Math.min(100.0, barsProcessed * 100.0 / total) : 0.0;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public String getStrategyName() { return strategyName; }
+    public String getSymbol() { return symbol; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public BigDecimal getInitialCapital() { return initialCapital; }
+    public int getPriority() { return priority; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getBarsProcessed() { return barsProcessed; }
+    public void setBarsProcessed(int barsProcessed) { this.barsProcessed = barsProcessed; }
+
+    public int getTotalBars() { return totalBars; }
+    public void setTotalBars(int totalBars) { this.totalBars = totalBars; }
+
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public BacktestResults getResults() { return results; }
+    public void setResults(BacktestResults results) { this.results = results; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    @Override
+    public String toString() {
+        return String.format("BacktestJob{id=%s, strategy='%s', symbol='%s', status=%s, progress=%.1f%%}",
+            id, strategyName, symbol, status, getProgress());
+    }
+}
@@ -75,6 +75,10 @@ public class BacktestResults {
     @Column(precision = 15, scale = 2)
     private BigDecimal avgLoss;
 
+    // Set when the trade log could not be persisted, so the stored trades are partial or missing
+    @Column(nullable = false)
+    private boolean tradesIncomplete;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -139,5 +143,8 @@ public class BacktestResults {
     public BigDecimal getAvgLoss() { return avgLoss; }
     public void setAvgLoss(BigDecimal avgLoss) { this.avgLoss = avgLoss; }
 
+    public boolean isTradesIncomplete() { return tradesIncomplete; }
+    public void setTradesIncomplete(boolean tradesIncomplete) { this.tradesIncomplete = tradesIncomplete; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
 }
@@ -0,0 +1,125 @@
+package com.aero.quickfix.quant.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Bar Series
+ * Columnar, primitive view of an OHLCV history for the quant hot path.
+ * Built once from OHLCVData entities; prices are stored as parallel double arrays
+ * and times as epoch milliseconds (UTC), so loops never touch BigDecimal or boxed values.
+ */
+public final class BarSeries {
+
+    private final String symbol;
+    private final long[] time;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    private BarSeries(String symbol, int size) {
+        this.symbol = symbol;
+        this.time = new long[size];
+        this.open = new double[size];
+        this.high = new double[size];
+        this.low = new double[size];
+        this.close = new double[size];
+        this.volume = new long[size];
+    }
+
+    /**
+     * Build a series from repository results (expected in ascending time order)
+     */
+    public static BarSeries from(String symbol, List<OHLCVData> bars) {
+        BarSeries series = new BarSeries(symbol, bars.size());
+        for (int i = 0; i < bars.size(); i++) {
+            OHLCVData bar = bars.get(i);
+            series.time[i] = bar.getTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+            series.open[i] = toDouble(bar.getOpen());
+            series.high[i] = toDouble(bar.getHigh());
+            series.low[i] = toDouble(bar.getLow());
+            series.close[i] = toDouble(bar.getClose());
+            series.volume[i] = bar.getVolume() != null ? bar.getVolume() : 0L;
+        }
+        return series;
+    }
+
+    /**
+     * Build a series from repository results, taking the symbol from the first bar
+     */
+    public static BarSeries from(List<OHLCVData> bars) {
+        return from(bars.isEmpty() ? null : bars.get(0).getSymbol(), bars);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    public String getSymbol() { return symbol; }
+
+    public int size() { return close.length; }
+
+    public boolean isEmpty() { return close.length == 0; }
+
+    public long getEpochMillis(int index) { return time[index]; }
+
+    public LocalDateTime getTime(int index) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time[index]), ZoneOffset.UTC);
+    }
+
+    public LocalDate getDate(int index) { return getTime(index).toLocalDate(); }
+
+    public double getOpen(int index) { return open[index]; }
+
+    public double getHigh(int index) { return high[index]; }
+
+    public double getLow(int index) { return low[index]; }
+
+    public double getClose(int index) { return close[index]; }
+
+    public long getVolume(int index) { return volume[index]; }
+
+    /**
+     * Index of the first bar on or after the given date (size() if there is none)
+     */
+    public int indexOf(LocalDate date) {
+        long target = date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        int low = 0;
+        int high = time.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (time[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Backing arrays are returned without copying; callers must treat them as read-only
+     */
+    public double[] opens() { return open; }
+
+    public double[] highs() { return high; }
+
+    public double[] lows() { return low; }
+
+    public double[] closes() { return close; }
+
+    public long[] volumes() { return volume; }
+
+    public long[] times() { return time; }
+
+    @Override
+    public String toString() {
+        return String.format("BarSeries{symbol='%s', size=%d}", symbol, size());
+    }
+}
@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ohlcv_data", indexes = {
     @Index(name = "idx_ohlcv_symbol_time", columnList = "symbol, time DESC")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "idx_ohlcv_symbol_time_unique", columnNames = {"symbol", "time"})
 })
 public class OHLCVData {
 
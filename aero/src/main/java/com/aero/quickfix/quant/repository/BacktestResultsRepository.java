@@ -2,6 +2,7 @@ package com.aero.quickfix.quant.repository;
 
 import com.aero.quickfix.quant.model.BacktestResults;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -42,4 +43,11 @@ public interface BacktestResultsRepository extends JpaRepository<BacktestResults
      */
     @Query("SELECT b FROM BacktestResults b WHERE b.createdAt >= :since ORDER BY b.createdAt DESC")
     List<BacktestResults> findRecentBacktests(@Param("since") LocalDateTime since);
+
+    /**
+     * Flag a backtest whose trade log could not be persisted
+     */
+    @Modifying
+    @Query("UPDATE BacktestResults b SET b.tradesIncomplete = true WHERE b.id = :id")
+    int markTradesIncomplete(@Param("id") UUID id);
 }
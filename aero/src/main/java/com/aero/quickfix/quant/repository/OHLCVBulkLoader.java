@@ -0,0 +1,202 @@
+package com.aero.quickfix.quant.repository;
+
+import com.aero.quickfix.quant.model.OHLCVData;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Bulk loader for OHLCV Data
+ * Streams bars into ohlcv_data through PostgreSQL COPY instead of one INSERT per
+ * entity (IDENTITY ids keep Hibernate from batching). Rows are copied into a
+ * session-local staging table and merged with INSERT ... ON CONFLICT on (symbol, time),
+ * so reloads can skip or overwrite bars that are already stored. That needs the unique
+ * index on (symbol, time), which is checked at startup.
+ */
+@Repository
+public class OHLCVBulkLoader {
+
+    /**
+     * How copied bars are merged with bars already stored
+     */
+    public enum Mode {
+        /** COPY straight into ohlcv_data; the caller guarantees the bars are not stored yet */
+        APPEND,
+        /** Insert new bars, leave stored ones untouched */
+        SKIP_EXISTING,
+        /** Insert new bars, overwrite stored ones whose values changed */
+        UPSERT
+    }
+
+    static final String UNIQUE_INDEX = "idx_ohlcv_symbol_time_unique";
+
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String COLUMNS = "time, symbol, open, high, low, close, volume, adjusted_close, dividend, split_coefficient";
+
+    // ON COMMIT DELETE ROWS leaves the pooled connection's staging table empty for the next load
+    private static final String CREATE_STAGING =
+        "CREATE TEMP TABLE IF NOT EXISTS ohlcv_staging (" +
+        "time TIMESTAMPTZ NOT NULL, symbol TEXT NOT NULL, open DECIMAL(15, 8) NOT NULL, " +
+        "high DECIMAL(15, 8) NOT NULL, low DECIMAL(15, 8) NOT NULL, close DECIMAL(15, 8) NOT NULL, " +
+        "volume BIGINT NOT NULL, adjusted_close DECIMAL(15, 8), dividend DECIMAL(15, 8), " +
+        "split_coefficient DECIMAL(15, 8)) ON COMMIT DELETE ROWS";
+
+    private static final String MERGE =
+        "WITH merged AS (" +
+        "INSERT INTO ohlcv_data (" + COLUMNS + ") " +
+        "SELECT DISTINCT ON (symbol, time) " + COLUMNS + " FROM ohlcv_staging ORDER BY symbol, time " +
+        "ON CONFLICT (symbol, time) %s " +
+        "RETURNING time, (xmax = 0) AS inserted) " +
+        "SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted), MIN(time) FROM merged";
+
+    private static final String DO_NOTHING = "DO NOTHING";
+
+    private static final String DO_UPDATE =
+        "DO UPDATE SET open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low, " +
+        "close = EXCLUDED.close, volume = EXCLUDED.volume, adjusted_close = EXCLUDED.adjusted_close, " +
+        "dividend = EXCLUDED.dividend, split_coefficient = EXCLUDED.split_coefficient, updated_at = NOW() " +
+        "WHERE (ohlcv_data.open, ohlcv_data.high, ohlcv_data.low, ohlcv_data.close, ohlcv_data.volume, " +
+        "ohlcv_data.adjusted_close, ohlcv_data.dividend, ohlcv_data.split_coefficient) IS DISTINCT FROM " +
+        "(EXCLUDED.open, EXCLUDED.high, EXCLUDED.low, EXCLUDED.close, EXCLUDED.volume, " +
+        "EXCLUDED.adjusted_close, EXCLUDED.dividend, EXCLUDED.split_coefficient)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OHLCVBulkLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fail at startup rather than on the first merge if ohlcv_data has no key to merge on
+     */
+    @PostConstruct
+    public void verifySchema() {
+        if (!hasUniqueKey()) {
+            throw new IllegalStateException("ohlcv_data has no unique index on (symbol, time); apply " +
+                "quickfix-server/migrations/002_ohlcv_unique.sql");
+        }
+    }
+
+    /**
+     * Whether the unique index bulk merges rely on exists
+     */
+    public boolean hasUniqueKey() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'ohlcv_data' AND indexname = ?",
+            Integer.class, UNIQUE_INDEX);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Load the bars of one symbol. Runs in the caller's transaction, or its own.
+     */
+    @Transactional
+    public LoadResult load(String symbol, List<OHLCVData> bars, Mode mode) {
+        if (bars.isEmpty()) {
+            return new LoadResult(0, 0, null);
+        }
+        return jdbcTemplate.execute((Connection connection) -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            if (mode == Mode.APPEND) {
+                long copied = copy(copyManager, "ohlcv_data", symbol, bars);
+                LocalDateTime earliest = bars.stream().map(OHLCVData::getTime).min(LocalDateTime::compareTo).orElse(null);
+                return new LoadResult((int) copied, 0, earliest);
+            }
+
+            try (var statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                statement.execute("TRUNCATE ohlcv_staging");
+            }
+            copy(copyManager, "ohlcv_staging", symbol, bars);
+
+            String merge = String.format(MERGE, mode == Mode.UPSERT ? DO_UPDATE : DO_NOTHING);
+            try (var statement = connection.createStatement(); var rs = statement.executeQuery(merge)) {
+                rs.next();
+                Timestamp earliest = rs.getTimestamp(3);
+                return new LoadResult(rs.getInt(1), rs.getInt(2), earliest != null ? earliest.toLocalDateTime() : null);
+            }
+        });
+    }
+
+    /**
+     * COPY bars in CSV form, flushing to the server in chunks so large loads are never
+     * held in memory as a single buffer
+     */
+    private long copy(CopyManager copyManager, String table, String symbol, List<OHLCVData> bars) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn("COPY " + table + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)");
+        try {
+            String quotedSymbol = '"' + symbol.replace("\"", "\"\"") + '"';
+            StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 256);
+            for (OHLCVData bar : bars) {
+                // LocalDateTime is written without an offset, as Hibernate does, so the session time zone applies
+                buffer.append(TIMESTAMP.format(bar.getTime())).append(',')
+                    .append(quotedSymbol).append(',');
+                appendDecimal(buffer, bar.getOpen()).append(',');
+                appendDecimal(buffer, bar.getHigh()).append(',');
+                appendDecimal(buffer, bar.getLow()).append(',');
+                appendDecimal(buffer, bar.getClose()).append(',');
+                buffer.append(bar.getVolume()).append(',');
+                appendDecimal(buffer, bar.getAdjustedClose()).append(',');
+                appendDecimal(buffer, bar.getDividend()).append(',');
+                appendDecimal(buffer, bar.getSplitCoefficient()).append('\n');
+                if (buffer.length() >= FLUSH_CHARS) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static StringBuilder appendDecimal(StringBuilder buffer, BigDecimal value) {
+        // An empty unquoted CSV field is NULL
+        return value != null ? buffer.append(value.toPlainString()) : buffer;
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Outcome of a bulk load
+     */
+    public static class LoadResult {
+        private final int inserted;
+        private final int updated;
+        private final LocalDateTime earliestChange;
+
+        public LoadResult(int inserted, int updated, LocalDateTime earliestChange) {
+            this.inserted = inserted;
+            this.updated = updated;
+            this.earliestChange = earliestChange;
+        }
+
+        public int getInserted() { return inserted; }
+        public int getUpdated() { return updated; }
+        /** Time of the earliest bar inserted or changed, or null if nothing changed */
+        public LocalDateTime getEarliestChange() { return earliestChange; }
+    }
+}
@@ -28,6 +28,16 @@ public interface OHLCVDataRepository extends JpaRepository<OHLCVData, Long> {
         @Param("endDate") LocalDateTime endDate
     );
 
+    /**
+     * Find the bar timestamps stored for a symbol within a date range, for coverage checks
+     */
+    @Query("SELECT o.time FROM OHLCVData o WHERE o.symbol = :symbol AND o.time >= :startDate AND o.time <= :endDate ORDER BY o.time ASC")
+    List<LocalDateTime> findTimesBySymbolAndDateRange(
+        @Param("symbol") String symbol,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
     /**
      * Find the latest price data for a symbol
      */
@@ -0,0 +1,113 @@
+package com.aero.quickfix.quant.repository;
+
+import com.aero.quickfix.quant.model.BarSeries;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Repository for the technical_indicators hypertable
+ * The table has no primary key, so it is accessed through JDBC rather than JPA:
+ * indicator values are read and written as whole columns aligned with a BarSeries.
+ * Writes merge on the unique index over (symbol, indicator_type, indicator_name, time),
+ * so storing a value that is already there is a no-op.
+ */
+@Repository
+public class TechnicalIndicatorRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SELECT_VALUES =
+        "SELECT time, value FROM technical_indicators " +
+        "WHERE symbol = ? AND indicator_type = ? AND indicator_name = ? AND time BETWEEN ? AND ? " +
+        "ORDER BY time";
+
+    private static final String INSERT_VALUE =
+        "INSERT INTO technical_indicators (time, symbol, period, indicator_type, indicator_name, value) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (symbol, indicator_type, indicator_name, time) DO NOTHING";
+
+    static final String UNIQUE_INDEX = "idx_indicators_unique";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TechnicalIndicatorRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load stored values of an indicator over the span of a series into {@code target},
+     * which is aligned with the series by index. Rows without a matching bar are ignored.
+     * Returns the number of bars filled.
+     */
+    public int loadAligned(String symbol, String indicatorType, String indicatorName, BarSeries series, double[] target) {
+        long[] times = series.times();
+        int[] cursor = {0, 0}; // next bar to match, bars filled
+        jdbcTemplate.query(SELECT_VALUES, rs -> {
+            long time = rs.getTimestamp(1).getTime();
+            while (cursor[0] < times.length && times[cursor[0]] < time) {
+                cursor[0]++;
+            }
+            if (cursor[0] < times.length && times[cursor[0]] == time) {
+                double value = rs.getDouble(2);
+                if (!rs.wasNull()) {
+                    target[cursor[0]] = value;
+                    cursor[1]++;
+                }
+                cursor[0]++;
+            }
+        }, symbol, indicatorType, indicatorName,
+            new Timestamp(times[0]), new Timestamp(times[times.length - 1]));
+        return cursor[1];
+    }
+
+    /**
+     * Insert the values at {@code indexes} of an indicator computed over a series, in JDBC batches
+     */
+    public void insertValues(String symbol, int period, String indicatorType, String indicatorName,
+                             BarSeries series, double[] values, int[] indexes) {
+        for (int from = 0; from < indexes.length; from += BATCH_SIZE) {
+            int offset = from;
+            int count = Math.min(BATCH_SIZE, indexes.length - from);
+            jdbcTemplate.batchUpdate(INSERT_VALUE, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int index = indexes[offset + i];
+                    ps.setTimestamp(1, new Timestamp(series.getEpochMillis(index)));
+                    ps.setString(2, symbol);
+                    ps.setInt(3, period);
+                    ps.setString(4, indicatorType);
+                    ps.setString(5, indicatorName);
+                    ps.setDouble(6, values[index]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    /**
+     * Whether the unique index that writes merge on exists
+     */
+    public boolean hasUniqueKey() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'technical_indicators' AND indexname = ?",
+            Integer.class, UNIQUE_INDEX);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Delete stored values of every indicator for a symbol from a point in time onwards
+     */
+    public int deleteBySymbolFrom(String symbol, long fromEpochMillis) {
+        return jdbcTemplate.update("DELETE FROM technical_indicators WHERE symbol = ? AND time >= ?",
+            symbol, new Timestamp(fromEpochMillis));
+    }
+}
@@ -2,25 +2,26 @@ package com.aero.quickfix.quant.service;
 
 import com.aero.quickfix.quant.indicators.IndicatorCalculator;
 import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.model.OHLCVData;
 import com.aero.quickfix.quant.model.TradeLog;
 import com.aero.quickfix.quant.repository.BacktestResultsRepository;
 import com.aero.quickfix.quant.repository.OHLCVDataRepository;
-import com.aero.quickfix.quant.repository.TradeLogRepository;
 import com.aero.quickfix.quant.strategy.Signal;
 import com.aero.quickfix.quant.strategy.Strategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
 
 /**
  * Backtest Engine
@@ -31,6 +32,14 @@ import java.util.stream.Collectors;
 public class BacktestEngine {
 
     private static final Logger logger = LoggerFactory.getLogger(BacktestEngine.class);
+    private static final int PROGRESS_INTERVAL = 512; // bars between monitor callbacks
+
+    /**
+     * How a simulation keeps its books.
+     * EXACT uses BigDecimal for every bar and trade (persisted backtests);
+     * FAST keeps cash and equity in doubles, for research sweeps.
+     */
+    public enum AccountingMode { EXACT, FAST }
 
     @Autowired
     private OHLCVDataRepository ohlcvDataRepository;
@@ -39,19 +48,51 @@ public class BacktestEngine {
     private BacktestResultsRepository backtestResultsRepository;
 
     @Autowired
-    private TradeLogRepository tradeLogRepository;
+    private TradeLogWriter tradeLogWriter;
 
     @Autowired
-    private IndicatorCalculator indicatorCalculator;
+    private MetricsCalculator metricsCalculator;
 
     @Autowired
-    private MetricsCalculator metricsCalculator;
+    private IndicatorStore indicatorStore;
+
+    // When true, trade logs are written after the response-bound transaction commits
+    @Value("${quant.backtest.async-trade-logs:false}")
+    private boolean asyncTradeLogs;
 
     /**
      * Execute a complete backtest for a strategy on a symbol
      */
     public BacktestResults runBacktest(Strategy strategy, String symbol, LocalDate startDate, LocalDate endDate, BigDecimal initialCapital) {
-        
+        BarSeries series = loadBarSeries(symbol, startDate, endDate);
+        return runBacktest(strategy, series, startDate, endDate, initialCapital);
+    }
+
+    /**
+     * Load price history for a symbol once as a BarSeries so it can be shared
+     * across several backtests
+     */
+    @Transactional(readOnly = true)
+    public BarSeries loadBarSeries(String symbol, LocalDate startDate, LocalDate endDate) {
+        List<OHLCVData> priceHistory = ohlcvDataRepository.findBySymbolAndDateRange(symbol, startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
+        return BarSeries.from(symbol, priceHistory != null ? priceHistory : Collections.emptyList());
+    }
+
+    /**
+     * Execute a complete backtest for a strategy on an already loaded bar series
+     */
+    public BacktestResults runBacktest(Strategy strategy, BarSeries series, LocalDate startDate, LocalDate endDate, BigDecimal initialCapital) {
+        return runBacktest(strategy, series, startDate, endDate, initialCapital, BacktestMonitor.NONE);
+    }
+
+    /**
+     * Execute a complete backtest, reporting progress to (and honouring cancellation from) a monitor.
+     * A cancelled run throws CancellationException and persists nothing.
+     */
+    public BacktestResults runBacktest(Strategy strategy, BarSeries series, LocalDate startDate, LocalDate endDate,
+                                       BigDecimal initialCapital, BacktestMonitor monitor) {
+        String symbol = series.getSymbol();
+
         logger.info("Starting backtest - Strategy: {}, Symbol: {}, Period: {} to {}", 
             strategy.getName(), symbol, startDate, endDate);
 
@@ -59,14 +100,84 @@ public class BacktestEngine {
             throw new IllegalArgumentException("Strategy is not properly configured");
         }
 
-        // Fetch historical data
-        List<OHLCVData> priceHistory = ohlcvDataRepository.findBySymbolAndDateRange(symbol, startDate.atStartOfDay(), endDate.atTime(23, 59, 59));
-        
-        if (priceHistory == null || priceHistory.isEmpty()) {
+        if (series.isEmpty()) {
             logger.warn("No price data found for {} between {} and {}", symbol, startDate, endDate);
             return createEmptyBacktestResult(strategy.getName(), symbol, startDate, endDate, initialCapital);
         }
 
+        Map<String, double[]> indicators = calculateIndicators(strategy, series);
+        Simulation simulation = simulate(strategy, series, indicators, 0, series.size(), startDate, endDate, initialCapital, monitor);
+        BacktestResults results = simulation.getResults();
+        List<TradeLog> trades = simulation.getTrades();
+
+        // Save results and trades
+        BacktestResults savedResults = backtestResultsRepository.save(results);
+        
+        // Associate trades with backtest and write them in bulk
+        if (asyncTradeLogs) {
+            tradeLogWriter.writeAfterCommit(savedResults.getId(), trades);
+        } else {
+            tradeLogWriter.write(savedResults.getId(), trades);
+        }
+
+        logger.info("Backtest completed - Strategy: {}, Total Trades: {}, Final Value: {}, Return: {}%", 
+            strategy.getName(), trades.size(), results.getFinalValue(), results.getTotalReturn());
+
+        return savedResults;
+    }
+
+    /**
+     * Evaluate a strategy on a bar series without persisting anything.
+     * Used by parameter sweeps, which supply (and share) precomputed indicators.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BacktestResults evaluate(Strategy strategy, BarSeries series, Map<String, double[]> indicators,
+                                    LocalDate startDate, LocalDate endDate, BigDecimal initialCapital,
+                                    AccountingMode mode) {
+        if (!strategy.isValid()) {
+            throw new IllegalArgumentException("Strategy is not properly configured");
+        }
+
+        if (series.isEmpty()) {
+            return createEmptyBacktestResult(strategy.getName(), series.getSymbol(), startDate, endDate, initialCapital);
+        }
+
+        return evaluateRange(strategy, series, indicators, 0, series.size(), startDate, endDate, initialCapital, mode)
+            .getResults();
+    }
+
+    /**
+     * Evaluate a strategy on the bars [fromIndex, toIndex) of a series without persisting anything.
+     * Indicators still span the full series, so bars before fromIndex serve as warm-up
+     * instead of being traded; the window itself is never copied.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Simulation evaluateRange(Strategy strategy, BarSeries series, Map<String, double[]> indicators,
+                                    int fromIndex, int toIndex,
+                                    LocalDate startDate, LocalDate endDate, BigDecimal initialCapital,
+                                    AccountingMode mode) {
+        if (!strategy.isValid()) {
+            throw new IllegalArgumentException("Strategy is not properly configured");
+        }
+        if (fromIndex < 0 || toIndex > series.size() || fromIndex > toIndex) {
+            throw new IllegalArgumentException("Invalid bar range [" + fromIndex + ", " + toIndex + ") for " + series.size() + " bars");
+        }
+
+        return mode == AccountingMode.FAST
+            ? simulateFast(strategy, series, indicators, fromIndex, toIndex, startDate, endDate, initialCapital)
+            : simulate(strategy, series, indicators, fromIndex, toIndex, startDate, endDate, initialCapital,
+                BacktestMonitor.NONE);
+    }
+
+    /**
+     * Simulate a strategy bar by bar over [fromIndex, toIndex) and compute its metrics
+     */
+    private Simulation simulate(Strategy strategy, BarSeries series, Map<String, double[]> indicators,
+                                int fromIndex, int toIndex,
+                                LocalDate startDate, LocalDate endDate, BigDecimal initialCapital,
+                                BacktestMonitor monitor) {
+        String symbol = series.getSymbol();
+
         // Initialize backtest state
         List<TradeLog> trades = new ArrayList<>();
         BigDecimal currentCapital = initialCapital;
@@ -78,21 +189,21 @@ public class BacktestEngine {
         List<BigDecimal> equityCurve = new ArrayList<>();
         equityCurve.add(initialCapital);
 
-        // Process each bar
-        for (int i = strategy.getMinimumBars(); i < priceHistory.size(); i++) {
-            
-            // Get price history up to current bar
-            List<OHLCVData> windowPrices = priceHistory.subList(0, i + 1);
-            OHLCVData currentBar = windowPrices.get(windowPrices.size() - 1);
-
-            // Calculate indicators
-            Map<String, List<Double>> indicators = calculateIndicators(strategy, windowPrices);
+        // Process each bar; indicators span the full series and are read at the bar index
+        int firstBar = Math.max(fromIndex, strategy.getMinimumBars());
+        for (int i = firstBar; i < toIndex; i++) {
+            if ((i - firstBar) % PROGRESS_INTERVAL == 0) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException("Backtest cancelled at bar " + i);
+                }
+                monitor.onProgress(i - fromIndex, toIndex - fromIndex);
+            }
 
             // Generate signal
-            Signal signal = strategy.generateSignal(windowPrices, indicators);
+            Signal signal = strategy.generateSignal(series, indicators, i);
 
             // Process signal
-            BigDecimal currentPrice = currentBar.getClose();
+            BigDecimal currentPrice = BigDecimal.valueOf(series.getClose(i));
 
             if (signal.isBuySignal() && !hasOpenPosition) {
                 // Enter long position
@@ -100,7 +211,7 @@ public class BacktestEngine {
                 currentCapital = BigDecimal.ZERO;
                 hasOpenPosition = true;
                 entryPrice = currentPrice;
-                entryDate = currentBar.getTime().toLocalDate();
+                entryDate = series.getDate(i);
                 entrySignal = signal.getReason();
                 logger.debug("BUY signal at {} - Price: {}, Shares: {}", entryDate, entryPrice, shares);
             }
@@ -115,22 +226,11 @@ public class BacktestEngine {
                 hasOpenPosition = false;
 
                 // Record trade
-                TradeLog trade = new TradeLog();
-                trade.setSymbol(symbol);
-                trade.setTradeDate(currentBar.getTime().toLocalDate());
-                trade.setEntryPrice(entryPrice);
-                trade.setExitPrice(exitPrice);
-                trade.setQuantity(shares);
-                trade.setTradeType("LONG");
-                trade.setTradeStatus("CLOSED");
-                trade.setProfitLoss(profitLoss);
-                trade.setProfitLossPct(profitLossPct);
-                trade.setEntrySignal(entrySignal);
-                trade.setExitSignal(signal.getReason());
-                trades.add(trade);
+                trades.add(createTrade(symbol, series.getDate(i), entryPrice, exitPrice, shares,
+                    profitLoss, profitLossPct, entrySignal, signal.getReason()));
 
                 logger.debug("SELL signal at {} - Price: {}, P&L: {} ({}%)", 
-                    currentBar.getTime().toLocalDate(), exitPrice, profitLoss, profitLossPct);
+                    series.getDate(i), exitPrice, profitLoss, profitLossPct);
 
                 shares = BigDecimal.ZERO;
             }
@@ -141,57 +241,125 @@ public class BacktestEngine {
         }
 
         // Close any open position at market close
-        if (hasOpenPosition && !priceHistory.isEmpty()) {
-            OHLCVData lastBar = priceHistory.get(priceHistory.size() - 1);
-            BigDecimal closePrice = lastBar.getClose();
+        if (hasOpenPosition) {
+            int last = toIndex - 1;
+            BigDecimal closePrice = BigDecimal.valueOf(series.getClose(last));
             BigDecimal grossProceeds = shares.multiply(closePrice);
             BigDecimal profitLoss = grossProceeds.subtract(shares.multiply(entryPrice));
             BigDecimal profitLossPct = profitLoss.divide(shares.multiply(entryPrice), 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
 
             currentCapital = grossProceeds;
 
-            TradeLog trade = new TradeLog();
-            trade.setSymbol(symbol);
-            trade.setTradeDate(lastBar.getTime().toLocalDate());
-            trade.setEntryPrice(entryPrice);
-            trade.setExitPrice(closePrice);
-            trade.setQuantity(shares);
-            trade.setTradeType("LONG");
-            trade.setTradeStatus("CLOSED");
-            trade.setProfitLoss(profitLoss);
-            trade.setProfitLossPct(profitLossPct);
-            trade.setEntrySignal(entrySignal);
-            trade.setExitSignal("End of backtest period");
-            trades.add(trade);
+            trades.add(createTrade(symbol, series.getDate(last), entryPrice, closePrice, shares,
+                profitLoss, profitLossPct, entrySignal, "End of backtest period"));
 
             shares = BigDecimal.ZERO;
         }
 
-        // Calculate metrics
+        monitor.onProgress(toIndex - fromIndex, toIndex - fromIndex);
+
+        // Calculate daily returns for Sharpe and Sortino
+        double[] dailyReturns = calculateDailyReturns(equityCurve);
+        BigDecimal maxDrawdown = metricsCalculator.calculateMaxDrawdown(equityCurve);
+
+        double[] equity = new double[equityCurve.size()];
+        for (int i = 0; i < equity.length; i++) {
+            equity[i] = equityCurve.get(i).doubleValue();
+        }
+
+        BacktestResults results = buildResults(strategy, symbol, startDate, endDate, initialCapital, currentCapital,
+            dailyReturns, maxDrawdown, trades);
+        return new Simulation(results, trades, equity);
+    }
+
+    /**
+     * Simulate a strategy over [fromIndex, toIndex) with double-precision accounting.
+     * Cash, shares and equity stay primitive for the whole run; BigDecimal is only used
+     * for the trade log entries and the final BacktestResults. Shares are not rounded to
+     * 4 decimals as in exact mode, so values drift from it by rounding error only.
+     */
+    private Simulation simulateFast(Strategy strategy, BarSeries series, Map<String, double[]> indicators,
+                                    int fromIndex, int toIndex,
+                                    LocalDate startDate, LocalDate endDate, BigDecimal initialCapital) {
+        String symbol = series.getSymbol();
+        double[] closes = series.closes();
+
+        List<TradeLog> trades = new ArrayList<>();
+        double cash = initialCapital.doubleValue();
+        double shares = 0;
+        boolean hasOpenPosition = false;
+        double entryPrice = 0;
+        String entrySignal = "";
+
+        int firstBar = Math.max(fromIndex, strategy.getMinimumBars());
+        double[] equity = new double[Math.max(0, toIndex - firstBar) + 1];
+        int bars = 0;
+        equity[bars++] = cash;
+
+        for (int i = firstBar; i < toIndex; i++) {
+            Signal signal = strategy.generateSignal(series, indicators, i);
+            double price = closes[i];
+
+            if (signal.isBuySignal() && !hasOpenPosition) {
+                shares = cash / price;
+                cash = 0;
+                hasOpenPosition = true;
+                entryPrice = price;
+                entrySignal = signal.getReason();
+            }
+            else if (signal.isSellSignal() && hasOpenPosition) {
+                cash = shares * price;
+                trades.add(createTrade(symbol, series.getDate(i), entryPrice, price, shares, entrySignal, signal.getReason()));
+                hasOpenPosition = false;
+                shares = 0;
+            }
+
+            equity[bars++] = cash + shares * price;
+        }
+
+        // Close any open position at market close
+        if (hasOpenPosition) {
+            int last = toIndex - 1;
+            cash = shares * closes[last];
+            trades.add(createTrade(symbol, series.getDate(last), entryPrice, closes[last], shares,
+                entrySignal, "End of backtest period"));
+        }
+
+        double[] dailyReturns = metricsCalculator.calculateDailyReturns(equity);
+        BigDecimal maxDrawdown = metricsCalculator.calculateMaxDrawdown(equity);
+
+        BacktestResults results = buildResults(strategy, symbol, startDate, endDate, initialCapital,
+            BigDecimal.valueOf(cash), dailyReturns, maxDrawdown, trades);
+        return new Simulation(results, trades, equity);
+    }
+
+    /**
+     * Build the metrics of a finished simulation
+     */
+    private BacktestResults buildResults(Strategy strategy, String symbol, LocalDate startDate, LocalDate endDate,
+                                         BigDecimal initialCapital, BigDecimal finalValue, double[] dailyReturns,
+                                         BigDecimal maxDrawdown, List<TradeLog> trades) {
         BacktestResults results = new BacktestResults();
         results.setStrategyName(strategy.getName());
         results.setSymbol(symbol);
         results.setStartDate(startDate);
         results.setEndDate(endDate);
         results.setInitialCapital(initialCapital);
-        results.setFinalValue(currentCapital);
+        results.setFinalValue(finalValue);
 
         // Performance metrics
-        BigDecimal totalReturn = metricsCalculator.calculateTotalReturn(initialCapital, currentCapital);
+        BigDecimal totalReturn = metricsCalculator.calculateTotalReturn(initialCapital, finalValue);
         results.setTotalReturn(totalReturn);
 
         int yearsDuration = endDate.getYear() - startDate.getYear();
         if (yearsDuration == 0) yearsDuration = 1;
-        BigDecimal annualReturn = metricsCalculator.calculateCAGR(initialCapital, currentCapital, yearsDuration);
+        BigDecimal annualReturn = metricsCalculator.calculateCAGR(initialCapital, finalValue, yearsDuration);
         results.setAnnualReturn(annualReturn);
 
-        // Calculate daily returns for Sharpe and Sortino
-        List<Double> dailyReturns = calculateDailyReturns(equityCurve);
         results.setSharpeRatio(metricsCalculator.calculateSharpeRatio(dailyReturns));
         results.setSortinoRatio(metricsCalculator.calculateSortinoRatio(dailyReturns, 0.0));
 
         // Drawdown metrics
-        BigDecimal maxDrawdown = metricsCalculator.calculateMaxDrawdown(equityCurve);
         results.setMaxDrawdown(maxDrawdown);
 
         // Trade metrics
@@ -205,90 +373,109 @@ public class BacktestEngine {
         results.setAvgLoss(metricsCalculator.calculateAverageLoss(trades));
         results.setProfitFactor(metricsCalculator.calculateProfitFactor(trades));
 
-        // Save results and trades
-        BacktestResults savedResults = backtestResultsRepository.save(results);
-        
-        // Associate trades with backtest
-        for (TradeLog trade : trades) {
-            trade.setBacktestId(savedResults.getId());
-            tradeLogRepository.save(trade);
-        }
+        return results;
+    }
 
-        logger.info("Backtest completed - Strategy: {}, Total Trades: {}, Final Value: {}, Return: {}%", 
-            strategy.getName(), trades.size(), currentCapital, totalReturn);
+    /**
+     * Create a closed long trade
+     */
+    private TradeLog createTrade(String symbol, LocalDate tradeDate, BigDecimal entryPrice, BigDecimal exitPrice,
+                                 BigDecimal quantity, BigDecimal profitLoss, BigDecimal profitLossPct,
+                                 String entrySignal, String exitSignal) {
+        TradeLog trade = new TradeLog();
+        trade.setSymbol(symbol);
+        trade.setTradeDate(tradeDate);
+        trade.setEntryPrice(entryPrice);
+        trade.setExitPrice(exitPrice);
+        trade.setQuantity(quantity);
+        trade.setTradeType("LONG");
+        trade.setTradeStatus("CLOSED");
+        trade.setProfitLoss(profitLoss);
+        trade.setProfitLossPct(profitLossPct);
+        trade.setEntrySignal(entrySignal);
+        trade.setExitSignal(exitSignal);
+        return trade;
+    }
 
-        return savedResults;
+    /**
+     * Create a closed long trade from double-precision values
+     */
+    private TradeLog createTrade(String symbol, LocalDate tradeDate, double entryPrice, double exitPrice,
+                                 double quantity, String entrySignal, String exitSignal) {
+        double cost = quantity * entryPrice;
+        double profitLoss = quantity * exitPrice - cost;
+        return createTrade(symbol, tradeDate, BigDecimal.valueOf(entryPrice), BigDecimal.valueOf(exitPrice),
+            BigDecimal.valueOf(quantity), BigDecimal.valueOf(profitLoss),
+            BigDecimal.valueOf(profitLoss / cost).setScale(4, RoundingMode.HALF_UP).multiply(new BigDecimal("100")),
+            entrySignal, exitSignal);
+    }
+
+    /**
+     * Calculate indicators required by strategy over the full bar series.
+     * Every returned array is aligned with the series by index. Arrays come from
+     * the shared IndicatorStore and must not be modified.
+     */
+    public Map<String, double[]> calculateIndicators(Strategy strategy, BarSeries series) {
+        return calculateIndicators(strategy, series, new HashMap<>());
     }
 
     /**
-     * Calculate indicators required by strategy for price window
+     * Calculate indicators required by strategy, reusing arrays already present in
+     * {@code shared} and adding newly computed ones to it. Pass a ConcurrentHashMap
+     * to share indicators between concurrent runs over the same series.
      */
-    private Map<String, List<Double>> calculateIndicators(Strategy strategy, List<OHLCVData> priceHistory) {
-        Map<String, List<Double>> indicators = new HashMap<>();
-        List<Double> prices = priceHistory.stream()
-            .map(p -> p.getClose().doubleValue())
-            .collect(Collectors.toList());
+    public Map<String, double[]> calculateIndicators(Strategy strategy, BarSeries series, Map<String, double[]> shared) {
+        Map<String, double[]> indicators = new HashMap<>();
+
+        // Too short to ever produce a signal
+        if (series.size() <= strategy.getMinimumBars()) {
+            return indicators;
+        }
 
         // Calculate all requested indicators
         for (String indicator : strategy.getRequiredIndicators()) {
-            List<Double> values = new ArrayList<>();
-
-            switch (indicator) {
-                case "SMA_50":
-                    values = indicatorCalculator.calculateSMA(prices, 50);
-                    break;
-                case "SMA_200":
-                    values = indicatorCalculator.calculateSMA(prices, 200);
-                    break;
-                case "EMA_12":
-                    values = indicatorCalculator.calculateEMA(prices, 12);
-                    break;
-                case "EMA_26":
-                    values = indicatorCalculator.calculateEMA(prices, 26);
-                    break;
-                case "RSI_14":
-                    values = indicatorCalculator.calculateRSI(prices, 14);
-                    break;
-                case "MACD":
-                    // MACD returns a map, extract only MACD line
-                    Map<String, List<Double>> macdResult = indicatorCalculator.calculateMACD(prices, 12, 26, 9);
-                    values = macdResult.getOrDefault("MACD", new ArrayList<>());
-                    break;
-                case "BOLLINGER_BANDS":
-                    // For now, just track middle band (SMA20)
-                    values = indicatorCalculator.calculateSMA(prices, 20);
-                    break;
-                default:
-                    logger.warn("Unknown indicator: {}", indicator);
-            }
-
-            if (!values.isEmpty()) {
+            double[] values = shared.computeIfAbsent(indicator, name -> indicatorStore.get(series, name));
+            if (values != null) {
                 indicators.put(indicator, values);
+            } else {
+                logger.warn("Unknown indicator: {}", indicator);
             }
         }
 
         return indicators;
     }
 
+    /**
+     * Calculate a single indicator by name, e.g. SMA_50, EMA_12, RSI_14, MACD, BOLLINGER_BANDS.
+     * Always computes from scratch, bypassing the indicator store. Returns null for unknown indicators.
+     */
+    public double[] calculateIndicator(String indicator, BarSeries series) {
+        double[] values = IndicatorCalculator.calculate(indicator, series);
+        if (values == null) {
+            logger.warn("Unknown indicator: {}", indicator);
+        }
+        return values;
+    }
+
     /**
      * Calculate daily returns from equity curve
      */
-    private List<Double> calculateDailyReturns(List<BigDecimal> equityCurve) {
-        List<Double> returns = new ArrayList<>();
+    private double[] calculateDailyReturns(List<BigDecimal> equityCurve) {
+        double[] returns = new double[Math.max(0, equityCurve.size() - 1)];
+        int count = 0;
 
         for (int i = 1; i < equityCurve.size(); i++) {
             BigDecimal previousValue = equityCurve.get(i - 1);
             BigDecimal currentValue = equityCurve.get(i);
 
             if (previousValue.compareTo(BigDecimal.ZERO) > 0) {
-                double dailyReturn = currentValue.subtract(previousValue)
+                returns[count++] = currentValue.subtract(previousValue)
                     .divide(previousValue, 6, RoundingMode.HALF_UP)
                     .doubleValue();
-                returns.add(dailyReturn);
             }
         }
 
-        return returns;
+        return count == returns.length ? returns : Arrays.copyOf(returns, count);
     }
 
     /**
@@ -310,6 +497,26 @@ public class BacktestEngine {
         return results;
     }
 
+    /**
+     * Outcome of a simulation: metrics plus the trades and equity curve that produced them
+     */
+    public static final class Simulation {
+        private final BacktestResults results;
+        private final List<TradeLog> trades;
+        private final double[] equity;
+
+        private Simulation(BacktestResults results, List<TradeLog> trades, double[] equity) {
+            this.results = results;
+            this.trades = trades;
+            this.equity = equity;
+        }
+
+        public BacktestResults getResults() { return results; }
+        public List<TradeLog> getTrades() { return trades; }
+        /** Equity before the first traded bar followed by the equity after each bar */
+        public double[] getEquity() { return equity; }
+    }
+
     /**
      * Get backtest results by ID
      */
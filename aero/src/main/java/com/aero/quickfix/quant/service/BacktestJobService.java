@@ -0,0 +1,248 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.dto.BacktestJobDTO;
+import com.aero.quickfix.quant.dto.BacktestResultDTO;
+import com.aero.quickfix.quant.model.BacktestJob;
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.websocket.BacktestJobWebSocketHandler;
+import jakarta.annotation.PreDestroy;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BacktestJobService
+ * Asynchronous backtest queue. Submitted jobs wait in a bounded priority queue
+ * (higher priority first, FIFO within a priority) and run on a fixed pool of workers.
+ * Job state is polled through the REST API and every status change, plus throttled
+ * progress, is pushed to /ws/backtests subscribers.
+ */
+@Service
+public class BacktestJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BacktestJobService.class);
+    private static final long PROGRESS_PUSH_INTERVAL_MS = 500;
+
+    private final BacktestEngine backtestEngine;
+    private final BacktestJobWebSocketHandler jobWebSocketHandler;
+    private final ModelMapper modelMapper;
+    private final int queueCapacity;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, BacktestJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, JobTask> queuedTasks = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public BacktestJobService(BacktestEngine backtestEngine, BacktestJobWebSocketHandler jobWebSocketHandler,
+                              ModelMapper modelMapper,
+                              @Value("${quant.jobs.parallelism:2}") int parallelism,
+                              @Value("${quant.jobs.queue-capacity:100}") int queueCapacity,
+                              @Value("${quant.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.backtestEngine = backtestEngine;
+        this.jobWebSocketHandler = jobWebSocketHandler;
+        this.modelMapper = modelMapper;
+        this.queueCapacity = queueCapacity;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        int workers = Math.max(1, parallelism);
+        // PriorityBlockingQueue is unbounded, so capacity is enforced in submit()
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>());
+        logger.info("BacktestJobService initialized - Workers: {}, Queue capacity: {}", workers, queueCapacity);
+    }
+
+    /**
+     * Queue a backtest. Throws RejectedExecutionException when the queue is full.
+     * The QUEUED update is published before the job is handed to a worker, so it always
+     * precedes the job's later updates.
+     */
+    public BacktestJob submit(Strategy strategy, String symbol, LocalDate startDate, LocalDate endDate,
+                              BigDecimal initialCapital, int priority) {
+        BacktestJob job = new BacktestJob(strategy.getName(), symbol, startDate, endDate, initialCapital, priority);
+        JobTask task = new JobTask(job, strategy, sequence.getAndIncrement());
+        int queued;
+        // Only the capacity check and registration are serialized
+        synchronized (this) {
+            purgeFinishedJobs();
+            if (queuedTasks.size() >= queueCapacity) {
+                throw new RejectedExecutionException("Backtest queue is full (" + queueCapacity + " jobs)");
+            }
+            jobs.put(job.getId(), job);
+            queuedTasks.put(job.getId(), task);
+            queued = queuedTasks.size();
+        }
+
+        logger.info("Backtest job queued - Id: {}, Strategy: {}, Symbol: {}, Priority: {}, Queued: {}",
+            job.getId(), job.getStrategyName(), symbol, priority, queued);
+        publish(job);
+        // A job cancelled meanwhile is finished as CANCELLED when its task runs
+        executor.execute(task);
+        return job;
+    }
+
+    public BacktestJob getJob(UUID id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * All retained jobs, most recently submitted first
+     */
+    public List<BacktestJob> getJobs() {
+        List<BacktestJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(BacktestJob::getSubmittedAt).reversed());
+        return result;
+    }
+
+    /**
+     * Cancel a job. Queued jobs are dropped immediately; running jobs stop at their next
+     * progress check. Returns false if the job is unknown or already finished.
+     */
+    public boolean cancel(UUID id) {
+        BacktestJob job = jobs.get(id);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+
+        job.setCancelRequested(true);
+        JobTask task = queuedTasks.remove(id);
+        if (task != null && executor.remove(task)) {
+            finish(job, BacktestJob.Status.CANCELLED, null, null);
+        }
+        logger.info("Backtest job cancellation requested - Id: {}", id);
+        return true;
+    }
+
+    public int getQueuedCount() {
+        return queuedTasks.size();
+    }
+
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Status view of a job, including its results once completed
+     */
+    public BacktestJobDTO toDTO(BacktestJob job) {
+        BacktestResults results = job.getResults();
+        return new BacktestJobDTO(job, results != null ? modelMapper.map(results, BacktestResultDTO.class) : null);
+    }
+
+    private void run(BacktestJob job, Strategy strategy) {
+        queuedTasks.remove(job.getId());
+        if (job.isCancelRequested()) {
+            finish(job, BacktestJob.Status.CANCELLED, null, null);
+            return;
+        }
+
+        job.setStatus(BacktestJob.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        publish(job);
+
+        try {
+            BarSeries series = backtestEngine.loadBarSeries(job.getSymbol(), job.getStartDate(), job.getEndDate());
+            job.setTotalBars(series.size());
+
+            BacktestResults results = backtestEngine.runBacktest(strategy, series, job.getStartDate(),
+                job.getEndDate(), job.getInitialCapital(), new JobMonitor(job));
+            finish(job, BacktestJob.Status.COMPLETED, results, null);
+        } catch (CancellationException e) {
+            finish(job, BacktestJob.Status.CANCELLED, null, null);
+        } catch (Exception e) {
+            logger.error("Backtest job failed - Id: {}", job.getId(), e);
+            finish(job, BacktestJob.Status.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void finish(BacktestJob job, BacktestJob.Status status, BacktestResults results, String error) {
+        job.setResults(results);
+        job.setError(error);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setStatus(status);
+        logger.info("Backtest job finished - Id: {}, Status: {}", job.getId(), status);
+        publish(job);
+    }
+
+    private void publish(BacktestJob job) {
+        try {
+            jobWebSocketHandler.publish(toDTO(job));
+        } catch (Exception e) {
+            logger.warn("Error publishing backtest job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Forwards engine progress to the job and pushes it at most every PROGRESS_PUSH_INTERVAL_MS
+     */
+    private final class JobMonitor implements BacktestMonitor {
+        private final BacktestJob job;
+        private long lastPush;
+
+        private JobMonitor(BacktestJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onProgress(int barsProcessed, int totalBars) {
+            job.setBarsProcessed(barsProcessed);
+            job.setTotalBars(totalBars);
+            long now = System.currentTimeMillis();
+            if (now - lastPush >= PROGRESS_PUSH_INTERVAL_MS) {
+                lastPush = now;
+                publish(job);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return job.isCancelRequested();
+        }
+    }
+
+    /**
+     * Queue entry ordered by priority (descending), then submission order
+     */
+    private final class JobTask implements Runnable, Comparable<JobTask> {
+        private final BacktestJob job;
+        private final Strategy strategy;
+        private final long sequence;
+
+        private JobTask(BacktestJob job, Strategy strategy, long sequence) {
+            this.job = job;
+            this.strategy = strategy;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            BacktestJobService.this.run(job, strategy);
+        }
+
+        @Override
+        public int compareTo(JobTask other) {
+            int byPriority = Integer.compare(other.job.getPriority(), job.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
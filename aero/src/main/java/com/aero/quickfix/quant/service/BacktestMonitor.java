@@ -0,0 +1,30 @@
+package com.aero.quickfix.quant.service;
+
+/**
+ * BacktestMonitor
+ * Observes a running simulation: receives periodic progress and can ask it to stop.
+ * Both methods are called from the simulating thread every few hundred bars.
+ */
+public interface BacktestMonitor {
+
+    /**
+     * Monitor that ignores progress and never cancels
+     */
+    BacktestMonitor NONE = new BacktestMonitor() {
+        @Override
+        public void onProgress(int barsProcessed, int totalBars) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void onProgress(int barsProcessed, int totalBars);
+
+    /**
+     * When true the simulation stops and throws a CancellationException
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,151 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.Strategy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchBacktestService
+ * Runs a set of strategies over a universe of symbols in parallel.
+ * Each symbol's price history is loaded once and shared by all strategies run on it;
+ * results are reported to a listener as soon as each job finishes.
+ * Cancelling the batch's future stops it between jobs: jobs not yet started are skipped
+ * and nothing more is reported to the listener.
+ */
+@Service
+public class BatchBacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchBacktestService.class);
+
+    private final BacktestEngine backtestEngine;
+    private final ExecutorService executor;
+
+    public BatchBacktestService(BacktestEngine backtestEngine,
+                                @Value("${quant.batch.parallelism:8}") int parallelism) {
+        this.backtestEngine = backtestEngine;
+        // Bounded so a large universe cannot exhaust the database connection pool
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        logger.info("BatchBacktestService initialized - Parallelism: {}", parallelism);
+    }
+
+    /**
+     * Callback for batch progress; invoked from worker threads
+     */
+    public interface BatchListener {
+        void onResult(BacktestResults result);
+
+        void onError(String symbol, String strategyName, Throwable error);
+    }
+
+    /**
+     * Summary of a finished batch
+     */
+    public static class BatchSummary {
+        private final int totalJobs;
+        private final int completed;
+        private final int failed;
+
+        public BatchSummary(int totalJobs, int completed, int failed) {
+            this.totalJobs = totalJobs;
+            this.completed = completed;
+            this.failed = failed;
+        }
+
+        public int getTotalJobs() { return totalJobs; }
+        public int getCompleted() { return completed; }
+        public int getFailed() { return failed; }
+    }
+
+    /**
+     * Run every strategy against every symbol.
+     * The returned future completes once all jobs have reported to the listener;
+     * cancelling it cancels the jobs that have not started yet.
+     */
+    public CompletableFuture<BatchSummary> runBatch(List<String> symbols, List<Strategy> strategies,
+                                                    LocalDate startDate, LocalDate endDate,
+                                                    BigDecimal initialCapital, BatchListener listener) {
+        int totalJobs = symbols.size() * strategies.size();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<CompletableFuture<BacktestResults>> runs = new ArrayList<>(totalJobs);
+        List<CompletableFuture<Void>> jobs = new ArrayList<>(totalJobs);
+
+        logger.info("Starting batch backtest - Symbols: {}, Strategies: {}, Jobs: {}",
+            symbols.size(), strategies.size(), totalJobs);
+
+        for (String symbol : symbols) {
+            CompletableFuture<BarSeries> series = CompletableFuture.supplyAsync(() -> {
+                checkCancelled(cancelled);
+                return backtestEngine.loadBarSeries(symbol, startDate, endDate);
+            }, executor);
+
+            for (Strategy strategy : strategies) {
+                CompletableFuture<BacktestResults> run = series.thenApplyAsync(s -> {
+                    checkCancelled(cancelled);
+                    return backtestEngine.runBacktest(strategy, s, startDate, endDate, initialCapital);
+                }, executor);
+                runs.add(run);
+                jobs.add(run
+                    .handle((result, error) -> {
+                        if (cancelled.get()) {
+                            return null;
+                        }
+                        if (error != null) {
+                            failed.incrementAndGet();
+                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                            logger.warn("Batch job failed - Strategy: {}, Symbol: {}: {}",
+                                strategy.getName(), symbol, cause.getMessage());
+                            listener.onError(symbol, strategy.getName(), cause);
+                        } else {
+                            completed.incrementAndGet();
+                            listener.onResult(result);
+                        }
+                        return null;
+                    }));
+            }
+        }
+
+        CompletableFuture<BatchSummary> batch = CompletableFuture.allOf(jobs.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                logger.info("Batch backtest completed - Jobs: {}, Completed: {}, Failed: {}",
+                    totalJobs, completed.get(), failed.get());
+                return new BatchSummary(totalJobs, completed.get(), failed.get());
+            });
+        batch.whenComplete((summary, error) -> {
+            if (batch.isCancelled() && cancelled.compareAndSet(false, true)) {
+                runs.forEach(run -> run.cancel(false));
+                logger.info("Batch backtest cancelled - Jobs: {}, Completed: {}, Failed: {}",
+                    totalJobs, completed.get(), failed.get());
+            }
+        });
+        return batch;
+    }
+
+    private static void checkCancelled(AtomicBoolean cancelled) {
+        if (cancelled.get()) {
+            throw new CancellationException("Batch cancelled");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package com.aero.quickfix.quant.service;
 
 import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.OHLCVBulkLoader;
 import com.aero.quickfix.quant.repository.OHLCVDataRepository;
 import com.aero.quickfix.client.FinvizMarketDataClient;
 import org.slf4j.Logger;
@@ -10,7 +11,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * HistoricalDataService
@@ -23,31 +27,67 @@ public class HistoricalDataService {
     
     private final FinvizMarketDataClient finvizClient;
     private final OHLCVDataRepository ohlcvRepository;
+    private final OHLCVBulkLoader bulkLoader;
+    private final IndicatorStore indicatorStore;
 
-    public HistoricalDataService(FinvizMarketDataClient finvizClient, OHLCVDataRepository ohlcvRepository) {
+    public HistoricalDataService(FinvizMarketDataClient finvizClient, OHLCVDataRepository ohlcvRepository,
+                                 OHLCVBulkLoader bulkLoader, IndicatorStore indicatorStore) {
         this.finvizClient = finvizClient;
         this.ohlcvRepository = ohlcvRepository;
+        this.bulkLoader = bulkLoader;
+        this.indicatorStore = indicatorStore;
     }
 
     /**
-     * Fetch and store historical OHLCV data for a symbol
+     * Fetch and store historical OHLCV data for a symbol, skipping bars already stored
      */
     @Transactional
     public HistoricalDataResult fetchAndStoreHistoricalData(String symbol, LocalDate from, LocalDate to) {
+        return fetchAndStoreHistoricalData(symbol, from, to, OHLCVBulkLoader.Mode.SKIP_EXISTING);
+    }
+
+    /**
+     * Fetch and store historical OHLCV data for a symbol.
+     * Use UPSERT to reload a range and overwrite bars whose values changed upstream.
+     */
+    @Transactional
+    public HistoricalDataResult fetchAndStoreHistoricalData(String symbol, LocalDate from, LocalDate to,
+                                                            OHLCVBulkLoader.Mode mode) {
         try {
             logger.info("Starting historical data fetch for {} from {} to {}", symbol, from, to);
 
-            // Fetch data from Finviz-based APIs
-            List<OHLCVData> rawData = finvizClient.fetchHistoricalOHLCV(symbol, from, to);
-            logger.info("Fetched {} records from Finviz APIs for {}", rawData.size(), symbol);
+            // Bars are validated and deduplicated as they are parsed off the response
+            Map<LocalDateTime, OHLCVData> bars = new TreeMap<>();
+            int received = finvizClient.streamHistoricalOHLCV(symbol, from, to, record -> {
+                if (isValid(record, symbol)) {
+                    bars.put(record.getTime(), record);
+                }
+            });
+            logger.info("Fetched {} records from Finviz APIs for {} ({} valid and unique)", received, symbol, bars.size());
 
-            if (rawData.isEmpty()) {
+            if (received == 0) {
                 logger.warn("No data received from Finviz APIs for symbol: {}", symbol);
                 return new HistoricalDataResult(symbol, 0, 0, "No data available from API");
             }
 
+            return load(symbol, new ArrayList<>(bars.values()), mode);
+
+        } catch (Exception e) {
+            logger.error("Error fetching historical data for {}: {}", symbol, e.getMessage(), e);
+            return new HistoricalDataResult(symbol, 0, 0, "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validate, deduplicate and bulk load already fetched OHLCV data for a symbol
+     */
+    @Transactional
+    public HistoricalDataResult storeHistoricalData(String symbol, List<OHLCVData> rawData, OHLCVBulkLoader.Mode mode) {
+        try {
             // Validate data
-            List<OHLCVData> validatedData = validateData(rawData, symbol);
+            List<OHLCVData> validatedData = rawData.stream()
+                .filter(record -> isValid(record, symbol))
+                .toList();
             logger.info("Validated {} records (removed {} invalid records)", validatedData.size(), 
                 rawData.size() - validatedData.size());
 
@@ -55,57 +95,67 @@ public class HistoricalDataService {
             List<OHLCVData> dedupedData = deduplicateData(validatedData);
             logger.info("After deduplication: {} records", dedupedData.size());
 
-            // Save to database
-            List<OHLCVData> savedData = ohlcvRepository.saveAll(dedupedData);
-            logger.info("Successfully saved {} records to database for {}", savedData.size(), symbol);
-
-            return new HistoricalDataResult(symbol, savedData.size(), 0, "Success");
+            return load(symbol, dedupedData, mode);
 
         } catch (Exception e) {
-            logger.error("Error fetching historical data for {}: {}", symbol, e.getMessage(), e);
+            logger.error("Error storing historical data for {}: {}", symbol, e.getMessage(), e);
             return new HistoricalDataResult(symbol, 0, 0, "Error: " + e.getMessage());
         }
     }
 
+    /**
+     * Bulk load validated, time-ordered bars and invalidate indicators over what changed
+     */
+    private HistoricalDataResult load(String symbol, List<OHLCVData> bars, OHLCVBulkLoader.Mode mode) {
+        OHLCVBulkLoader.LoadResult loaded = bulkLoader.load(symbol, bars, mode);
+        logger.info("Successfully loaded {} records for {} ({} inserted, {} updated, mode {})",
+            bars.size(), symbol, loaded.getInserted(), loaded.getUpdated(), mode);
+
+        // Indicators computed over the rewritten span are stale; pure appends keep their cache
+        if (loaded.getEarliestChange() != null) {
+            indicatorStore.invalidate(symbol, loaded.getEarliestChange());
+        }
+
+        return new HistoricalDataResult(symbol, loaded.getInserted(), loaded.getUpdated(), "Success");
+    }
+
     /**
      * Validate OHLCV data quality
      */
-    private List<OHLCVData> validateData(List<OHLCVData> data, String symbol) {
-        return data.stream()
-            .filter(record -> {
-                // Check basic validations
-                if (record.getClose() == null || record.getClose().signum() <= 0) {
-                    logger.debug("Invalid close price for {}: {}", symbol, record.getClose());
-                    return false;
-                }
+    private boolean isValid(OHLCVData record, String symbol) {
+        // Check basic validations
+        if (record.getClose() == null || record.getClose().signum() <= 0) {
+            logger.debug("Invalid close price for {}: {}", symbol, record.getClose());
+            return false;
+        }
 
-                // Validate OHLC relationships: Low <= Close <= High
-                if (record.getLow().compareTo(record.getClose()) > 0 || 
-                    record.getClose().compareTo(record.getHigh()) > 0) {
-                    logger.debug("Invalid OHLC relationship for {} on {}: O={} H={} L={} C={}", 
-                        symbol, record.getTime(), record.getOpen(), record.getHigh(), 
-                        record.getLow(), record.getClose());
-                    return false;
-                }
+        // Validate OHLC relationships: Low <= Close <= High
+        if (record.getLow().compareTo(record.getClose()) > 0 || 
+            record.getClose().compareTo(record.getHigh()) > 0) {
+            logger.debug("Invalid OHLC relationship for {} on {}: O={} H={} L={} C={}", 
+                symbol, record.getTime(), record.getOpen(), record.getHigh(), 
+                record.getLow(), record.getClose());
+            return false;
+        }
 
-                // Validate volume
-                if (record.getVolume() == null || record.getVolume() < 0) {
-                    logger.debug("Invalid volume for {}: {}", symbol, record.getVolume());
-                    return false;
-                }
+        // Validate volume
+        if (record.getVolume() == null || record.getVolume() < 0) {
+            logger.debug("Invalid volume for {}: {}", symbol, record.getVolume());
+            return false;
+        }
 
-                return true;
-            })
-            .toList();
+        return true;
     }
 
     /**
-     * Remove duplicate records (same symbol and date)
+     * Remove duplicate records (same timestamp, last one wins), ordered by time
      */
     private List<OHLCVData> deduplicateData(List<OHLCVData> data) {
-        return data.stream()
-            .distinct()
-            .toList();
+        Map<LocalDateTime, OHLCVData> byTime = new TreeMap<>();
+        for (OHLCVData record : data) {
+            byTime.put(record.getTime(), record);
+        }
+        return new ArrayList<>(byTime.values());
     }
 
     /**
@@ -149,6 +199,6 @@ public class HistoricalDataService {
         public int getRecordsInserted() { return recordsInserted; }
         public int getRecordsUpdated() { return recordsUpdated; }
         public String getMessage() { return message; }
-        public boolean isSuccess() { return recordsInserted > 0; }
+        public boolean isSuccess() { return recordsInserted > 0 || recordsUpdated > 0; }
     }
 }
@@ -0,0 +1,259 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.client.FinvizMarketDataClient;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.OHLCVBulkLoader;
+import com.aero.quickfix.quant.repository.OHLCVDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HistoricalDataSyncService
+ * Incremental, gap-aware backfill of daily OHLCV data.
+ *
+ * Instead of re-downloading a symbol's whole history, compares the stored bars with
+ * the trading days (weekdays) of the requested window and fetches only the missing
+ * ranges: the tail after the latest stored bar, history before the first one, and
+ * interior holes. Short interior holes are taken to be market holidays. All ranges of
+ * a symbol are served by a single provider call, which uses compact output when the
+ * earliest gap is recent, and only bars inside the gaps are written.
+ */
+@Service
+public class HistoricalDataSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalDataSyncService.class);
+
+    private final OHLCVDataRepository ohlcvRepository;
+    private final FinvizMarketDataClient finvizClient;
+    private final HistoricalDataService historicalDataService;
+    private final int lookbackYears;
+    private final int minInteriorGapDays;
+    private final List<String> trackedSymbols;
+
+    // Gaps the provider had no bars for; not asked again until restart
+    private final Set<String> emptyGaps = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public HistoricalDataSyncService(OHLCVDataRepository ohlcvRepository,
+                                     FinvizMarketDataClient finvizClient,
+                                     HistoricalDataService historicalDataService,
+                                     @Value("${quant.sync.lookback-years:20}") int lookbackYears,
+                                     @Value("${quant.sync.min-gap-days:3}") int minInteriorGapDays,
+                                     @Value("${quant.sync.symbols:}") List<String> trackedSymbols) {
+        this.ohlcvRepository = ohlcvRepository;
+        this.finvizClient = finvizClient;
+        this.historicalDataService = historicalDataService;
+        this.lookbackYears = lookbackYears;
+        this.minInteriorGapDays = minInteriorGapDays;
+        this.trackedSymbols = trackedSymbols;
+    }
+
+    /**
+     * Sync every symbol already in the database plus any configured in quant.sync.symbols.
+     * Disabled unless quant.sync.cron is set, e.g. "0 30 22 * * MON-FRI".
+     * Symbols are synced one at a time to stay inside provider rate limits.
+     */
+    @Scheduled(cron = "${quant.sync.cron:-}")
+    public List<SyncResult> syncAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Historical data sync already running; skipping");
+            return Collections.emptyList();
+        }
+        try {
+            Set<String> symbols = new TreeSet<>(ohlcvRepository.findAllSymbols());
+            trackedSymbols.stream().map(String::trim).filter(s -> !s.isEmpty()).forEach(symbols::add);
+
+            LocalDate today = LocalDate.now();
+            LocalDate from = today.minusYears(lookbackYears);
+            List<SyncResult> results = new ArrayList<>();
+            long started = System.currentTimeMillis();
+            for (String symbol : symbols) {
+                results.add(sync(symbol, from, today));
+            }
+            int inserted = results.stream().mapToInt(SyncResult::getBarsInserted).sum();
+            logger.info("Historical data sync: {} symbols, {} new bars in {} ms",
+                symbols.size(), inserted, System.currentTimeMillis() - started);
+            return results;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Fetch and store only the bars a symbol is missing between two dates
+     */
+    public SyncResult sync(String symbol, LocalDate from, LocalDate to) {
+        try {
+            List<DateRange> gaps = findGaps(symbol, from, to);
+            if (gaps.isEmpty()) {
+                logger.debug("{} is up to date from {} to {}", symbol, from, to);
+                return new SyncResult(symbol, 0, 0, 0, "Up to date");
+            }
+            logger.info("{} is missing {} range(s): {}", symbol, gaps.size(), gaps);
+
+            LocalDate fetchFrom = gaps.get(0).from;
+            LocalDate fetchTo = gaps.get(gaps.size() - 1).to;
+            // Bars between the gaps are dropped as they are parsed. A failed or rate-limited
+            // fetch throws, so only a gap the provider answered without bars is remembered as empty
+            List<OHLCVData> missing = new ArrayList<>();
+            int fetched = finvizClient.streamHistoricalOHLCV(symbol, fetchFrom, fetchTo, bar -> {
+                LocalDate date = bar.getTime().toLocalDate();
+                for (DateRange gap : gaps) {
+                    if (gap.contains(date)) {
+                        missing.add(bar);
+                        gap.filled = true;
+                        break;
+                    }
+                }
+            });
+            for (DateRange gap : gaps) {
+                // The open tail may simply not have traded yet, so it is always retried
+                if (!gap.filled && !gap.tail) {
+                    emptyGaps.add(gap.key(symbol));
+                }
+            }
+
+            if (missing.isEmpty()) {
+                return new SyncResult(symbol, gaps.size(), fetched, 0, "No new bars available");
+            }
+            HistoricalDataService.HistoricalDataResult stored =
+                historicalDataService.storeHistoricalData(symbol, missing, OHLCVBulkLoader.Mode.SKIP_EXISTING);
+            return new SyncResult(symbol, gaps.size(), fetched, stored.getRecordsInserted(), stored.getMessage());
+
+        } catch (Exception e) {
+            logger.error("Error syncing historical data for {}: {}", symbol, e.getMessage(), e);
+            return new SyncResult(symbol, 0, 0, 0, "Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Work out which weekday ranges between two dates have no stored bar
+     */
+    List<DateRange> findGaps(String symbol, LocalDate from, LocalDate to) {
+        List<DateRange> gaps = new ArrayList<>();
+        Optional<OHLCVData> latest = ohlcvRepository.findLatestBySymbol(symbol);
+        if (latest.isEmpty()) {
+            gaps.add(new DateRange(from, to, true));
+            return gaps;
+        }
+
+        Set<LocalDate> stored = new HashSet<>();
+        for (LocalDateTime time : ohlcvRepository.findTimesBySymbolAndDateRange(symbol, from.atStartOfDay(), to.atTime(23, 59, 59))) {
+            stored.add(time.toLocalDate());
+        }
+        LocalDate latestDate = latest.get().getTime().toLocalDate();
+        LocalDate firstStored = stored.isEmpty() ? latestDate : Collections.min(stored);
+
+        LocalDate gapStart = null;
+        int gapDays = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            if (!stored.contains(day)) {
+                if (gapStart == null) {
+                    gapStart = day;
+                    gapDays = 0;
+                }
+                gapDays++;
+                continue;
+            }
+            if (gapStart != null) {
+                addGap(gaps, symbol, gapStart, previousWeekday(day), gapDays, gapStart.isBefore(firstStored));
+                gapStart = null;
+            }
+        }
+        if (gapStart != null) {
+            if (gapStart.isAfter(latestDate)) {
+                // Everything after the latest stored bar is new
+                gaps.add(new DateRange(gapStart, to, true));
+            } else {
+                addGap(gaps, symbol, gapStart, to, gapDays, false);
+            }
+        }
+        return gaps;
+    }
+
+    private void addGap(List<DateRange> gaps, String symbol, LocalDate start, LocalDate end, int weekdays, boolean head) {
+        DateRange gap = new DateRange(start, end, false);
+        if (emptyGaps.contains(gap.key(symbol))) {
+            return;
+        }
+        // History before the first stored bar is always worth asking for once
+        if (head || weekdays >= minInteriorGapDays) {
+            gaps.add(gap);
+        }
+    }
+
+    private static LocalDate previousWeekday(LocalDate day) {
+        LocalDate previous = day.minusDays(1);
+        while (previous.getDayOfWeek() == DayOfWeek.SATURDAY || previous.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            previous = previous.minusDays(1);
+        }
+        return previous;
+    }
+
+    /**
+     * Inclusive range of dates missing from the database
+     */
+    static class DateRange {
+        final LocalDate from;
+        final LocalDate to;
+        final boolean tail;
+        boolean filled;
+
+        DateRange(LocalDate from, LocalDate to, boolean tail) {
+            this.from = from;
+            this.to = to;
+            this.tail = tail;
+        }
+
+        boolean contains(LocalDate date) {
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+
+        String key(String symbol) {
+            return symbol + '|' + from + '|' + to;
+        }
+
+        @Override
+        public String toString() {
+            return from + ".." + to;
+        }
+    }
+
+    /**
+     * Result of syncing one symbol
+     */
+    public static class SyncResult {
+        private final String symbol;
+        private final int gaps;
+        private final int barsFetched;
+        private final int barsInserted;
+        private final String message;
+
+        public SyncResult(String symbol, int gaps, int barsFetched, int barsInserted, String message) {
+            this.symbol = symbol;
+            this.gaps = gaps;
+            this.barsFetched = barsFetched;
+            this.barsInserted = barsInserted;
+            this.message = message;
+        }
+
+        public String getSymbol() { return symbol; }
+        public int getGaps() { return gaps; }
+        public int getBarsFetched() { return barsFetched; }
+        public int getBarsInserted() { return barsInserted; }
+        public String getMessage() { return message; }
+    }
+}
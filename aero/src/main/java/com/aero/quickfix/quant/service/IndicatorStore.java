@@ -0,0 +1,336 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.indicators.StreamingIndicator;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.repository.TechnicalIndicatorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * IndicatorStore
+ * Shared cache of indicator columns, keyed by symbol, indicator spec and the date
+ * range of the series they were computed over.
+ *
+ * Lookups go through a bounded in-memory LRU tier, then the technical_indicators
+ * table, and only then compute. Only windowed indicators (SMA and the Bollinger middle
+ * band) are stored: their value at a bar does not depend on where the series starts, so
+ * one stored column serves every backtest. Recursive ones (EMA, RSI, ATR, MACD) are kept
+ * in memory only. Each memory entry keeps the streaming indicator's
+ * state at its last bar, so a series that has grown by a few bars is served by
+ * extending the cached column instead of recomputing it; a shorter series over the
+ * same bars is served from its prefix. Returned arrays are shared and must not be modified.
+ */
+@Service
+public class IndicatorStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicatorStore.class);
+    private static final Pattern PERIODIC_SPEC = Pattern.compile("([A-Z]+)_(\\d+)");
+
+    private final TechnicalIndicatorRepository repository;
+    private final boolean persist;
+    private final Map<String, Entry> memory;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "indicator-store-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong extensions = new AtomicLong();
+    private final AtomicLong databaseLoads = new AtomicLong();
+    private final AtomicLong computations = new AtomicLong();
+
+    public IndicatorStore(TechnicalIndicatorRepository repository,
+                          @Value("${quant.indicators.cache-size:256}") int capacity,
+                          @Value("${quant.indicators.persist:false}") boolean persist) {
+        this.repository = repository;
+        this.persist = persist;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Fail at startup rather than on the first write if the table cannot take merged writes
+     */
+    @PostConstruct
+    public void verifySchema() {
+        if (persist && !repository.hasUniqueKey()) {
+            throw new IllegalStateException("technical_indicators has no unique index on " +
+                "(symbol, indicator_type, indicator_name, time); apply " +
+                "quickfix-server/migrations/001_technical_indicators_unique.sql or set quant.indicators.persist=false");
+        }
+    }
+
+    /**
+     * Get an indicator column aligned with the series by index, or null if the spec is unknown
+     */
+    public double[] get(BarSeries series, String spec) {
+        if (series.getSymbol() == null || series.isEmpty()) {
+            return IndicatorCalculator.calculate(spec, series);
+        }
+        if (IndicatorCalculator.createStreaming(spec) == null) {
+            return null;
+        }
+
+        String key = series.getSymbol() + '|' + spec + '|' + series.getEpochMillis(0);
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.computeIfAbsent(key, k -> new Entry(series.getSymbol(), spec));
+        }
+
+        // Per-entry lock: concurrent runs over the same indicator wait for one computation
+        synchronized (entry) {
+            double[] values = entry.resolve(series);
+            if (values != null) {
+                hits.incrementAndGet();
+                return values;
+            }
+            if (entry.size > 0 && entry.extend(series)) {
+                extensions.incrementAndGet();
+                return entry.values;
+            }
+            load(entry, series);
+            return entry.values;
+        }
+    }
+
+    /**
+     * Drop cached and stored values for a symbol from a point in time onwards,
+     * after its price history has been corrected. Appending new bars needs no invalidation.
+     */
+    public void invalidate(String symbol, LocalDateTime from) {
+        long fromMillis = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+        String prefix = symbol + '|';
+        synchronized (memory) {
+            memory.entrySet().removeIf(e -> e.getKey().startsWith(prefix) && e.getValue().lastTime >= fromMillis);
+        }
+        if (persist) {
+            try {
+                int deleted = repository.deleteBySymbolFrom(symbol, fromMillis);
+                logger.debug("Invalidated {} stored indicator values for {} from {}", deleted, symbol, from);
+            } catch (DataAccessException e) {
+                logger.warn("Could not invalidate stored indicators for {}: {}", symbol, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cache statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return Map.of(
+            "entries", size,
+            "hits", hits.get(),
+            "extensions", extensions.get(),
+            "databaseLoads", databaseLoads.get(),
+            "computations", computations.get()
+        );
+    }
+
+    /**
+     * Fill an entry from the database if it holds a value for every bar past the warm-up,
+     * otherwise compute it and store the rows the database is missing
+     */
+    private void load(Entry entry, BarSeries series) {
+        int n = series.size();
+        double[] stored = new double[n];
+        Arrays.fill(stored, Double.NaN);
+        boolean complete = false;
+        if (entry.stored) {
+            try {
+                repository.loadAligned(entry.symbol, entry.type, entry.spec, series, stored);
+                complete = alignWithWarmUp(entry.spec, series, stored);
+            } catch (DataAccessException e) {
+                logger.warn("Could not load stored {} for {}: {}", entry.spec, entry.symbol, e.getMessage());
+            }
+        }
+
+        if (complete) {
+            databaseLoads.incrementAndGet();
+            entry.indicator = null;
+            entry.publish(series, stored);
+            return;
+        }
+
+        computations.incrementAndGet();
+        StreamingIndicator indicator = IndicatorCalculator.createStreaming(entry.spec);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            IndicatorCalculator.update(indicator, series, i);
+            values[i] = indicator.value();
+        }
+        entry.indicator = indicator;
+        entry.publish(series, values);
+        persist(entry, series, values, stored, 0);
+    }
+
+    /**
+     * Queue the rows from {@code fromIndex} that have a value here but none in {@code stored}
+     */
+    private void persist(Entry entry, BarSeries series, double[] values, double[] stored, int fromIndex) {
+        if (!entry.stored) {
+            return;
+        }
+        int[] indexes = new int[values.length - fromIndex];
+        int count = 0;
+        for (int i = fromIndex; i < values.length; i++) {
+            if (!Double.isNaN(values[i]) && (stored == null || Double.isNaN(stored[i]))) {
+                indexes[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        int[] rows = Arrays.copyOf(indexes, count);
+        writer.execute(() -> {
+            try {
+                repository.insertValues(entry.symbol, entry.period, entry.type, entry.spec, series, values, rows);
+            } catch (DataAccessException e) {
+                logger.warn("Could not store {} for {}: {}", entry.spec, entry.symbol, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Blank stored values for bars still in the indicator's warm-up (rows written for a series
+     * that started earlier) and check that every bar after it has one, position by position
+     */
+    private static boolean alignWithWarmUp(String spec, BarSeries series, double[] stored) {
+        int warmUp = warmUpBars(spec, series);
+        Arrays.fill(stored, 0, warmUp, Double.NaN);
+        if (warmUp >= stored.length) {
+            return false;
+        }
+        for (int i = warmUp; i < stored.length; i++) {
+            if (Double.isNaN(stored[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of leading bars an indicator needs before it produces a value
+     */
+    private static int warmUpBars(String spec, BarSeries series) {
+        StreamingIndicator indicator = IndicatorCalculator.createStreaming(spec);
+        int i = 0;
+        while (i < series.size() && !indicator.isReady()) {
+            IndicatorCalculator.update(indicator, series, i++);
+        }
+        return indicator.isReady() ? i - 1 : series.size();
+    }
+
+    /**
+     * Windowed indicators only depend on the bars in their window, so a stored value is
+     * valid for any series containing that bar; recursive ones depend on where the series starts
+     */
+    private static boolean isWindowed(String spec) {
+        return spec.startsWith("SMA_") || spec.equals("BOLLINGER_BANDS");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Indicator store writer did not drain within 10s; pending writes dropped");
+            writer.shutdownNow();
+        }
+    }
+
+    /**
+     * One cached indicator column, guarded by its own monitor
+     */
+    private final class Entry {
+        private final String symbol;
+        private final String spec;
+        private final String type;
+        private final int period;
+        private final boolean stored; // read from and written to the database
+
+        private StreamingIndicator indicator; // state at the last bar; null when loaded from the database
+        private long[] times;
+        private double[] values;
+        private int size;
+        private volatile long lastTime = Long.MIN_VALUE; // read without the entry lock by invalidate
+
+        private Entry(String symbol, String spec) {
+            this.symbol = symbol;
+            this.spec = spec;
+            this.stored = persist && isWindowed(spec);
+            Matcher matcher = PERIODIC_SPEC.matcher(spec);
+            this.type = matcher.matches() ? matcher.group(1) : spec;
+            this.period = matcher.matches() ? Integer.parseInt(matcher.group(2)) : 0;
+        }
+
+        /**
+         * The cached column if it covers exactly the series' bars (or a prefix of them)
+         */
+        private double[] resolve(BarSeries series) {
+            int n = series.size();
+            if (size == 0 || n > size || times[n - 1] != series.getEpochMillis(n - 1)) {
+                return null;
+            }
+            return n == size ? values : Arrays.copyOf(values, n);
+        }
+
+        /**
+         * Extend the cached column over the new bars of a series that starts with the cached bars
+         */
+        private boolean extend(BarSeries series) {
+            int n = series.size();
+            if (n <= size || series.getEpochMillis(size - 1) != times[size - 1]) {
+                return false;
+            }
+            if (indicator == null) {
+                // Loaded from the database: replay the cached bars to rebuild the state
+                indicator = IndicatorCalculator.createStreaming(spec);
+                for (int i = 0; i < size; i++) {
+                    IndicatorCalculator.update(indicator, series, i);
+                }
+            }
+            int from = size;
+            double[] extended = Arrays.copyOf(values, n);
+            for (int i = from; i < n; i++) {
+                IndicatorCalculator.update(indicator, series, i);
+                extended[i] = indicator.value();
+            }
+            publish(series, extended);
+            persist(this, series, extended, null, from);
+            return true;
+        }
+
+        private void publish(BarSeries series, double[] column) {
+            this.times = series.times();
+            this.values = column;
+            this.size = column.length;
+            this.lastTime = size > 0 ? times[size - 1] : Long.MIN_VALUE;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aero.quickfix.quant.service;
 
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.model.TradeLog;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.slf4j.Logger;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,16 +30,30 @@ public class MetricsCalculator {
      * Formula: (Return - RiskFreeRate) / StdDev(Returns)
      */
     public BigDecimal calculateSharpeRatio(List<Double> dailyReturns) {
-        if (dailyReturns == null || dailyReturns.size() < 2) {
+        if (dailyReturns == null) {
+            return BigDecimal.ZERO;
+        }
+        return calculateSharpeRatio(toArray(dailyReturns));
+    }
+
+    /**
+     * Calculate Sharpe Ratio over a primitive return series
+     */
+    public BigDecimal calculateSharpeRatio(double[] dailyReturns) {
+        if (dailyReturns == null || dailyReturns.length < 2) {
             return BigDecimal.ZERO;
         }
 
         try {
-            DescriptiveStatistics stats = new DescriptiveStatistics();
-            dailyReturns.forEach(stats::addValue);
+            double meanReturn = mean(dailyReturns);
 
-            double meanReturn = stats.getMean();
-            double stdDev = stats.getStandardDeviation();
+            // Sample standard deviation (n - 1), as DescriptiveStatistics computes it
+            double sumSquares = 0;
+            for (double r : dailyReturns) {
+                double deviation = r - meanReturn;
+                sumSquares += deviation * deviation;
+            }
+            double stdDev = Math.sqrt(sumSquares / (dailyReturns.length - 1));
 
             if (stdDev == 0) {
                 return BigDecimal.ZERO;
@@ -62,21 +78,30 @@ public class MetricsCalculator {
      * Formula: (Return - TargetReturn) / DownsideStdDev
      */
     public BigDecimal calculateSortinoRatio(List<Double> dailyReturns, double targetReturn) {
-        if (dailyReturns == null || dailyReturns.size() < 2) {
+        if (dailyReturns == null) {
+            return BigDecimal.ZERO;
+        }
+        return calculateSortinoRatio(toArray(dailyReturns), targetReturn);
+    }
+
+    /**
+     * Calculate Sortino Ratio over a primitive return series
+     */
+    public BigDecimal calculateSortinoRatio(double[] dailyReturns, double targetReturn) {
+        if (dailyReturns == null || dailyReturns.length < 2) {
             return BigDecimal.ZERO;
         }
 
         try {
-            DescriptiveStatistics stats = new DescriptiveStatistics();
-            double meanReturn = dailyReturns.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double meanReturn = mean(dailyReturns);
 
             // Calculate downside standard deviation (only negative deviations)
-            double downsideVariance = dailyReturns.stream()
-                .mapToDouble(r -> Math.pow(Math.min(r - targetReturn, 0), 2))
-                .average()
-                .orElse(0);
-
-            double downsideStdDev = Math.sqrt(downsideVariance);
+            double downsideSum = 0;
+            for (double r : dailyReturns) {
+                double shortfall = Math.min(r - targetReturn, 0);
+                downsideSum += shortfall * shortfall;
+            }
+            double downsideStdDev = Math.sqrt(downsideSum / dailyReturns.length);
 
             if (downsideStdDev == 0) {
                 return BigDecimal.ZERO;
@@ -94,6 +119,43 @@ public class MetricsCalculator {
         }
     }
 
+    /**
+     * Calculate bar-over-bar returns of a bar series' close prices
+     */
+    public double[] calculateDailyReturns(BarSeries series) {
+        return calculateDailyReturns(series.closes());
+    }
+
+    /**
+     * Calculate bar-over-bar returns of a primitive value series (equity or prices).
+     * Bars following a non-positive value are skipped.
+     */
+    public double[] calculateDailyReturns(double[] values) {
+        if (values == null || values.length < 2) {
+            return new double[0];
+        }
+        double[] returns = new double[values.length - 1];
+        int count = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > 0) {
+                returns[count++] = (values[i] - values[i - 1]) / values[i - 1];
+            }
+        }
+        return count == returns.length ? returns : Arrays.copyOf(returns, count);
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double[] toArray(List<Double> values) {
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
     /**
      * Calculate Maximum Drawdown
      * Percentage loss from peak to trough
@@ -122,6 +184,33 @@ public class MetricsCalculator {
         return maxDrawdown.multiply(new BigDecimal("100")).setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Calculate Maximum Drawdown over a primitive equity curve
+     */
+    public BigDecimal calculateMaxDrawdown(double[] equityCurve) {
+        if (equityCurve == null || equityCurve.length < 2) {
+            return BigDecimal.ZERO;
+        }
+
+        double maxDrawdown = 0;
+        double peak = equityCurve[0];
+
+        for (double value : equityCurve) {
+            if (value > peak) {
+                peak = value;
+            }
+
+            double drawdown = (value - peak) / peak;
+            if (drawdown < maxDrawdown) {
+                maxDrawdown = drawdown;
+            }
+        }
+
+        // Convert to percentage
+        return BigDecimal.valueOf(maxDrawdown).setScale(4, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100")).setScale(2, RoundingMode.HALF_UP);
+    }
+
     /**
      * Calculate Win Rate
      * Percentage of profitable trades
@@ -0,0 +1,366 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.ParameterRange;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+/**
+ * StrategyOptimizer
+ * Parameter sweeps (grid or random search) over a StrategyDescriptor.
+ * Parameter sets are evaluated in parallel on a ForkJoin pool against one loaded
+ * bar series; indicator arrays are shared between sets that use the same period,
+ * and each fork keeps only its best N results by Sharpe ratio so memory stays
+ * bounded regardless of the number of combinations.
+ */
+@Service
+public class StrategyOptimizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StrategyOptimizer.class);
+    public static final int MAX_COMBINATIONS = 100_000;
+    public static final int MAX_TOP_N = 1000;
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
+
+    private static final Comparator<OptimizationResult> BY_SHARPE = Comparator.comparing(
+        (OptimizationResult r) -> r.getResults().getSharpeRatio(),
+        Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final BacktestEngine backtestEngine;
+    private final BacktestEngine.AccountingMode accountingMode;
+    private final ForkJoinPool pool;
+
+    public StrategyOptimizer(BacktestEngine backtestEngine,
+                             @Value("${quant.optimizer.parallelism:0}") int parallelism,
+                             @Value("${quant.optimizer.accounting:FAST}") BacktestEngine.AccountingMode accountingMode) {
+        this.backtestEngine = backtestEngine;
+        this.accountingMode = accountingMode;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        logger.info("StrategyOptimizer initialized - Parallelism: {}, Accounting: {}", pool.getParallelism(), accountingMode);
+    }
+
+    /**
+     * Accounting mode used to evaluate parameter sets
+     */
+    public BacktestEngine.AccountingMode getAccountingMode() {
+        return accountingMode;
+    }
+
+    /**
+     * One evaluated parameter set
+     */
+    public static class OptimizationResult {
+        private final Map<String, Integer> parameters;
+        private final BacktestResults results;
+
+        public OptimizationResult(Map<String, Integer> parameters, BacktestResults results) {
+            this.parameters = parameters;
+            this.results = results;
+        }
+
+        public Map<String, Integer> getParameters() { return parameters; }
+        public BacktestResults getResults() { return results; }
+    }
+
+    /**
+     * Outcome of a sweep: best results (highest Sharpe first) plus how many sets ran
+     */
+    public static class OptimizationReport {
+        private final List<OptimizationResult> topResults;
+        private final int evaluated;
+        private final int skipped;
+
+        public OptimizationReport(List<OptimizationResult> topResults, int evaluated, int skipped) {
+            this.topResults = topResults;
+            this.evaluated = evaluated;
+            this.skipped = skipped;
+        }
+
+        public List<OptimizationResult> getTopResults() { return topResults; }
+        public int getEvaluated() { return evaluated; }
+        public int getSkipped() { return skipped; }
+    }
+
+    /**
+     * Evaluate every combination of the given ranges
+     */
+    public OptimizationReport gridSearch(StrategyDescriptor descriptor, List<ParameterRange> ranges, BarSeries series,
+                                         LocalDate startDate, LocalDate endDate, BigDecimal initialCapital, int topN) {
+        return gridSearch(descriptor, ranges, series, 0, series.size(), new ConcurrentHashMap<>(),
+            startDate, endDate, initialCapital, topN, NOT_CANCELLED);
+    }
+
+    /**
+     * Evaluate every combination of the given ranges on the bars [fromIndex, toIndex) of a series.
+     * {@code indicatorCache} must be thread-safe; passing the same map to several sweeps over
+     * one series computes each indicator only once.
+     * The sweep checks {@code cancelled} before each parameter set and throws
+     * CancellationException once it returns true.
+     */
+    public OptimizationReport gridSearch(StrategyDescriptor descriptor, List<ParameterRange> ranges, BarSeries series,
+                                         int fromIndex, int toIndex, Map<String, double[]> indicatorCache,
+                                         LocalDate startDate, LocalDate endDate, BigDecimal initialCapital, int topN,
+                                         BooleanSupplier cancelled) {
+        validateRanges(descriptor, ranges);
+
+        long combinations = 1;
+        for (ParameterRange range : ranges) {
+            combinations *= range.size();
+            if (combinations > MAX_COMBINATIONS) {
+                throw new IllegalArgumentException("Grid exceeds " + MAX_COMBINATIONS + " parameter combinations");
+            }
+        }
+
+        List<int[]> parameterSets = new ArrayList<>((int) combinations);
+        int[] cursor = new int[ranges.size()];
+        for (long n = 0; n < combinations; n++) {
+            int[] values = new int[ranges.size()];
+            for (int p = 0; p < ranges.size(); p++) {
+                values[p] = ranges.get(p).valueAt(cursor[p]);
+            }
+            parameterSets.add(values);
+
+            // Advance the odometer
+            for (int p = ranges.size() - 1; p >= 0; p--) {
+                if (++cursor[p] < ranges.get(p).size()) {
+                    break;
+                }
+                cursor[p] = 0;
+            }
+        }
+
+        return optimize(descriptor, ranges, parameterSets, series, fromIndex, toIndex, indicatorCache,
+            startDate, endDate, initialCapital, topN, cancelled);
+    }
+
+    /**
+     * Evaluate {@code samples} distinct parameter sets drawn uniformly from the ranges
+     */
+    public OptimizationReport randomSearch(StrategyDescriptor descriptor, List<ParameterRange> ranges, int samples, long seed,
+                                           BarSeries series, LocalDate startDate, LocalDate endDate,
+                                           BigDecimal initialCapital, int topN) {
+        return randomSearch(descriptor, ranges, samples, seed, series, 0, series.size(), new ConcurrentHashMap<>(),
+            startDate, endDate, initialCapital, topN, NOT_CANCELLED);
+    }
+
+    /**
+     * Evaluate {@code samples} distinct random parameter sets on the bars [fromIndex, toIndex) of a series,
+     * stopping with CancellationException once {@code cancelled} returns true
+     */
+    public OptimizationReport randomSearch(StrategyDescriptor descriptor, List<ParameterRange> ranges, int samples, long seed,
+                                           BarSeries series, int fromIndex, int toIndex, Map<String, double[]> indicatorCache,
+                                           LocalDate startDate, LocalDate endDate, BigDecimal initialCapital, int topN,
+                                           BooleanSupplier cancelled) {
+        validateRanges(descriptor, ranges);
+        if (samples <= 0 || samples > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException("samples must be between 1 and " + MAX_COMBINATIONS);
+        }
+
+        // Never ask for more distinct sets than the space holds
+        long space = 1;
+        for (ParameterRange range : ranges) {
+            space *= range.size();
+            if (space >= samples) {
+                break;
+            }
+        }
+        int target = (int) Math.min(samples, space);
+
+        Random random = new Random(seed);
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[]> parameterSets = new ArrayList<>(target);
+        while (parameterSets.size() < target) {
+            int[] values = new int[ranges.size()];
+            List<Integer> key = new ArrayList<>(ranges.size());
+            for (int p = 0; p < ranges.size(); p++) {
+                values[p] = ranges.get(p).randomValue(random);
+                key.add(values[p]);
+            }
+            if (seen.add(key)) {
+                parameterSets.add(values);
+            }
+        }
+
+        return optimize(descriptor, ranges, parameterSets, series, fromIndex, toIndex, indicatorCache,
+            startDate, endDate, initialCapital, topN, cancelled);
+    }
+
+    private OptimizationReport optimize(StrategyDescriptor descriptor, List<ParameterRange> ranges, List<int[]> parameterSets,
+                                        BarSeries series, int fromIndex, int toIndex, Map<String, double[]> indicatorCache,
+                                        LocalDate startDate, LocalDate endDate, BigDecimal initialCapital, int topN,
+                                        BooleanSupplier cancelled) {
+        if (topN <= 0 || topN > MAX_TOP_N) {
+            throw new IllegalArgumentException("topN must be between 1 and " + MAX_TOP_N);
+        }
+
+        logger.info("Starting optimization - Strategy: {}, Symbol: {}, Parameter sets: {}",
+            descriptor.getName(), series.getSymbol(), parameterSets.size());
+        long started = System.currentTimeMillis();
+
+        Sweep sweep = new Sweep(descriptor, ranges, parameterSets, series, fromIndex, toIndex, indicatorCache,
+            startDate, endDate, initialCapital, topN, cancelled);
+        TopResults top = pool.invoke(new SweepTask(sweep, 0, parameterSets.size()));
+
+        List<OptimizationResult> ranked = new ArrayList<>(top.heap);
+        ranked.sort(BY_SHARPE.reversed());
+
+        logger.info("Optimization completed - Strategy: {}, Evaluated: {}, Skipped: {}, Time: {} ms",
+            descriptor.getName(), top.evaluated, top.skipped, System.currentTimeMillis() - started);
+
+        return new OptimizationReport(ranked, top.evaluated, top.skipped);
+    }
+
+    private void validateRanges(StrategyDescriptor descriptor, List<ParameterRange> ranges) {
+        if (ranges == null || ranges.isEmpty()) {
+            throw new IllegalArgumentException("At least one parameter range is required");
+        }
+        for (ParameterRange range : ranges) {
+            if (!range.isValid()) {
+                throw new IllegalArgumentException("Invalid parameter range: " + range);
+            }
+            if (!descriptor.getParameterNames().contains(range.getName())) {
+                throw new IllegalArgumentException("Unknown parameter for " + descriptor.getName() + ": " + range.getName());
+            }
+        }
+    }
+
+    /**
+     * Shared, read-only inputs of one sweep plus the indicator arrays computed so far
+     */
+    private static final class Sweep {
+        private final StrategyDescriptor descriptor;
+        private final List<ParameterRange> ranges;
+        private final List<int[]> parameterSets;
+        private final BarSeries series;
+        private final int fromIndex;
+        private final int toIndex;
+        private final Map<String, double[]> indicatorCache;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final BigDecimal initialCapital;
+        private final int topN;
+        private final BooleanSupplier cancelled;
+
+        private Sweep(StrategyDescriptor descriptor, List<ParameterRange> ranges, List<int[]> parameterSets,
+                      BarSeries series, int fromIndex, int toIndex, Map<String, double[]> indicatorCache,
+                      LocalDate startDate, LocalDate endDate, BigDecimal initialCapital, int topN,
+                      BooleanSupplier cancelled) {
+            this.descriptor = descriptor;
+            this.ranges = ranges;
+            this.parameterSets = parameterSets;
+            this.series = series;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.indicatorCache = indicatorCache;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.initialCapital = initialCapital;
+            this.topN = topN;
+            this.cancelled = cancelled;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best results seen by one fork
+     */
+    private static final class TopResults {
+        private final int capacity;
+        // Grows with the results offered rather than being sized for capacity up front
+        private final PriorityQueue<OptimizationResult> heap = new PriorityQueue<>(BY_SHARPE);
+        private int evaluated;
+        private int skipped;
+
+        private TopResults(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(OptimizationResult result) {
+            heap.offer(result);
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+        }
+
+        private TopResults merge(TopResults other) {
+            other.heap.forEach(this::offer);
+            evaluated += other.evaluated;
+            skipped += other.skipped;
+            return this;
+        }
+    }
+
+    // Inherits Serializable from ForkJoinTask but is never serialized
+    @SuppressWarnings("serial")
+    private final class SweepTask extends RecursiveTask<TopResults> {
+        private final Sweep sweep;
+        private final int from;
+        private final int to;
+
+        private SweepTask(Sweep sweep, int from, int to) {
+            this.sweep = sweep;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopResults compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return evaluateSets();
+            }
+            int mid = (from + to) >>> 1;
+            SweepTask left = new SweepTask(sweep, from, mid);
+            left.fork();
+            TopResults right = new SweepTask(sweep, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private TopResults evaluateSets() {
+            TopResults top = new TopResults(sweep.topN);
+            for (int i = from; i < to; i++) {
+                if (sweep.cancelled.getAsBoolean()) {
+                    throw new CancellationException("Optimization cancelled");
+                }
+                int[] values = sweep.parameterSets.get(i);
+                Map<String, Integer> parameters = new LinkedHashMap<>();
+                for (int p = 0; p < values.length; p++) {
+                    parameters.put(sweep.ranges.get(p).getName(), values[p]);
+                }
+
+                Strategy strategy = sweep.descriptor.create(parameters);
+                if (!strategy.isValid()) {
+                    top.skipped++;
+                    continue;
+                }
+
+                Map<String, double[]> indicators = backtestEngine.calculateIndicators(strategy, sweep.series, sweep.indicatorCache);
+                BacktestResults results = backtestEngine.evaluateRange(strategy, sweep.series, indicators,
+                    sweep.fromIndex, sweep.toIndex, sweep.startDate, sweep.endDate, sweep.initialCapital,
+                    accountingMode).getResults();
+                top.evaluated++;
+                top.offer(new OptimizationResult(parameters, results));
+            }
+            return top;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,168 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.TradeLog;
+import com.aero.quickfix.quant.repository.BacktestResultsRepository;
+import com.aero.quickfix.quant.repository.TradeLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TradeLogWriter
+ * Bulk persistence of backtest trade logs.
+ * Trades are written with a single saveAll so Hibernate sends them as batched INSERTs
+ * (see PersistenceConfig). Writes can also be deferred to a background writer so a
+ * backtest can return as soon as its metrics are computed.
+ * Deferred writes wait in a bounded queue; when it is full the caller writes the trades itself.
+ * A failed deferred write is retried, and once the attempts run out the backtest_results row
+ * is flagged trades_incomplete so readers know its trade log is partial.
+ */
+@Service
+public class TradeLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeLogWriter.class);
+
+    private final TradeLogRepository tradeLogRepository;
+    private final BacktestResultsRepository backtestResultsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    // Single writer keeps deferred writes in submission order and off the connection pool's back.
+    // Caller-runs on a full queue bounds the trades held in memory without dropping any.
+    private final ThreadPoolExecutor executor;
+
+    public TradeLogWriter(TradeLogRepository tradeLogRepository, BacktestResultsRepository backtestResultsRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${quant.trade-log.queue-capacity:64}") int queueCapacity,
+                          @Value("${quant.trade-log.max-attempts:3}") int maxAttempts,
+                          @Value("${quant.trade-log.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.tradeLogRepository = tradeLogRepository;
+        this.backtestResultsRepository = backtestResultsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Caller-run writes can happen inside afterCommit, where the finished transaction is still
+        // bound; joining it would silently discard the inserts, so always start a fresh one
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), r -> {
+                Thread thread = new Thread(r, "trade-log-writer");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Persist the trades of a backtest in the current transaction
+     */
+    @Transactional
+    public void write(UUID backtestId, List<TradeLog> trades) {
+        if (trades.isEmpty()) {
+            return;
+        }
+        for (TradeLog trade : trades) {
+            trade.setBacktestId(backtestId);
+        }
+        tradeLogRepository.saveAll(trades);
+    }
+
+    /**
+     * Persist the trades of a backtest on the background writer, in its own transaction,
+     * retrying failed attempts. Completes exceptionally once every attempt has failed.
+     */
+    public CompletableFuture<Void> writeAsync(UUID backtestId, List<TradeLog> trades) {
+        return CompletableFuture.runAsync(() -> writeWithRetry(backtestId, trades), executor)
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.error("Failed to persist {} trades for backtest {}", trades.size(), backtestId, error);
+                    markIncomplete(backtestId);
+                }
+            });
+    }
+
+    /**
+     * Persist the trades once the current transaction has committed, so the
+     * backtest_results row they reference is visible to the writer.
+     * Without an active transaction the write is queued immediately.
+     */
+    public void writeAfterCommit(UUID backtestId, List<TradeLog> trades) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeAsync(backtestId, trades);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writeAsync(backtestId, trades);
+            }
+        });
+    }
+
+    /**
+     * Number of deferred writes waiting for the writer
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void writeWithRetry(UUID backtestId, List<TradeLog> trades) {
+        long started = System.currentTimeMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(backtestId, trades));
+                logger.debug("Persisted {} trades for backtest {} in {} ms",
+                    trades.size(), backtestId, System.currentTimeMillis() - started);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.warn("Attempt {} to persist trades for backtest {} failed, retrying: {}",
+                    attempt, backtestId, e.getMessage());
+                sleep(retryBackoffMs * attempt);
+            }
+        }
+    }
+
+    private void markIncomplete(UUID backtestId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> backtestResultsRepository.markTradesIncomplete(backtestId));
+        } catch (RuntimeException e) {
+            logger.error("Could not flag backtest {} as having incomplete trades", backtestId, e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying trade log write", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued writes finish so deferred trades are not lost on a normal shutdown
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Trade log writer did not drain within 30s; pending writes dropped");
+            executor.shutdownNow();
+        }
+    }
+}
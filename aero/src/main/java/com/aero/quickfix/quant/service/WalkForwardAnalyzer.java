@@ -0,0 +1,314 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.TradeLog;
+import com.aero.quickfix.quant.strategy.ParameterRange;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * WalkForwardAnalyzer
+ * Walk-forward analysis: the date range is split into consecutive train/test windows,
+ * parameters are optimized on each train window and then traded, unchanged, on the
+ * test window that follows it. Only the test windows count towards the aggregate
+ * (out-of-sample) metrics.
+ * Price history is loaded once; windows are index ranges over the same BarSeries and
+ * share one indicator cache, and are run concurrently since they are independent.
+ * If one window fails, the others stop at their next parameter set.
+ */
+@Service
+public class WalkForwardAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalkForwardAnalyzer.class);
+    private static final int MAX_WINDOWS = 500;
+
+    private final BacktestEngine backtestEngine;
+    private final StrategyOptimizer strategyOptimizer;
+    private final MetricsCalculator metricsCalculator;
+    private final ExecutorService executor;
+
+    public WalkForwardAnalyzer(BacktestEngine backtestEngine, StrategyOptimizer strategyOptimizer,
+                               MetricsCalculator metricsCalculator,
+                               @Value("${quant.walkforward.parallelism:4}") int parallelism) {
+        this.backtestEngine = backtestEngine;
+        this.strategyOptimizer = strategyOptimizer;
+        this.metricsCalculator = metricsCalculator;
+        // Each window already fans out on the optimizer's pool; this only bounds the windows in flight
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        logger.info("WalkForwardAnalyzer initialized - Parallelism: {}", parallelism);
+    }
+
+    /**
+     * One train/test window: the parameters picked in-sample and how they did out-of-sample
+     */
+    public static class WindowResult {
+        private final LocalDate trainStart;
+        private final LocalDate trainEnd;
+        private final LocalDate testStart;
+        private final LocalDate testEnd;
+        private final Map<String, Integer> parameters;
+        private final BacktestResults inSample;
+        private final BacktestResults outOfSample;
+        private final BacktestEngine.Simulation simulation;
+
+        public WindowResult(LocalDate trainStart, LocalDate trainEnd, LocalDate testStart, LocalDate testEnd,
+                            Map<String, Integer> parameters, BacktestResults inSample,
+                            BacktestEngine.Simulation simulation) {
+            this.trainStart = trainStart;
+            this.trainEnd = trainEnd;
+            this.testStart = testStart;
+            this.testEnd = testEnd;
+            this.parameters = parameters;
+            this.inSample = inSample;
+            this.simulation = simulation;
+            this.outOfSample = simulation != null ? simulation.getResults() : null;
+        }
+
+        public LocalDate getTrainStart() { return trainStart; }
+        public LocalDate getTrainEnd() { return trainEnd; }
+        public LocalDate getTestStart() { return testStart; }
+        public LocalDate getTestEnd() { return testEnd; }
+        public Map<String, Integer> getParameters() { return parameters; }
+        public BacktestResults getInSample() { return inSample; }
+        public BacktestResults getOutOfSample() { return outOfSample; }
+    }
+
+    /**
+     * Outcome of a walk-forward run: per-window results plus the stitched out-of-sample metrics
+     */
+    public static class WalkForwardReport {
+        private final List<WindowResult> windows;
+        private final BacktestResults aggregate;
+
+        public WalkForwardReport(List<WindowResult> windows, BacktestResults aggregate) {
+            this.windows = windows;
+            this.aggregate = aggregate;
+        }
+
+        public List<WindowResult> getWindows() { return windows; }
+        public BacktestResults getAggregate() { return aggregate; }
+    }
+
+    /**
+     * Run a walk-forward analysis.
+     * Windows advance by {@code testMonths}; with {@code anchored} every train window starts at
+     * {@code startDate} (expanding), otherwise it keeps a fixed length of {@code trainMonths} (rolling).
+     * Pass {@code randomSamples} to optimize each window by random search instead of a full grid.
+     */
+    public WalkForwardReport run(StrategyDescriptor descriptor, List<ParameterRange> ranges,
+                                 Integer randomSamples, long seed,
+                                 String symbol, LocalDate startDate, LocalDate endDate, BigDecimal initialCapital,
+                                 int trainMonths, int testMonths, boolean anchored) {
+        if (trainMonths <= 0 || testMonths <= 0) {
+            throw new IllegalArgumentException("trainMonths and testMonths must be greater than 0");
+        }
+
+        List<LocalDate[]> windows = splitWindows(startDate, endDate, trainMonths, testMonths, anchored);
+        if (windows.isEmpty()) {
+            throw new IllegalArgumentException("Date range is shorter than one train and test window");
+        }
+
+        logger.info("Starting walk-forward analysis - Strategy: {}, Symbol: {}, Windows: {}, Train: {}m, Test: {}m, Anchored: {}",
+            descriptor.getName(), symbol, windows.size(), trainMonths, testMonths, anchored);
+        long started = System.currentTimeMillis();
+
+        BarSeries series = backtestEngine.loadBarSeries(symbol, startDate, endDate);
+        Map<String, double[]> indicatorCache = new ConcurrentHashMap<>();
+        // Future.cancel does not interrupt a running window, so windows poll this instead
+        AtomicBoolean cancelled = new AtomicBoolean();
+        // The first window to fail, whichever order windows finish in
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<CompletableFuture<WindowResult>> futures = new ArrayList<>(windows.size());
+        for (LocalDate[] window : windows) {
+            futures.add(CompletableFuture.supplyAsync(() -> runWindow(descriptor, ranges, randomSamples, seed,
+                series, indicatorCache, window, initialCapital, cancelled), executor));
+        }
+        // Attached once the list is complete, so a failure stops every other window straight away
+        for (CompletableFuture<WindowResult> future : futures) {
+            future.whenComplete((result, error) -> {
+                if (error != null && failure.compareAndSet(null, error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error)) {
+                    cancelled.set(true);
+                    futures.forEach(f -> f.cancel(false));
+                }
+            });
+        }
+
+        List<WindowResult> results = new ArrayList<>(futures.size());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            for (CompletableFuture<WindowResult> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = failure.get() != null ? failure.get() : e;
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        }
+
+        BacktestResults aggregate = aggregate(descriptor.getName(), symbol, results, initialCapital);
+
+        logger.info("Walk-forward analysis completed - Strategy: {}, Windows: {}, OOS Return: {}%, OOS Sharpe: {}, Time: {} ms",
+            descriptor.getName(), results.size(), aggregate.getTotalReturn(), aggregate.getSharpeRatio(),
+            System.currentTimeMillis() - started);
+
+        return new WalkForwardReport(results, aggregate);
+    }
+
+    /**
+     * Split [startDate, endDate] into {trainStart, trainEnd, testEnd} triples; end dates are exclusive
+     */
+    private List<LocalDate[]> splitWindows(LocalDate startDate, LocalDate endDate, int trainMonths, int testMonths,
+                                           boolean anchored) {
+        LocalDate rangeEnd = endDate.plusDays(1);
+        List<LocalDate[]> windows = new ArrayList<>();
+        LocalDate trainStart = startDate;
+        LocalDate trainEnd = startDate.plusMonths(trainMonths);
+
+        while (trainEnd.isBefore(rangeEnd)) {
+            if (windows.size() == MAX_WINDOWS) {
+                throw new IllegalArgumentException("Walk-forward exceeds " + MAX_WINDOWS + " windows");
+            }
+            LocalDate testEnd = trainEnd.plusMonths(testMonths);
+            windows.add(new LocalDate[] {trainStart, trainEnd, testEnd.isBefore(rangeEnd) ? testEnd : rangeEnd});
+
+            trainEnd = trainEnd.plusMonths(testMonths);
+            if (!anchored) {
+                trainStart = trainStart.plusMonths(testMonths);
+            }
+        }
+        return windows;
+    }
+
+    private WindowResult runWindow(StrategyDescriptor descriptor, List<ParameterRange> ranges,
+                                   Integer randomSamples, long seed, BarSeries series,
+                                   Map<String, double[]> indicatorCache, LocalDate[] window,
+                                   BigDecimal initialCapital, AtomicBoolean cancelled) {
+        if (cancelled.get()) {
+            throw new CancellationException("Walk-forward cancelled");
+        }
+        LocalDate trainStart = window[0];
+        LocalDate testStart = window[1];
+        LocalDate trainEnd = testStart.minusDays(1);
+        LocalDate testEnd = window[2].minusDays(1);
+
+        int trainFrom = series.indexOf(trainStart);
+        int testFrom = series.indexOf(testStart);
+        int testTo = series.indexOf(window[2]);
+
+        // In-sample: pick the best parameter set on the train window
+        StrategyOptimizer.OptimizationReport report = randomSamples != null
+            ? strategyOptimizer.randomSearch(descriptor, ranges, randomSamples, seed, series, trainFrom, testFrom,
+                indicatorCache, trainStart, trainEnd, initialCapital, 1, cancelled::get)
+            : strategyOptimizer.gridSearch(descriptor, ranges, series, trainFrom, testFrom,
+                indicatorCache, trainStart, trainEnd, initialCapital, 1, cancelled::get);
+
+        if (report.getTopResults().isEmpty()) {
+            logger.warn("No valid parameter set for window {} to {}", trainStart, trainEnd);
+            return new WindowResult(trainStart, trainEnd, testStart, testEnd, null, null, null);
+        }
+        StrategyOptimizer.OptimizationResult best = report.getTopResults().get(0);
+
+        // Out-of-sample: trade the chosen parameters on the following test window
+        Strategy strategy = descriptor.create(best.getParameters());
+        Map<String, double[]> indicators = backtestEngine.calculateIndicators(strategy, series, indicatorCache);
+        BacktestEngine.Simulation simulation = backtestEngine.evaluateRange(strategy, series, indicators,
+            testFrom, testTo, testStart, testEnd, initialCapital, strategyOptimizer.getAccountingMode());
+
+        return new WindowResult(trainStart, trainEnd, testStart, testEnd, best.getParameters(), best.getResults(), simulation);
+    }
+
+    /**
+     * Stitch the test windows into one out-of-sample run: each window's equity curve is rescaled
+     * to start where the previous one ended, as if the capital had been carried forward.
+     */
+    private BacktestResults aggregate(String strategyName, String symbol, List<WindowResult> windows,
+                                      BigDecimal initialCapital) {
+        int length = 1;
+        for (WindowResult window : windows) {
+            if (window.simulation != null) {
+                length += window.simulation.getEquity().length - 1;
+            }
+        }
+
+        double[] equity = new double[length];
+        equity[0] = initialCapital.doubleValue();
+        int count = 1;
+        List<TradeLog> trades = new ArrayList<>();
+        BigDecimal currentValue = initialCapital;
+        LocalDate firstTest = null;
+        LocalDate lastTest = null;
+
+        for (WindowResult window : windows) {
+            if (window.simulation == null) {
+                continue;
+            }
+            if (firstTest == null) {
+                firstTest = window.testStart;
+            }
+            lastTest = window.testEnd;
+
+            BigDecimal scale = currentValue.divide(initialCapital, 10, RoundingMode.HALF_UP);
+            double factor = scale.doubleValue();
+            double[] windowEquity = window.simulation.getEquity();
+            for (int i = 1; i < windowEquity.length; i++) {
+                equity[count++] = windowEquity[i] * factor;
+            }
+            currentValue = window.simulation.getResults().getFinalValue().multiply(scale);
+            trades.addAll(window.simulation.getTrades());
+        }
+
+        BacktestResults results = new BacktestResults();
+        results.setStrategyName(strategyName);
+        results.setSymbol(symbol);
+        results.setStartDate(firstTest);
+        results.setEndDate(lastTest);
+        results.setInitialCapital(initialCapital);
+        results.setFinalValue(currentValue.setScale(4, RoundingMode.HALF_UP));
+
+        results.setTotalReturn(metricsCalculator.calculateTotalReturn(initialCapital, currentValue));
+        int yearsDuration = firstTest != null ? lastTest.getYear() - firstTest.getYear() : 0;
+        if (yearsDuration == 0) yearsDuration = 1;
+        results.setAnnualReturn(metricsCalculator.calculateCAGR(initialCapital, currentValue, yearsDuration));
+
+        double[] dailyReturns = metricsCalculator.calculateDailyReturns(equity);
+        results.setSharpeRatio(metricsCalculator.calculateSharpeRatio(dailyReturns));
+        results.setSortinoRatio(metricsCalculator.calculateSortinoRatio(dailyReturns, 0.0));
+        results.setMaxDrawdown(metricsCalculator.calculateMaxDrawdown(equity));
+
+        results.setTotalTrades(trades.size());
+        long winningTrades = trades.stream().filter(t -> t.getProfitLoss().compareTo(BigDecimal.ZERO) > 0).count();
+        results.setWinningTrades((int) winningTrades);
+        results.setLosingTrades((int) (trades.size() - winningTrades));
+        results.setWinRate(metricsCalculator.calculateWinRate(trades));
+        results.setAvgWin(metricsCalculator.calculateAverageWin(trades));
+        results.setAvgLoss(metricsCalculator.calculateAverageLoss(trades));
+        results.setProfitFactor(metricsCalculator.calculateProfitFactor(trades));
+
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
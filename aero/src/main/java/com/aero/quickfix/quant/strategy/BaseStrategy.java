@@ -1,5 +1,6 @@
 package com.aero.quickfix.quant.strategy;
 
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.model.OHLCVData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +32,7 @@ public abstract class BaseStrategy implements Strategy {
      * Abstract method to be implemented by concrete strategies
      */
     @Override
-    public abstract Signal generateSignal(List<OHLCVData> priceHistory, Map<String, List<Double>> indicators);
+    public abstract Signal generateSignal(BarSeries series, Map<String, double[]> indicators, int index);
 
     /**
      * Helper method to validate minimum bars requirement
@@ -85,6 +86,48 @@ public abstract class BaseStrategy implements Strategy {
         return values.get(values.size() - barsBack);
     }
 
+    /**
+     * Helper method to validate minimum bars requirement at a bar index
+     */
+    protected boolean validateMinimumBars(BarSeries series, int index) {
+        if (series == null || index < 0 || index >= series.size() || index + 1 < minimumBars) {
+            logger.warn("Strategy {} requires minimum {} bars, but got {}", 
+                name, minimumBars, series == null ? 0 : Math.min(index + 1, series.size()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Helper method to validate required indicator arrays are present
+     */
+    protected boolean validateIndicatorArrays(Map<String, double[]> indicators) {
+        if (indicators == null) {
+            logger.warn("Strategy {} has no indicators", name);
+            return false;
+        }
+
+        for (String required : requiredIndicators) {
+            double[] values = indicators.get(required);
+            if (values == null || values.length == 0) {
+                logger.warn("Strategy {} missing required indicator: {}", name, required);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the value of an indicator at a bar index (NaN if unavailable)
+     */
+    protected double getIndicatorValueAt(Map<String, double[]> indicators, String indicatorName, int index) {
+        double[] values = indicators.get(indicatorName);
+        if (values == null || index < 0 || index >= values.length) {
+            return Double.NaN;
+        }
+        return values[index];
+    }
+
     /**
      * Get latest close price
      */
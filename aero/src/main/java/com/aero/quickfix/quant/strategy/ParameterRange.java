@@ -0,0 +1,69 @@
+package com.aero.quickfix.quant.strategy;
+
+import java.util.Random;
+
+/**
+ * ParameterRange
+ * Inclusive integer range for one tunable strategy parameter
+ */
+public class ParameterRange {
+
+    private String name;
+    private int min;
+    private int max;
+    private int step = 1;
+
+    public ParameterRange() {}
+
+    public ParameterRange(String name, int min, int max, int step) {
+        this.name = name;
+        this.min = min;
+        this.max = max;
+        this.step = step;
+    }
+
+    /**
+     * Number of values in the range
+     */
+    public int size() {
+        if (step <= 0 || max < min) {
+            return 0;
+        }
+        return (max - min) / step + 1;
+    }
+
+    /**
+     * Value at position {@code index} (0 = min)
+     */
+    public int valueAt(int index) {
+        return min + index * step;
+    }
+
+    /**
+     * Uniformly sampled value aligned to the step
+     */
+    public int randomValue(Random random) {
+        return valueAt(random.nextInt(size()));
+    }
+
+    public boolean isValid() {
+        return name != null && !name.isEmpty() && size() > 0;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getMin() { return min; }
+    public void setMin(int min) { this.min = min; }
+
+    public int getMax() { return max; }
+    public void setMax(int max) { this.max = max; }
+
+    public int getStep() { return step; }
+    public void setStep(int step) { this.step = step; }
+
+    @Override
+    public String toString() {
+        return String.format("ParameterRange{name='%s', min=%d, max=%d, step=%d}", name, min, max, step);
+    }
+}
@@ -1,7 +1,10 @@
 package com.aero.quickfix.quant.strategy;
 
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.model.OHLCVData;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,13 +15,35 @@ import java.util.Map;
 public interface Strategy {
 
     /**
-     * Generate trading signal based on price history and indicators
+     * Generate trading signal for the bar at {@code index} of a bar series
+     * 
+     * @param series Columnar OHLCV history
+     * @param indicators Map of indicator name to values aligned with series by index (NaN during warm-up)
+     * @param index Index of the current bar
+     * @return Signal with action (BUY, SELL, HOLD) and confidence
+     */
+    Signal generateSignal(BarSeries series, Map<String, double[]> indicators, int index);
+
+    /**
+     * Generate trading signal based on price history and indicators.
+     * Converts to a BarSeries and evaluates the latest bar.
      * 
      * @param priceHistory Historical OHLCV data (minimum 20 bars)
      * @param indicators Map of indicator name to list of values (in chronological order)
      * @return Signal with action (BUY, SELL, HOLD) and confidence
      */
-    Signal generateSignal(List<OHLCVData> priceHistory, Map<String, List<Double>> indicators);
+    default Signal generateSignal(List<OHLCVData> priceHistory, Map<String, List<Double>> indicators) {
+        BarSeries series = BarSeries.from(priceHistory);
+        Map<String, double[]> aligned = new HashMap<>();
+        if (indicators != null) {
+            indicators.forEach((name, values) -> {
+                if (values != null) {
+                    aligned.put(name, IndicatorCalculator.toAlignedArray(values, series.size()));
+                }
+            });
+        }
+        return generateSignal(series, aligned, series.size() - 1);
+    }
 
     /**
      * Get strategy name
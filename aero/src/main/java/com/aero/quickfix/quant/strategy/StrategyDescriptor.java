@@ -0,0 +1,49 @@
+package com.aero.quickfix.quant.strategy;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * StrategyDescriptor
+ * Describes a parameterized strategy: its tunable parameters, their default
+ * search ranges and a factory building a strategy instance for one parameter set
+ */
+public class StrategyDescriptor {
+
+    private final String name;
+    private final Map<String, Integer> defaults;
+    private final List<ParameterRange> defaultRanges;
+    private final Function<Map<String, Integer>, Strategy> factory;
+
+    public StrategyDescriptor(String name, Map<String, Integer> defaults, List<ParameterRange> defaultRanges,
+                              Function<Map<String, Integer>, Strategy> factory) {
+        this.name = name;
+        this.defaults = Collections.unmodifiableMap(new LinkedHashMap<>(defaults));
+        this.defaultRanges = Collections.unmodifiableList(new ArrayList<>(defaultRanges));
+        this.factory = factory;
+    }
+
+    /**
+     * Build a strategy for a parameter set; missing parameters take their defaults
+     */
+    public Strategy create(Map<String, Integer> parameters) {
+        Map<String, Integer> resolved = new LinkedHashMap<>(defaults);
+        if (parameters != null) {
+            parameters.forEach((key, value) -> {
+                if (!defaults.containsKey(key)) {
+                    throw new IllegalArgumentException("Unknown parameter for " + name + ": " + key);
+                }
+                resolved.put(key, value);
+            });
+        }
+        return factory.apply(resolved);
+    }
+
+    public String getName() { return name; }
+
+    public Set<String> getParameterNames() { return defaults.keySet(); }
+
+    public Map<String, Integer> getDefaults() { return defaults; }
+
+    public List<ParameterRange> getDefaultRanges() { return defaultRanges; }
+}
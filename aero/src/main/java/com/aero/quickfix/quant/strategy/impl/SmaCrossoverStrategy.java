@@ -1,12 +1,14 @@
 package com.aero.quickfix.quant.strategy.impl;
 
-import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.model.BarSeries;
 import com.aero.quickfix.quant.strategy.BaseStrategy;
+import com.aero.quickfix.quant.strategy.ParameterRange;
 import com.aero.quickfix.quant.strategy.Signal;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -14,90 +16,120 @@ import java.util.Map;
  * A classic moving average crossover strategy
  * 
  * Logic:
- * - BUY when SMA50 crosses above SMA200
- * - SELL when SMA50 crosses below SMA200
+ * - BUY when the fast SMA (default 50) crosses above the slow SMA (default 200)
+ * - SELL when the fast SMA crosses below the slow SMA
  * - Confidence increases with price distance from moving averages
  */
 @Component
 public class SmaCrossoverStrategy extends BaseStrategy {
 
-    private static final int SMA_FAST = 50;
-    private static final int SMA_SLOW = 200;
-    private static final String INDICATOR_SMA_50 = "SMA_50";
-    private static final String INDICATOR_SMA_200 = "SMA_200";
+    public static final String PARAM_FAST = "fastPeriod";
+    public static final String PARAM_SLOW = "slowPeriod";
+
+    private static final int DEFAULT_SMA_FAST = 50;
+    private static final int DEFAULT_SMA_SLOW = 200;
+
+    private final int fastPeriod;
+    private final int slowPeriod;
+    private final String fastIndicator;
+    private final String slowIndicator;
 
     public SmaCrossoverStrategy() {
+        this(DEFAULT_SMA_FAST, DEFAULT_SMA_SLOW);
+    }
+
+    public SmaCrossoverStrategy(int fastPeriod, int slowPeriod) {
         super(
             "SMA Crossover",
-            "Simple Moving Average Crossover Strategy - BUY on SMA50 > SMA200 crossover, SELL on crossover below",
-            201, // Minimum 201 bars to calculate SMA200
-            Arrays.asList(INDICATOR_SMA_50, INDICATOR_SMA_200)
+            String.format("Simple Moving Average Crossover Strategy - BUY on SMA%d > SMA%d crossover, SELL on crossover below",
+                fastPeriod, slowPeriod),
+            slowPeriod + 1, // Minimum bars to calculate the slow SMA and its previous value
+            Arrays.asList("SMA_" + fastPeriod, "SMA_" + slowPeriod)
+        );
+        this.fastPeriod = fastPeriod;
+        this.slowPeriod = slowPeriod;
+        this.fastIndicator = "SMA_" + fastPeriod;
+        this.slowIndicator = "SMA_" + slowPeriod;
+    }
+
+    /**
+     * Descriptor used by the optimizer to build instances for parameter sweeps
+     */
+    public static StrategyDescriptor descriptor() {
+        Map<String, Integer> defaults = new LinkedHashMap<>();
+        defaults.put(PARAM_FAST, DEFAULT_SMA_FAST);
+        defaults.put(PARAM_SLOW, DEFAULT_SMA_SLOW);
+        return new StrategyDescriptor(
+            "SMA Crossover",
+            defaults,
+            Arrays.asList(
+                new ParameterRange(PARAM_FAST, 10, 100, 5),
+                new ParameterRange(PARAM_SLOW, 50, 300, 10)
+            ),
+            params -> new SmaCrossoverStrategy(params.get(PARAM_FAST), params.get(PARAM_SLOW))
         );
     }
 
     @Override
-    public Signal generateSignal(List<OHLCVData> priceHistory, Map<String, List<Double>> indicators) {
+    public Signal generateSignal(BarSeries series, Map<String, double[]> indicators, int index) {
         
         // Validate input
-        if (!validateMinimumBars(priceHistory)) {
+        if (!validateMinimumBars(series, index)) {
             return createHoldSignal("Insufficient price history");
         }
 
-        if (!validateIndicators(indicators)) {
+        if (!validateIndicatorArrays(indicators)) {
             return createHoldSignal("Missing required indicators");
         }
 
-        // Get indicator lists
-        List<Double> sma50Values = indicators.get(INDICATOR_SMA_50);
-        List<Double> sma200Values = indicators.get(INDICATOR_SMA_200);
-
-        // Validate indicator lists have sufficient data
-        if (sma50Values == null || sma50Values.size() < 2 || 
-            sma200Values == null || sma200Values.size() < 2) {
+        // Get current and previous values
+        double currentFast = getIndicatorValueAt(indicators, fastIndicator, index);
+        double currentSlow = getIndicatorValueAt(indicators, slowIndicator, index);
+        double previousFast = getIndicatorValueAt(indicators, fastIndicator, index - 1);
+        double previousSlow = getIndicatorValueAt(indicators, slowIndicator, index - 1);
+
+        // Validate indicators are populated at this bar
+        if (Double.isNaN(currentFast) || Double.isNaN(currentSlow) ||
+            Double.isNaN(previousFast) || Double.isNaN(previousSlow)) {
             return createHoldSignal("Indicators not fully populated");
         }
 
-        // Get current and previous values
-        double currentSMA50 = getLatestIndicatorValue(indicators, INDICATOR_SMA_50);
-        double currentSMA200 = getLatestIndicatorValue(indicators, INDICATOR_SMA_200);
-        double previousSMA50 = getPreviousIndicatorValue(indicators, INDICATOR_SMA_50, 2);
-        double previousSMA200 = getPreviousIndicatorValue(indicators, INDICATOR_SMA_200, 2);
-        double currentPrice = getLatestClose(priceHistory);
+        double currentPrice = series.getClose(index);
 
         // Check for crossover conditions
-        if (previousSMA50 <= previousSMA200 && currentSMA50 > currentSMA200) {
-            // BUY signal: SMA50 crossed above SMA200
-            double priceAboveSMA = (currentPrice - currentSMA200) / currentSMA200;
+        if (previousFast <= previousSlow && currentFast > currentSlow) {
+            // BUY signal: fast SMA crossed above slow SMA
+            double priceAboveSMA = (currentPrice - currentSlow) / currentSlow;
             double confidence = Math.min(0.9, 0.5 + (priceAboveSMA * 2)); // Increase confidence with distance
             
             String reason = String.format(
-                "SMA50 (%.2f) crossed above SMA200 (%.2f). Price at %.2f",
-                currentSMA50, currentSMA200, currentPrice
+                "SMA%d (%.2f) crossed above SMA%d (%.2f). Price at %.2f",
+                fastPeriod, currentFast, slowPeriod, currentSlow, currentPrice
             );
             
-            logger.info("SMA Crossover Strategy - BUY signal: {}", reason);
+            logger.debug("SMA Crossover Strategy - BUY signal: {}", reason);
             return createBuySignal(Math.max(0.5, confidence), reason);
         }
 
-        if (previousSMA50 >= previousSMA200 && currentSMA50 < currentSMA200) {
-            // SELL signal: SMA50 crossed below SMA200
-            double priceBelowSMA = (currentSMA200 - currentPrice) / currentSMA200;
+        if (previousFast >= previousSlow && currentFast < currentSlow) {
+            // SELL signal: fast SMA crossed below slow SMA
+            double priceBelowSMA = (currentSlow - currentPrice) / currentSlow;
             double confidence = Math.min(0.9, 0.5 + (priceBelowSMA * 2)); // Increase confidence with distance
             
             String reason = String.format(
-                "SMA50 (%.2f) crossed below SMA200 (%.2f). Price at %.2f",
-                currentSMA50, currentSMA200, currentPrice
+                "SMA%d (%.2f) crossed below SMA%d (%.2f). Price at %.2f",
+                fastPeriod, currentFast, slowPeriod, currentSlow, currentPrice
             );
             
-            logger.info("SMA Crossover Strategy - SELL signal: {}", reason);
+            logger.debug("SMA Crossover Strategy - SELL signal: {}", reason);
             return createSellSignal(Math.max(0.5, confidence), reason);
         }
 
         // No crossover: HOLD
-        String trend = currentSMA50 > currentSMA200 ? "UPTREND" : "DOWNTREND";
+        String trend = currentFast > currentSlow ? "UPTREND" : "DOWNTREND";
         String reason = String.format(
-            "In %s - SMA50 (%.2f) %s SMA200 (%.2f). No crossover",
-            trend, currentSMA50, currentSMA50 > currentSMA200 ? ">" : "<", currentSMA200
+            "In %s - SMA%d (%.2f) %s SMA%d (%.2f). No crossover",
+            trend, fastPeriod, currentFast, currentFast > currentSlow ? ">" : "<", slowPeriod, currentSlow
         );
         
         return createHoldSignal(reason);
@@ -107,21 +139,25 @@ public class SmaCrossoverStrategy extends BaseStrategy {
      * Validate strategy parameters
      */
     public boolean validateParameters() {
-        return SMA_FAST > 0 && SMA_SLOW > SMA_FAST && 
-               INDICATOR_SMA_50 != null && INDICATOR_SMA_200 != null;
+        return fastPeriod > 0 && slowPeriod > fastPeriod;
+    }
+
+    @Override
+    public boolean isValid() {
+        return super.isValid() && validateParameters();
     }
 
     /**
      * Get fast SMA period
      */
     public int getFastPeriod() {
-        return SMA_FAST;
+        return fastPeriod;
     }
 
     /**
      * Get slow SMA period
      */
     public int getSlowPeriod() {
-        return SMA_SLOW;
+        return slowPeriod;
     }
 }
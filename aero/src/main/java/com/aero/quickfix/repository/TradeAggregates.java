@@ -0,0 +1,159 @@
+package com.aero.quickfix.repository;
+
+import com.aero.quickfix.model.TradeData;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running aggregates over the trades held in the history: count, volume and price sums,
+ * overall and per symbol and side. Updated as trades enter and leave the history, so
+ * reading them costs the same however long the history is.
+ * Symbols and sides are grouped case-insensitively, under their upper-case form, the
+ * same way trade stream topics name them.
+ */
+public final class TradeAggregates {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    // Guarded by this
+    private final Running total = new Running();
+    private final Map<String, Running> bySymbol = new HashMap<>();
+    private final Map<String, Running> bySide = new HashMap<>();
+
+    /**
+     * Account for a trade entering the history and, if full, the one it pushed out
+     */
+    synchronized void replace(TradeData evicted, TradeData added) {
+        if (evicted != null) {
+            apply(evicted, -1);
+        }
+        apply(added, 1);
+    }
+
+    synchronized void reset() {
+        total.reset();
+        bySymbol.clear();
+        bySide.clear();
+    }
+
+    private void apply(TradeData trade, int sign) {
+        double quantity = trade.getQuantity() != null ? trade.getQuantity() : 0;
+        double price = trade.getPrice() != null ? trade.getPrice() : 0;
+        total.apply(sign, quantity, price);
+        apply(bySymbol, trade.getSymbol(), sign, quantity, price);
+        apply(bySide, trade.getSide(), sign, quantity, price);
+    }
+
+    private static String normalize(String key) {
+        return key != null ? key.toUpperCase(Locale.ROOT) : UNKNOWN;
+    }
+
+    private static void apply(Map<String, Running> breakdown, String key, int sign, double quantity, double price) {
+        String name = normalize(key);
+        Running running = breakdown.computeIfAbsent(name, k -> new Running());
+        running.apply(sign, quantity, price);
+        if (running.count == 0) {
+            breakdown.remove(name);
+        }
+    }
+
+    public synchronized Totals getTotal() {
+        return total.toTotals();
+    }
+
+    public synchronized Totals getSymbolTotals(String symbol) {
+        return totals(bySymbol, symbol);
+    }
+
+    public synchronized Totals getSideTotals(String side) {
+        return totals(bySide, side);
+    }
+
+    private static Totals totals(Map<String, Running> breakdown, String key) {
+        Running running = breakdown.get(normalize(key));
+        return running != null ? running.toTotals() : new Totals(0, 0, 0);
+    }
+
+    /**
+     * Copy of all aggregates; costs one entry per symbol and side held
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(total.toTotals(), copy(bySymbol), copy(bySide));
+    }
+
+    private static Map<String, Totals> copy(Map<String, Running> breakdown) {
+        Map<String, Totals> copy = new TreeMap<>();
+        breakdown.forEach((key, running) -> copy.put(key, running.toTotals()));
+        return copy;
+    }
+
+    /**
+     * Mutable sums for one group of trades
+     */
+    private static final class Running {
+        private long count;
+        private double volume;
+        private double priceSum;
+
+        private void apply(int sign, double quantity, double price) {
+            count += sign;
+            volume += sign * quantity;
+            priceSum += sign * price;
+            if (count == 0) {
+                // Drop rounding drift left by subtracting evicted trades
+                reset();
+            }
+        }
+
+        private void reset() {
+            count = 0;
+            volume = 0;
+            priceSum = 0;
+        }
+
+        private Totals toTotals() {
+            return new Totals(count, volume, priceSum);
+        }
+    }
+
+    /**
+     * Trade count, volume and average price of a group of trades
+     */
+    public static final class Totals {
+        private final long count;
+        private final double volume;
+        private final double priceSum;
+
+        private Totals(long count, double volume, double priceSum) {
+            this.count = count;
+            this.volume = volume;
+            this.priceSum = priceSum;
+        }
+
+        public long getCount() { return count; }
+        public long getVolume() { return Math.round(volume); }
+        public double getAveragePrice() { return count == 0 ? 0 : priceSum / count; }
+    }
+
+    /**
+     * Overall totals with per-symbol and per-side breakdowns
+     */
+    public static final class Snapshot {
+        private final Totals total;
+        private final Map<String, Totals> bySymbol;
+        private final Map<String, Totals> bySide;
+
+        private Snapshot(Totals total, Map<String, Totals> bySymbol, Map<String, Totals> bySide) {
+            this.total = total;
+            this.bySymbol = bySymbol;
+            this.bySide = bySide;
+        }
+
+        public Totals getTotal() { return total; }
+        public Map<String, Totals> getBySymbol() { return bySymbol; }
+        public Map<String, Totals> getBySide() { return bySide; }
+    }
+}
@@ -1,27 +1,38 @@
 package com.aero.quickfix.repository;
 
 import com.aero.quickfix.model.TradeData;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * In-memory repository for storing FIX trade data.
+ * Trade history is a fixed-capacity ring buffer: saving never shifts the history,
+ * and readers never block the FIX thread that saves. Count, volume and price
+ * aggregates over the history are kept up to date as trades enter and leave it.
  */
 @Repository
 public class TradeDataRepository {
     
     private final Map<String, TradeData> trades = new ConcurrentHashMap<>();
-    private final List<TradeData> tradeHistory = Collections.synchronizedList(new ArrayList<>());
-    private static final int MAX_HISTORY_SIZE = 1000;
+    private final TradeRingBuffer tradeHistory;
+    private final TradeAggregates aggregates = new TradeAggregates();
+    // Serializes writers to the history
+    private final Object writeLock = new Object();
 
-    public void save(TradeData tradeData) {
+    public TradeDataRepository(@Value("${trades.history.capacity:65536}") int historyCapacity) {
+        this.tradeHistory = new TradeRingBuffer(historyCapacity);
+    }
+
+    /**
+     * Store a trade and return its sequence number in the history
+     */
+    public long save(TradeData tradeData) {
         trades.put(tradeData.getOrderId(), tradeData);
-        tradeHistory.add(tradeData);
-        
-        // Keep history bounded
-        if (tradeHistory.size() > MAX_HISTORY_SIZE) {
-            tradeHistory.removeFirst();
+        synchronized (writeLock) {
+            aggregates.replace(tradeHistory.evictedByNextAppend(), tradeData);
+            return tradeHistory.append(tradeData);
         }
     }
 
@@ -34,18 +45,40 @@ public class TradeDataRepository {
     }
 
     public List<TradeData> getHistory() {
-        return new ArrayList<>(tradeHistory);
+        return tradeHistory.recent(tradeHistory.capacity());
     }
 
     public List<TradeData> getRecentTrades(int limit) {
-        return tradeHistory.stream()
-                .skip(Math.max(0, tradeHistory.size() - limit))
-                .toList();
+        return tradeHistory.recent(limit);
+    }
+
+    /**
+     * Trades saved from a sequence number on, as far as the history still holds them
+     */
+    public List<TradeData> getTradesSince(long sequence) {
+        return tradeHistory.since(sequence);
+    }
+
+    /**
+     * The newest {@code limit} trades saved before a sequence number, as far as the history still holds them
+     */
+    public List<TradeData> getTradesBefore(long sequence, int limit) {
+        return tradeHistory.before(sequence, limit);
+    }
+
+    /**
+     * Sequence number the next saved trade will get
+     */
+    public long getNextSequence() {
+        return tradeHistory.nextSequence();
     }
 
     public void clear() {
         trades.clear();
-        tradeHistory.clear();
+        synchronized (writeLock) {
+            tradeHistory.clear();
+            aggregates.reset();
+        }
     }
 
     public int getTotalTradeCount() {
@@ -53,16 +86,25 @@ public class TradeDataRepository {
     }
 
     public long getTotalVolume() {
-        return Math.round(tradeHistory.stream()
-                .mapToDouble(t -> t.getQuantity() != null ? t.getQuantity() : 0)
-                .sum());
+        return aggregates.getTotal().getVolume();
     }
 
     public double getAveragePrice() {
-        if (tradeHistory.isEmpty()) return 0;
-        return tradeHistory.stream()
-                .mapToDouble(t -> t.getPrice() != null ? t.getPrice() : 0)
-                .average()
-                .orElse(0);
+        return aggregates.getTotal().getAveragePrice();
+    }
+
+    public TradeAggregates.Totals getSymbolTotals(String symbol) {
+        return aggregates.getSymbolTotals(symbol);
+    }
+
+    public TradeAggregates.Totals getSideTotals(String side) {
+        return aggregates.getSideTotals(side);
+    }
+
+    /**
+     * Totals over the history with per-symbol and per-side breakdowns
+     */
+    public TradeAggregates.Snapshot getStatsSnapshot() {
+        return aggregates.snapshot();
     }
 }
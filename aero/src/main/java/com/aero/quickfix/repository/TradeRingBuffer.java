@@ -0,0 +1,124 @@
+package com.aero.quickfix.repository;
+
+import com.aero.quickfix.model.TradeData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity ring buffer of trades, addressed by sequence number.
+ * Single writer: callers serialize append and clear. Readers never lock. Each slot carries the
+ * sequence it was written for, so a reader racing a writer that laps it detects the
+ * overwritten slots and drops them instead of returning a newer trade out of order.
+ */
+final class TradeRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Slot> slots;
+
+    // Sequence the next trade gets; trades [max(floor, next - capacity), next) are readable
+    private volatile long next;
+    // Trades before this sequence were cleared
+    private volatile long floor;
+
+    TradeRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Append a trade and return its sequence number
+     */
+    long append(TradeData trade) {
+        long sequence = next;
+        slots.set((int) (sequence & mask), new Slot(sequence, trade));
+        next = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * The newest {@code limit} trades, oldest first
+     */
+    List<TradeData> recent(int limit) {
+        long end = next;
+        return read(Math.max(end - limit, oldest(end)), end);
+    }
+
+    /**
+     * Trades from a sequence number on, oldest first; trades no longer held are skipped
+     */
+    List<TradeData> since(long sequence) {
+        long end = next;
+        return read(Math.max(sequence, oldest(end)), end);
+    }
+
+    /**
+     * The newest {@code limit} trades before a sequence number, oldest first; trades no longer held are skipped
+     */
+    List<TradeData> before(long sequence, int limit) {
+        long end = next;
+        long to = Math.min(sequence, end);
+        return read(Math.max(to - limit, oldest(end)), to);
+    }
+
+    private List<TradeData> read(long from, long end) {
+        List<TradeData> trades = new ArrayList<>((int) Math.max(0, end - from));
+        for (long sequence = from; sequence < end; sequence++) {
+            Slot slot = slots.get((int) (sequence & mask));
+            // Skip slots a writer has already lapped
+            if (slot != null && slot.sequence == sequence) {
+                trades.add(slot.trade);
+            }
+        }
+        return trades;
+    }
+
+    private long oldest(long end) {
+        return Math.max(floor, Math.max(0, end - capacity));
+    }
+
+    /**
+     * The trade the next append will overwrite, or null while the buffer is not full
+     */
+    TradeData evictedByNextAppend() {
+        long end = next;
+        if (end - oldest(end) < capacity) {
+            return null;
+        }
+        Slot slot = slots.get((int) (end & mask));
+        return slot != null && slot.sequence == end - capacity ? slot.trade : null;
+    }
+
+    void clear() {
+        floor = next;
+    }
+
+    int size() {
+        long end = next;
+        return (int) (end - oldest(end));
+    }
+
+    long nextSequence() {
+        return next;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * A trade and the sequence it was written at
+     */
+    private static final class Slot {
+        private final long sequence;
+        private final TradeData trade;
+
+        private Slot(long sequence, TradeData trade) {
+            this.sequence = sequence;
+            this.trade = trade;
+        }
+    }
+}
@@ -1,54 +1,217 @@
 package com.aero.quickfix.service;
 
 import com.aero.quickfix.client.FinvizMarketDataClient;
+import com.aero.quickfix.client.ProviderScheduler;
 import com.aero.quickfix.dto.MarketPriceDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for managing market data operations.
  * Fetches and caches market prices from Finviz-based APIs (Finnhub, Alpha Vantage).
+ * Loads are single-flight: concurrent callers for the same symbol share one upstream fetch,
+ * and run on the client's non-blocking HTTP path, so waiting never holds a thread.
  */
 @Service
 public class MarketDataService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataService.class);
+
     @Autowired
     private FinvizMarketDataClient finvizClient;
 
-    // In-memory cache for prices (key: symbol, value: MarketPriceDto)
-    private final Map<String, MarketPriceDto> priceCache = new ConcurrentHashMap<>();
+    // Bounded in-memory cache for prices (key: symbol)
+    @Autowired
+    private PriceCache priceCache;
+
+    // Fetches in progress (key: symbol); callers arriving meanwhile wait on the same future
+    private final Map<String, CompletableFuture<MarketPriceDto>> inFlight = new ConcurrentHashMap<>();
 
-    // Cache expiration time in milliseconds (60 minutes)
-    private static final long CACHE_EXPIRATION_MS = 60 * 60 * 1000;
+    // Longest a caller waits on another caller's fetch before giving up
+    private static final long LOAD_TIMEOUT_MS = 15 * 1000;
+
+    // Overall budget for a multi-symbol request
+    @Value("${market.fanout.deadline-ms:5000}")
+    private long fanOutDeadlineMs;
 
     /**
      * Get current market price for a symbol.
-     * Uses cache if available and not expired.
+     * Blocks for at most the load timeout; see {@link #getCurrentPriceAsync}.
      * @param symbol Stock symbol (e.g., AAPL, CRDB)
      * @return MarketPriceDto with current price
      */
     public MarketPriceDto getCurrentPrice(String symbol) {
-        MarketPriceDto cachedPrice = priceCache.get(symbol);
+        try {
+            return getCurrentPriceAsync(symbol).get(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Timed out after {} ms waiting for price of {}", LOAD_TIMEOUT_MS, symbol);
+            return new MarketPriceDto(symbol, "Timed out fetching price");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new MarketPriceDto(symbol, "Interrupted fetching price");
+        } catch (ExecutionException e) {
+            logger.error("Error fetching price for {}: {}", symbol, e.getCause().getMessage(), e.getCause());
+            return new MarketPriceDto(symbol, "Error: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Get current market price for a symbol without blocking.
+     * Uses cache if available and not expired. An entry close to expiry is refreshed
+     * ahead of time, and a recently expired one is served as-is while it is refreshed
+     * in the background; otherwise the returned future completes with the (shared) fetch.
+     * @param symbol Stock symbol (e.g., AAPL, CRDB)
+     * @return Future of a MarketPriceDto with current price
+     */
+    public CompletableFuture<MarketPriceDto> getCurrentPriceAsync(String symbol) {
+        return getCurrentPriceAsync(symbol, ProviderScheduler.NO_DEADLINE);
+    }
+
+    private CompletableFuture<MarketPriceDto> getCurrentPriceAsync(String symbol, long deadlineNanos) {
+        PriceCache.Entry cached = priceCache.get(symbol);
+
+        if (cached != null) {
+            switch (priceCache.freshness(cached)) {
+                case FRESH:
+                    return CompletableFuture.completedFuture(cached.getPrice());
+                case REFRESH_AHEAD:
+                    if (refreshAsync(symbol)) {
+                        priceCache.recordRefreshAhead();
+                    }
+                    return CompletableFuture.completedFuture(cached.getPrice());
+                case STALE:
+                    // Stale while revalidate
+                    refreshAsync(symbol);
+                    return CompletableFuture.completedFuture(cached.getPrice());
+                default:
+                    break;
+            }
+        }
+
+        return load(symbol, deadlineNanos);
+    }
+
+    /**
+     * Get current market prices for several symbols at once.
+     * All lookups are started together, so a cold cache costs about one provider
+     * round-trip rather than one per symbol. Symbols not resolved within the deadline
+     * are returned as invalid "Timed out" entries. Fetches already started carry on and
+     * fill the cache for the next request, but requests still queued at the providers
+     * when the deadline passes are dropped, so a slow batch does not keep spending quota.
+     * @param symbols Stock symbols
+     * @return Future of a map of symbol to price, in request order
+     */
+    public CompletableFuture<Map<String, MarketPriceDto>> getCurrentPricesAsync(Collection<String> symbols) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fanOutDeadlineMs);
+        Map<String, CompletableFuture<MarketPriceDto>> pending = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            pending.computeIfAbsent(symbol, s -> getCurrentPriceAsync(s, deadlineNanos));
+        }
+
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+            .completeOnTimeout(null, fanOutDeadlineMs, TimeUnit.MILLISECONDS)
+            .handle((ignored, error) -> collect(pending));
+    }
 
-        // Return cached price if still valid
-        if (cachedPrice != null && !isCacheExpired(cachedPrice)) {
-            return cachedPrice;
+    private Map<String, MarketPriceDto> collect(Map<String, CompletableFuture<MarketPriceDto>> pending) {
+        Map<String, MarketPriceDto> prices = new LinkedHashMap<>();
+        int timedOut = 0;
+        for (Map.Entry<String, CompletableFuture<MarketPriceDto>> entry : pending.entrySet()) {
+            String symbol = entry.getKey();
+            CompletableFuture<MarketPriceDto> price = entry.getValue();
+            if (!price.isDone()) {
+                timedOut++;
+                prices.put(symbol, new MarketPriceDto(symbol, "Timed out fetching price"));
+            } else if (price.isCompletedExceptionally()) {
+                Throwable cause = price.handle((value, error) -> error).join();
+                cause = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+                prices.put(symbol, new MarketPriceDto(symbol, "Error: " + cause.getMessage()));
+            } else {
+                prices.put(symbol, price.join());
+            }
         }
+        if (timedOut > 0) {
+            logger.warn("{} of {} symbols not priced within {} ms", timedOut, pending.size(), fanOutDeadlineMs);
+        }
+        return prices;
+    }
 
-        // Fetch fresh price from Finviz APIs
-        MarketPriceDto freshPrice = finvizClient.fetchLatestPrice(symbol);
+    /**
+     * Refresh a symbol in the background unless a fetch for it is already running.
+     * Returns whether a refresh was started.
+     */
+    public boolean refreshAsync(String symbol) {
+        CompletableFuture<MarketPriceDto> created = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(symbol, created) != null) {
+            return false;
+        }
+        fetch(symbol, created, ProviderScheduler.Priority.BACKGROUND, ProviderScheduler.NO_DEADLINE);
+        return true;
+    }
+
+    /**
+     * Start a fetch for a symbol, or join the one already in flight.
+     * A joined background refresh still waiting for the provider is moved ahead of other background work.
+     */
+    private CompletableFuture<MarketPriceDto> load(String symbol, long deadlineNanos) {
+        CompletableFuture<MarketPriceDto> created = new CompletableFuture<>();
+        CompletableFuture<MarketPriceDto> existing = inFlight.putIfAbsent(symbol, created);
+        if (existing != null) {
+            finvizClient.prioritize(symbol);
+            return existing;
+        }
+        fetch(symbol, created, ProviderScheduler.Priority.INTERACTIVE, deadlineNanos);
+        return created;
+    }
 
-        // Cache the result
-        if (freshPrice.isValid()) {
-            priceCache.put(symbol, freshPrice);
+    /**
+     * Start an async fetch and complete the in-flight future registered for it.
+     * Valid results are cached before the future is released, so later callers
+     * find them in the cache.
+     */
+    private void fetch(String symbol, CompletableFuture<MarketPriceDto> future, ProviderScheduler.Priority priority,
+                       long deadlineNanos) {
+        long started = System.nanoTime();
+        CompletableFuture<MarketPriceDto> request;
+        try {
+            // Fetch fresh price from Finviz APIs
+            request = finvizClient.fetchLatestPriceAsync(symbol, priority, deadlineNanos);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
         }
 
-        return freshPrice;
+        request.whenComplete((freshPrice, error) -> {
+            try {
+                if (error != null) {
+                    priceCache.recordLoad(System.nanoTime() - started, false);
+                    future.completeExceptionally(error);
+                    return;
+                }
+                priceCache.recordLoad(System.nanoTime() - started, freshPrice.isValid());
+
+                // Cache the result
+                if (freshPrice.isValid()) {
+                    priceCache.put(symbol, freshPrice);
+                }
+                future.complete(freshPrice);
+            } finally {
+                inFlight.remove(symbol, future);
+            }
+        });
     }
 
     /**
@@ -117,17 +280,25 @@ public class MarketDataService {
     }
 
     /**
-     * Get all cached prices.
+     * Get cache counters (hits, misses, load time, evictions) for monitoring.
      */
-    public Map<String, MarketPriceDto> getAllCachedPrices() {
-        return new HashMap<>(priceCache);
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = priceCache.getStats();
+        stats.put("inFlight", inFlight.size());
+        return stats;
     }
 
     /**
-     * Check if a cached price has expired.
+     * Get upstream provider queue depths and rate-limit counters for monitoring.
      */
-    private boolean isCacheExpired(MarketPriceDto priceData) {
-        long age = System.currentTimeMillis() - priceData.getLastUpdated();
-        return age > CACHE_EXPIRATION_MS;
+    public Map<String, Object> getProviderStats() {
+        return finvizClient.getProviderStats();
+    }
+
+    /**
+     * Get all cached prices.
+     */
+    public Map<String, MarketPriceDto> getAllCachedPrices() {
+        return priceCache.asMap();
     }
 }
@@ -0,0 +1,225 @@
+package com.aero.quickfix.service;
+
+import com.aero.quickfix.dto.MarketPriceDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of market prices.
+ * Holds at most {@code maxSize} symbols, evicting the least recently used one when full.
+ * Entries age from the time they were written:
+ * <ul>
+ *   <li>fresh until {@code refreshAheadRatio * ttl}: served as-is</li>
+ *   <li>until {@code ttl}: served, and the caller schedules a refresh ahead of expiry</li>
+ *   <li>until {@code ttl + staleWindow}: expired but still servable while revalidated</li>
+ *   <li>after that: removed by the background expiry sweep</li>
+ * </ul>
+ * Hit, miss, load-time and eviction counters back /api/market/cache/stats.
+ */
+@Component
+public class PriceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceCache.class);
+
+    /**
+     * How a cached entry may be used, by age
+     */
+    public enum Freshness { FRESH, REFRESH_AHEAD, STALE }
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final long refreshAheadMs;
+    private final long staleWindowMs;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong refreshesAhead = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public PriceCache(@Value("${market.cache.max-size:1000}") int maxSize,
+                      @Value("${market.cache.ttl-ms:3600000}") long ttlMs,
+                      @Value("${market.cache.refresh-ahead-ratio:0.8}") double refreshAheadRatio,
+                      @Value("${market.cache.stale-window-ms:600000}") long staleWindowMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.refreshAheadMs = (long) (ttlMs * refreshAheadRatio);
+        this.staleWindowMs = staleWindowMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > PriceCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Look up a price; null if absent or past the stale window. Counts a hit or miss.
+     */
+    public Entry get(String symbol) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(symbol);
+        }
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.age(now) > ttlMs + staleWindowMs) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (freshness(entry, now) == Freshness.STALE) {
+            staleHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Store a price, written now or when the quote says it was taken
+     */
+    public void put(String symbol, MarketPriceDto price) {
+        long writtenAt = price.getLastUpdated() > 0 ? price.getLastUpdated() : System.currentTimeMillis();
+        synchronized (entries) {
+            entries.put(symbol, new Entry(price, writtenAt));
+        }
+    }
+
+    /**
+     * How an entry may be served right now
+     */
+    public Freshness freshness(Entry entry) {
+        return freshness(entry, System.currentTimeMillis());
+    }
+
+    private Freshness freshness(Entry entry, long now) {
+        long age = entry.age(now);
+        if (age > ttlMs) {
+            return Freshness.STALE;
+        }
+        return age > refreshAheadMs ? Freshness.REFRESH_AHEAD : Freshness.FRESH;
+    }
+
+    /**
+     * Record one upstream load and how long it took
+     */
+    public void recordLoad(long nanos, boolean success) {
+        loads.incrementAndGet();
+        totalLoadNanos.addAndGet(nanos);
+        if (!success) {
+            loadFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record a refresh started ahead of expiry
+     */
+    public void recordRefreshAhead() {
+        refreshesAhead.incrementAndGet();
+    }
+
+    /**
+     * Remove entries past their stale window, so symbols nobody asks for again do not linger
+     */
+    @Scheduled(fixedDelayString = "${market.cache.cleanup-interval-ms:60000}")
+    public void expireEntries() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().age(now) > ttlMs + staleWindowMs) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            expirations.addAndGet(removed);
+            logger.debug("Expired {} cached prices", removed);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Snapshot of the cached prices
+     */
+    public Map<String, MarketPriceDto> asMap() {
+        Map<String, MarketPriceDto> snapshot = new HashMap<>();
+        synchronized (entries) {
+            entries.forEach((symbol, entry) -> snapshot.put(symbol, entry.getPrice()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Counters and configuration for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get() + staleHits.get();
+        long requests = hitCount + misses.get();
+        long loadCount = loads.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cacheSize", size());
+        stats.put("maxSize", maxSize);
+        stats.put("cacheExpirationMs", ttlMs);
+        stats.put("refreshAheadMs", refreshAheadMs);
+        stats.put("staleWindowMs", staleWindowMs);
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("loads", loadCount);
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("averageLoadTimeMs", loadCount == 0 ? 0.0 : totalLoadNanos.get() / 1_000_000.0 / loadCount);
+        stats.put("refreshesAhead", refreshesAhead.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    /**
+     * A cached price and when it was written
+     */
+    public static final class Entry {
+        private final MarketPriceDto price;
+        private final long writtenAt;
+
+        private Entry(MarketPriceDto price, long writtenAt) {
+            this.price = price;
+            this.writtenAt = writtenAt;
+        }
+
+        public MarketPriceDto getPrice() { return price; }
+        public long getWrittenAt() { return writtenAt; }
+
+        private long age(long now) {
+            return now - writtenAt;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.aero.quickfix.websocket;
+
+import com.aero.quickfix.quant.dto.BacktestJobDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WebSocket handler pushing asynchronous backtest job updates.
+ * Every client receives all job updates until it sends "subscribe &lt;jobId&gt;";
+ * from then on it only receives the jobs it subscribed to ("unsubscribe &lt;jobId&gt;" reverses it).
+ * Updates are queued to each session's bounded outbox, so publishing never waits on a
+ * client. A client that falls behind receives one JSON array holding the latest update
+ * of each of its jobs in place of the updates it missed.
+ */
+@Component
+public class BacktestJobWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(BacktestJobWebSocketHandler.class);
+    // Jobs whose latest update is kept for catch-up arrays; well above the job queue's capacity
+    private static final int MAX_TRACKED_JOBS = 1000;
+
+    private final Map<WebSocketSession, Subscriber> sessions = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final int sessionQueueSize;
+    private final long maxSendLagMs;
+    // Sends block on slow clients, so each session's sender runs on its own virtual thread
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by itself, which also orders updates across sessions: latest update per job, oldest first
+    private final Map<UUID, String> latest = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+            return size() > MAX_TRACKED_JOBS;
+        }
+    };
+
+    public BacktestJobWebSocketHandler(ObjectMapper objectMapper,
+                                       @Value("${quant.jobs.ws.session-queue-size:64}") int sessionQueueSize,
+                                       @Value("${quant.jobs.ws.max-send-lag-ms:5000}") long maxSendLagMs) {
+        this.objectMapper = objectMapper;
+        this.sessionQueueSize = sessionQueueSize;
+        this.maxSendLagMs = maxSendLagMs;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        sessions.put(session, new Subscriber(new SessionOutbox(session, sessionQueueSize, maxSendLagMs, senders)));
+        log.info("Backtest job client connected: {}", session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        Subscriber subscriber = sessions.remove(session);
+        if (subscriber != null) {
+            subscriber.outbox.markClosed();
+        }
+        log.info("Backtest job client disconnected: {}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        String[] parts = message.getPayload().trim().split("\\s+");
+        Subscriber subscriber = sessions.get(session);
+        if (parts.length != 2 || subscriber == null) {
+            return;
+        }
+
+        try {
+            UUID jobId = UUID.fromString(parts[1]);
+            if ("subscribe".equals(parts[0])) {
+                subscriber.jobIds.add(jobId);
+            } else if ("unsubscribe".equals(parts[0])) {
+                subscriber.jobIds.remove(jobId);
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed backtest job message: {}", message.getPayload());
+        }
+    }
+
+    /**
+     * Queue a job update for every client interested in it; never blocks on a client
+     */
+    public void publish(BacktestJobDTO job) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(job);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing backtest job {}: {}", job.getJobId(), e.getMessage());
+            return;
+        }
+        TextMessage message = new TextMessage(payload);
+
+        synchronized (latest) {
+            latest.remove(job.getJobId());
+            latest.put(job.getJobId(), payload);
+            sessions.forEach((session, subscriber) -> {
+                if (subscriber.wants(job.getJobId()) && !subscriber.outbox.offer(message, () -> catchUp(subscriber))) {
+                    sessions.remove(session, subscriber);
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of connected clients and updates waiting across their queues
+     */
+    public Map<String, Object> getStats() {
+        int queued = 0;
+        long conflated = 0;
+        for (Subscriber subscriber : sessions.values()) {
+            queued += subscriber.outbox.getQueueDepth();
+            conflated += subscriber.outbox.getConflated();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("queuedMessages", queued);
+        stats.put("conflatedMessages", conflated);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    // Called under the latest lock
+    private TextMessage catchUp(Subscriber subscriber) {
+        StringJoiner array = new StringJoiner(",", "[", "]");
+        latest.forEach((jobId, payload) -> {
+            if (subscriber.wants(jobId)) {
+                array.add(payload);
+            }
+        });
+        return new TextMessage(array.toString());
+    }
+
+    /**
+     * A connected client: its outbox and the jobs it subscribed to (none means every job)
+     */
+    private static final class Subscriber {
+        private final SessionOutbox outbox;
+        private final Set<UUID> jobIds = ConcurrentHashMap.newKeySet();
+
+        private Subscriber(SessionOutbox outbox) {
+            this.outbox = outbox;
+        }
+
+        private boolean wants(UUID jobId) {
+            return jobIds.isEmpty() || jobIds.contains(jobId);
+        }
+    }
+}
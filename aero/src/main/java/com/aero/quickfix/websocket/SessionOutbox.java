@@ -0,0 +1,146 @@
+package com.aero.quickfix.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded outbound queue for one WebSocket session.
+ * Messages are sent one at a time by a sender task on the given executor, so the
+ * thread that queues them never waits on the client. When the queue is full its
+ * backlog is conflated: the queued messages are replaced by a single complete update,
+ * either the new message itself or the replacement the caller supplies for it. A session
+ * whose current send has been stuck for longer than the lag limit when that happens is
+ * closed instead.
+ */
+final class SessionOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionOutbox.class);
+
+    private final WebSocketSession session;
+    private final int capacity;
+    private final long maxLagNanos;
+    private final Executor executor;
+
+    // Guarded by this
+    private final Deque<TextMessage> queue = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closed;
+    private long sendStartedNanos;
+    private long conflated;
+
+    SessionOutbox(WebSocketSession session, int capacity, long maxLagMs, Executor executor) {
+        this.session = session;
+        this.capacity = Math.max(1, capacity);
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMs);
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a message that is a complete update on its own
+     */
+    boolean offer(TextMessage message) {
+        return offer(message, () -> message);
+    }
+
+    /**
+     * Queue a message, or if the backlog has to be conflated, the complete update from
+     * {@code onOverflow} in place of it and everything queued before it.
+     * Returns false if the session is closed or was just dropped for lagging.
+     */
+    boolean offer(TextMessage message, Supplier<TextMessage> onOverflow) {
+        TextMessage queued = message;
+        boolean startSender;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (queue.size() >= capacity) {
+                if (sending && System.nanoTime() - sendStartedNanos > maxLagNanos) {
+                    closed = true;
+                    queue.clear();
+                    executor.execute(() -> close(CloseStatus.SESSION_NOT_RELIABLE));
+                    log.warn("Dropping slow WebSocket client {}: send blocked for over {} ms",
+                        session.getId(), TimeUnit.NANOSECONDS.toMillis(maxLagNanos));
+                    return false;
+                }
+                queue.clear();
+                conflated++;
+                queued = onOverflow.get();
+            }
+            queue.addLast(queued);
+            startSender = !sending;
+            if (startSender) {
+                // Waiting for the sender to start counts towards the lag, not the time since the last send
+                sendStartedNanos = System.nanoTime();
+            }
+            sending = true;
+        }
+        if (startSender) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void drain() {
+        while (true) {
+            TextMessage next;
+            synchronized (this) {
+                next = closed ? null : queue.pollFirst();
+                if (next == null) {
+                    sending = false;
+                    return;
+                }
+                sendStartedNanos = System.nanoTime();
+            }
+            try {
+                session.sendMessage(next);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Error sending to WebSocket session {}: {}", session.getId(), e.getMessage());
+                synchronized (this) {
+                    closed = true;
+                    queue.clear();
+                    sending = false;
+                }
+                close(CloseStatus.SERVER_ERROR);
+                return;
+            }
+        }
+    }
+
+    synchronized void markClosed() {
+        closed = true;
+        queue.clear();
+    }
+
+    synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    synchronized long getConflated() {
+        return conflated;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    private void close(CloseStatus status) {
+        try {
+            if (session.isOpen()) {
+                session.close(status);
+            }
+        } catch (IOException e) {
+            log.debug("Error closing WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
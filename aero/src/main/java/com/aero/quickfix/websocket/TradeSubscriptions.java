@@ -0,0 +1,154 @@
+package com.aero.quickfix.websocket;
+
+import com.aero.quickfix.model.TradeData;
+
+import java.util.*;
+
+/**
+ * Which trade stream sessions want which trades.
+ * A session starts out receiving every trade; once it subscribes to topics ("symbol:AAPL",
+ * "side:BUY") it only receives trades matching any of them. Subscribed sessions are indexed
+ * by topic, so finding the sessions interested in a trade costs two lookups however many
+ * sessions are connected. A session holds at most MAX_TOPICS_PER_SESSION topics.
+ */
+final class TradeSubscriptions {
+
+    static final String SYMBOL = "symbol";
+    static final String SIDE = "side";
+    static final int MAX_TOPICS_PER_SESSION = 100;
+
+    // Guarded by this
+    private final Set<String> unfiltered = new HashSet<>();
+    private final Map<String, Set<String>> topicsBySession = new HashMap<>();
+    private final Map<String, Set<String>> sessionsByTopic = new HashMap<>();
+
+    /**
+     * Topic name for a symbol or side, or null if the kind is not one of those
+     */
+    static String topic(String kind, String value) {
+        String normalized = kind.toLowerCase(Locale.ROOT);
+        if (!SYMBOL.equals(normalized) && !SIDE.equals(normalized)) {
+            return null;
+        }
+        return normalized + ":" + value.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether a trade belongs to any of the topics; an empty set matches every trade
+     */
+    static boolean matches(Set<String> topics, TradeData trade) {
+        if (topics.isEmpty()) {
+            return true;
+        }
+        return (trade.getSymbol() != null && topics.contains(topic(SYMBOL, trade.getSymbol())))
+            || (trade.getSide() != null && topics.contains(topic(SIDE, trade.getSide())));
+    }
+
+    synchronized void register(String sessionId) {
+        if (!topicsBySession.containsKey(sessionId)) {
+            unfiltered.add(sessionId);
+        }
+    }
+
+    synchronized void remove(String sessionId) {
+        unfiltered.remove(sessionId);
+        Set<String> topics = topicsBySession.remove(sessionId);
+        if (topics != null) {
+            topics.forEach(topic -> unindex(topic, sessionId));
+        }
+    }
+
+    /**
+     * Add topics to a session; all or none, false if that would exceed the per-session limit
+     */
+    synchronized boolean subscribe(String sessionId, Collection<String> topics) {
+        Set<String> current = topicsBySession.getOrDefault(sessionId, Set.of());
+        Set<String> combined = new HashSet<>(current);
+        combined.addAll(topics);
+        if (combined.size() > MAX_TOPICS_PER_SESSION) {
+            return false;
+        }
+        for (String topic : topics) {
+            unfiltered.remove(sessionId);
+            topicsBySession.computeIfAbsent(sessionId, id -> new TreeSet<>()).add(topic);
+            sessionsByTopic.computeIfAbsent(topic, t -> new HashSet<>()).add(sessionId);
+        }
+        return true;
+    }
+
+    /**
+     * Drop a topic; a session left without topics receives every trade again
+     */
+    synchronized void unsubscribe(String sessionId, String topic) {
+        Set<String> topics = topicsBySession.get(sessionId);
+        if (topics == null || !topics.remove(topic)) {
+            return;
+        }
+        unindex(topic, sessionId);
+        if (topics.isEmpty()) {
+            topicsBySession.remove(sessionId);
+            unfiltered.add(sessionId);
+        }
+    }
+
+    synchronized void unsubscribeAll(String sessionId) {
+        remove(sessionId);
+        unfiltered.add(sessionId);
+    }
+
+    private void unindex(String topic, String sessionId) {
+        Set<String> sessionIds = sessionsByTopic.get(topic);
+        if (sessionIds != null && sessionIds.remove(sessionId) && sessionIds.isEmpty()) {
+            sessionsByTopic.remove(topic);
+        }
+    }
+
+    /**
+     * The session's topics, sorted; empty if it receives every trade
+     */
+    synchronized Set<String> topics(String sessionId) {
+        Set<String> topics = topicsBySession.get(sessionId);
+        return topics != null ? Collections.unmodifiableSet(new TreeSet<>(topics)) : Collections.emptySet();
+    }
+
+    /**
+     * Sessions that receive every trade
+     */
+    synchronized Set<String> unfilteredSessions() {
+        return new HashSet<>(unfiltered);
+    }
+
+    /**
+     * Subscribed sessions with a topic matching any of the trades
+     */
+    synchronized Set<String> sessionsFor(Collection<TradeData> trades) {
+        Set<String> sessionIds = new HashSet<>();
+        for (TradeData trade : trades) {
+            if (trade.getSymbol() != null) {
+                sessionIds.addAll(sessionsByTopic.getOrDefault(topic(SYMBOL, trade.getSymbol()), Set.of()));
+            }
+            if (trade.getSide() != null) {
+                sessionIds.addAll(sessionsByTopic.getOrDefault(topic(SIDE, trade.getSide()), Set.of()));
+            }
+        }
+        return sessionIds;
+    }
+
+    /**
+     * Every subscribed session
+     */
+    synchronized Set<String> subscribedSessions() {
+        return new HashSet<>(topicsBySession.keySet());
+    }
+
+    /**
+     * Whether any session is subscribed to exactly these topics
+     */
+    synchronized boolean hasSubscribers(Set<String> topics) {
+        return topicsBySession.containsValue(topics);
+    }
+
+    synchronized int getTopicCount() {
+        return sessionsByTopic.size();
+    }
+}
@@ -1,84 +1,440 @@
 package com.aero.quickfix.websocket;
 
+import com.aero.quickfix.dto.TradeDeltaDto;
+import com.aero.quickfix.dto.TradeSnapshotDto;
 import com.aero.quickfix.dto.TradeStatsDto;
+import com.aero.quickfix.model.TradeData;
+import com.aero.quickfix.repository.TradeAggregates;
 import com.aero.quickfix.repository.TradeDataRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * WebSocket handler for real-time trade data streaming.
+ * FIX callbacks only mark the trade stats as changed; a broadcast tick (every
+ * trades.ws.broadcast-interval-ms) serializes the update once and hands the same
+ * message to every session's bounded outbox, so a burst of execution reports costs
+ * one update per tick and a slow client never holds up the FIX thread or other clients.
+ *
+ * Clients get the full {@link TradeStatsDto} on every tick unless they opt into the
+ * delta protocol, by connecting with ?protocol=2 or sending "protocol 2". They then get a
+ * {@link TradeSnapshotDto} carrying the trade sequence number it was taken at, followed by
+ * {@link TradeDeltaDto}s with only the trades saved since the previous tick and the new totals.
+ * A client that sees a delta start past its sequence number has missed one and sends "resync"
+ * for a fresh snapshot.
+ *
+ * Either way a client receives every trade until it sends "subscribe symbol AAPL [MSFT ...]"
+ * or "subscribe side BUY"; from then on it only gets updates when a trade matching one of its
+ * topics arrives, with the trades narrowed to those topics and totals per topic added.
+ * "unsubscribe symbol AAPL" drops a topic and a bare "unsubscribe" drops them all.
+ * Symbols and sides match case-insensitively; sides are BUY, SELL and SELL_SHORT. A
+ * subscribe that would take a session past 100 topics is ignored.
  */
 @Component
 public class TradeWebSocketHandler extends TextWebSocketHandler {
-    
+
     private static final Logger log = LoggerFactory.getLogger(TradeWebSocketHandler.class);
-    private final List<WebSocketSession> sessions = new CopyOnWriteArrayList<>();
+    private static final int RECENT_TRADES = 10;
+    private static final int DELTA_PROTOCOL = 2;
+    // Past this many trades in a tick, a snapshot is cheaper than the delta
+    private static final int MAX_DELTA_TRADES = 1000;
+    // How far back a subscribed client's snapshot looks for its recent trades
+    private static final int RECENT_TRADES_SCAN = 1000;
+
+    private final Map<String, SessionOutbox> sessions = new ConcurrentHashMap<>();
+    private final Set<String> deltaSessions = ConcurrentHashMap.newKeySet();
+    private final TradeSubscriptions subscriptions = new TradeSubscriptions();
     private final TradeDataRepository tradeDataRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    
-    public TradeWebSocketHandler(TradeDataRepository tradeDataRepository) {
+    private final int sessionQueueSize;
+    private final long maxSendLagMs;
+
+    // Set by FIX callbacks, cleared by the broadcast tick
+    private final AtomicBoolean changed = new AtomicBoolean();
+    // Sends block on slow clients, so each session's sender runs on its own virtual thread
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    // Orders snapshots against deltas, so no delta queued after a snapshot starts before it
+    private final Object streamLock = new Object();
+    // Guarded by streamLock: sequence number the next delta starts from
+    private long nextDeltaSeq;
+    // Guarded by streamLock: the same for each set of subscribed topics, which skip ticks without matching trades
+    private final Map<Set<String>, Long> topicDeltaSeqs = new HashMap<>();
+
+    public TradeWebSocketHandler(TradeDataRepository tradeDataRepository,
+                                 @Value("${trades.ws.session-queue-size:16}") int sessionQueueSize,
+                                 @Value("${trades.ws.max-send-lag-ms:5000}") long maxSendLagMs) {
         this.tradeDataRepository = tradeDataRepository;
+        this.sessionQueueSize = sessionQueueSize;
+        this.maxSendLagMs = maxSendLagMs;
+        this.nextDeltaSeq = tradeDataRepository.getNextSequence();
     }
-    
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        sessions.add(session);
+        SessionOutbox outbox = new SessionOutbox(session, sessionQueueSize, maxSendLagMs, senders);
         log.info("WebSocket client connected: {}", session.getId());
-        
-        // Send initial trade data
-        sendTradeUpdate(session);
+
+        // A tick must not reach the session before its first snapshot is queued
+        synchronized (streamLock) {
+            subscriptions.register(session.getId());
+            if (requestedProtocol(session) == DELTA_PROTOCOL) {
+                deltaSessions.add(session.getId());
+            }
+            sessions.put(session.getId(), outbox);
+
+            // Send initial trade data
+            sendCurrent(session, outbox);
+        }
     }
-    
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        sessions.remove(session);
+        SessionOutbox outbox = sessions.remove(session.getId());
+        deltaSessions.remove(session.getId());
+        Set<String> topics = subscriptions.topics(session.getId());
+        subscriptions.remove(session.getId());
+        forgetUnusedTopics(topics);
+        if (outbox != null) {
+            outbox.markClosed();
+        }
         log.info("WebSocket client disconnected: {}", session.getId());
     }
-    
+
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String payload = message.getPayload();
         log.debug("Received WebSocket message: {}", payload);
-        
-        if ("refresh".equals(payload)) {
-            sendTradeUpdate(session);
+
+        SessionOutbox outbox = sessions.get(session.getId());
+        if (outbox == null) {
+            return;
+        }
+        String[] parts = payload.trim().split("\\s+");
+        // Protocol and topic changes take effect together with the snapshot they trigger,
+        // so no tick sends a delta for the new state first
+        synchronized (streamLock) {
+            switch (parts[0]) {
+                case "protocol":
+                    if (parts.length == 2 && String.valueOf(DELTA_PROTOCOL).equals(parts[1])) {
+                        deltaSessions.add(session.getId());
+                    } else {
+                        deltaSessions.remove(session.getId());
+                    }
+                    sendCurrent(session, outbox);
+                    break;
+                case "refresh":
+                case "resync":
+                    sendCurrent(session, outbox);
+                    break;
+                case "subscribe":
+                case "unsubscribe":
+                    if (updateSubscription(session.getId(), parts)) {
+                        sendCurrent(session, outbox);
+                    }
+                    break;
+                default:
+                    log.debug("Ignoring unknown trade stream message: {}", payload);
+            }
         }
     }
-    
+
     /**
-     * Broadcast trade update to all connected clients.
+     * Note that trade data changed; connected clients get it on the next broadcast tick.
      */
     public void broadcastTradeUpdate() {
-        for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                try {
-                    sendTradeUpdate(session);
-                } catch (IOException e) {
-                    log.error("Error sending trade update to session {}: {}", session.getId(), e.getMessage());
+        changed.set(true);
+    }
+
+    /**
+     * Send the update to every client interested in what changed since the last tick
+     */
+    @Scheduled(fixedRateString = "${trades.ws.broadcast-interval-ms:100}")
+    public void flushTradeUpdates() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+
+        synchronized (streamLock) {
+            if (sessions.isEmpty()) {
+                nextDeltaSeq = tradeDataRepository.getNextSequence();
+                return;
+            }
+            Tick tick = new Tick(nextDeltaSeq, tradeDataRepository.getNextSequence());
+            nextDeltaSeq = tick.toSeq;
+
+            // Subscribed clients only hear about ticks with trades on their topics
+            Set<String> recipients = subscriptions.unfilteredSessions();
+            recipients.addAll(tick.trades != null
+                ? subscriptions.sessionsFor(tick.trades)
+                : subscriptions.subscribedSessions());
+            try {
+                for (String sessionId : recipients) {
+                    SessionOutbox outbox = sessions.get(sessionId);
+                    if (outbox == null) {
+                        continue;
+                    }
+                    Tick.View view = tick.view(subscriptions.topics(sessionId));
+                    boolean offered = deltaSessions.contains(sessionId)
+                        ? outbox.offer(view.delta(), view::snapshot)
+                        : outbox.offer(view.stats());
+                    if (!offered) {
+                        sessions.remove(sessionId, outbox);
+                    }
                 }
+            } catch (JsonProcessingException | UncheckedIOException e) {
+                log.error("Error serializing trade update: {}", e.getMessage());
             }
+            for (Set<String> topics : tick.views.keySet()) {
+                topicDeltaSeqs.computeIfPresent(topics, (t, seq) -> tick.toSeq);
+            }
+        }
+    }
+
+    /**
+     * Number of connected clients and messages waiting across their queues
+     */
+    public Map<String, Object> getStats() {
+        int queued = 0;
+        long conflated = 0;
+        for (SessionOutbox outbox : sessions.values()) {
+            queued += outbox.getQueueDepth();
+            conflated += outbox.getConflated();
         }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("deltaSessions", deltaSessions.size());
+        stats.put("subscribedSessions", subscriptions.subscribedSessions().size());
+        stats.put("topics", subscriptions.getTopicCount());
+        stats.put("queuedMessages", queued);
+        stats.put("conflatedMessages", conflated);
+        return stats;
     }
-    
-    private void sendTradeUpdate(WebSocketSession session) throws IOException {
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    // Called under streamLock
+    private void sendCurrent(WebSocketSession session, SessionOutbox outbox) throws JsonProcessingException {
+        Set<String> topics = subscriptions.topics(session.getId());
+        if (deltaSessions.contains(session.getId())) {
+            // Start where the next delta for these topics will pick up
+            long seq = topics.isEmpty() ? nextDeltaSeq : topicDeltaSeqs.computeIfAbsent(topics, t -> nextDeltaSeq);
+            outbox.offer(snapshotMessage(topics, seq));
+        } else {
+            outbox.offer(statsMessage(topics));
+        }
+    }
+
+    /**
+     * Apply a "subscribe kind value..." or "unsubscribe [kind value...]" message; false if malformed
+     */
+    private boolean updateSubscription(String sessionId, String[] parts) {
+        boolean subscribe = "subscribe".equals(parts[0]);
+        if (parts.length == 2 || (subscribe && parts.length < 3)) {
+            log.debug("Ignoring malformed trade subscription: {}", String.join(" ", parts));
+            return false;
+        }
+        List<String> topics = new ArrayList<>();
+        for (int i = 2; i < parts.length; i++) {
+            String topic = TradeSubscriptions.topic(parts[1], parts[i]);
+            if (topic == null) {
+                log.debug("Ignoring trade subscription to unknown kind: {}", parts[1]);
+                return false;
+            }
+            topics.add(topic);
+        }
+
+        Set<String> previous = subscriptions.topics(sessionId);
+        if (parts.length == 1) {
+            subscriptions.unsubscribeAll(sessionId);
+        }
+        if (subscribe) {
+            if (!subscriptions.subscribe(sessionId, topics)) {
+                log.debug("Ignoring trade subscription past {} topics for session {}",
+                    TradeSubscriptions.MAX_TOPICS_PER_SESSION, sessionId);
+                return false;
+            }
+        } else {
+            topics.forEach(topic -> subscriptions.unsubscribe(sessionId, topic));
+        }
+        forgetUnusedTopics(previous);
+        return true;
+    }
+
+    private void forgetUnusedTopics(Set<String> topics) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        synchronized (streamLock) {
+            if (!subscriptions.hasSubscribers(topics)) {
+                topicDeltaSeqs.remove(topics);
+            }
+        }
+    }
+
+    private static int requestedProtocol(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return 1;
+        }
+        String protocol = UriComponentsBuilder.fromUri(session.getUri()).build()
+            .getQueryParams().getFirst("protocol");
+        return String.valueOf(DELTA_PROTOCOL).equals(protocol) ? DELTA_PROTOCOL : 1;
+    }
+
+    private TextMessage statsMessage(Set<String> topics) throws JsonProcessingException {
         int totalTrades = tradeDataRepository.getTotalTradeCount();
         long totalVolume = tradeDataRepository.getTotalVolume();
         double averagePrice = tradeDataRepository.getAveragePrice();
-        var recentTrades = tradeDataRepository.getRecentTrades(10);
-        
+        var recentTrades = topics.isEmpty()
+            ? tradeDataRepository.getRecentTrades(RECENT_TRADES)
+            : newestMatching(tradeDataRepository.getRecentTrades(RECENT_TRADES_SCAN), topics);
+
         TradeStatsDto stats = new TradeStatsDto(totalTrades, totalVolume, averagePrice, recentTrades);
-        
-        String json = objectMapper.writeValueAsString(stats);
-        session.sendMessage(new TextMessage(json));
+        stats.setTopicTotals(topicTotals(topics));
+        return new TextMessage(objectMapper.writeValueAsString(stats));
+    }
+
+    /**
+     * Totals may already count trades saved after the snapshot's sequence number;
+     * the next delta carries those trades and corrects the totals.
+     */
+    private TextMessage snapshotMessage(Set<String> topics, long seq) throws JsonProcessingException {
+        List<TradeData> recentTrades = topics.isEmpty()
+            ? tradeDataRepository.getTradesBefore(seq, RECENT_TRADES)
+            : newestMatching(tradeDataRepository.getTradesBefore(seq, RECENT_TRADES_SCAN), topics);
+
+        TradeSnapshotDto snapshot = new TradeSnapshotDto(DELTA_PROTOCOL, seq,
+            tradeDataRepository.getTotalTradeCount(), tradeDataRepository.getTotalVolume(),
+            tradeDataRepository.getAveragePrice(), recentTrades);
+        snapshot.setTopicTotals(topicTotals(topics));
+        return new TextMessage(objectMapper.writeValueAsString(snapshot));
+    }
+
+    private static List<TradeData> matching(List<TradeData> trades, Set<String> topics) {
+        if (topics.isEmpty()) {
+            return trades;
+        }
+        List<TradeData> matching = new ArrayList<>();
+        for (TradeData trade : trades) {
+            if (TradeSubscriptions.matches(topics, trade)) {
+                matching.add(trade);
+            }
+        }
+        return matching;
+    }
+
+    private static List<TradeData> newestMatching(List<TradeData> trades, Set<String> topics) {
+        List<TradeData> matching = matching(trades, topics);
+        return matching.subList(Math.max(0, matching.size() - RECENT_TRADES), matching.size());
+    }
+
+    private Map<String, TradeAggregates.Totals> topicTotals(Set<String> topics) {
+        if (topics.isEmpty()) {
+            return null;
+        }
+        Map<String, TradeAggregates.Totals> totals = new LinkedHashMap<>();
+        for (String topic : topics) {
+            String value = topic.substring(topic.indexOf(':') + 1);
+            totals.put(topic, topic.startsWith(TradeSubscriptions.SYMBOL + ":")
+                ? tradeDataRepository.getSymbolTotals(value)
+                : tradeDataRepository.getSideTotals(value));
+        }
+        return totals;
+    }
+
+    /**
+     * The trades saved during one broadcast tick and the messages built from them
+     */
+    private final class Tick {
+        private final long fromSeq;
+        private final long toSeq;
+        // Null if the history no longer holds them all or there are too many for a delta
+        private final List<TradeData> trades;
+        private final Map<Set<String>, View> views = new HashMap<>();
+
+        private Tick(long fromSeq, long toSeq) {
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+            long count = toSeq - fromSeq;
+            List<TradeData> saved = count <= MAX_DELTA_TRADES
+                ? tradeDataRepository.getTradesBefore(toSeq, (int) count)
+                : List.of();
+            this.trades = saved.size() < count ? null : saved;
+        }
+
+        private View view(Set<String> topics) {
+            return views.computeIfAbsent(topics, View::new);
+        }
+
+        /**
+         * Messages for the clients subscribed to one set of topics, each serialized at most once
+         */
+        private final class View {
+            private final Set<String> topics;
+            private TextMessage stats;
+            private TextMessage delta;
+            private TextMessage snapshot;
+
+            private View(Set<String> topics) {
+                this.topics = topics;
+            }
+
+            private TextMessage stats() throws JsonProcessingException {
+                if (stats == null) {
+                    stats = statsMessage(topics);
+                }
+                return stats;
+            }
+
+            /**
+             * The matching trades since these topics' last delta, or a snapshot if they are not all held
+             */
+            private TextMessage delta() throws JsonProcessingException {
+                if (delta == null) {
+                    if (trades == null) {
+                        delta = snapshot();
+                    } else {
+                        long deltaFromSeq = topics.isEmpty() ? fromSeq : topicDeltaSeqs.getOrDefault(topics, fromSeq);
+                        TradeDeltaDto dto = new TradeDeltaDto(DELTA_PROTOCOL, deltaFromSeq, toSeq,
+                            matching(trades, topics), tradeDataRepository.getTotalTradeCount(),
+                            tradeDataRepository.getTotalVolume(), tradeDataRepository.getAveragePrice());
+                        dto.setTopicTotals(topicTotals(topics));
+                        delta = new TextMessage(objectMapper.writeValueAsString(dto));
+                    }
+                }
+                return delta;
+            }
+
+            private TextMessage snapshot() {
+                if (snapshot == null) {
+                    try {
+                        snapshot = snapshotMessage(topics, toSeq);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return snapshot;
+            }
+        }
     }
 }
@@ -6,21 +6,26 @@ import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 
 /**
- * WebSocket configuration for real-time trade data streaming.
+ * WebSocket configuration for real-time trade data and backtest job streaming.
  */
 @Configuration
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
     
     private final TradeWebSocketHandler tradeWebSocketHandler;
+    private final BacktestJobWebSocketHandler backtestJobWebSocketHandler;
     
-    public WebSocketConfig(TradeWebSocketHandler tradeWebSocketHandler) {
+    public WebSocketConfig(TradeWebSocketHandler tradeWebSocketHandler,
+                           BacktestJobWebSocketHandler backtestJobWebSocketHandler) {
         this.tradeWebSocketHandler = tradeWebSocketHandler;
+        this.backtestJobWebSocketHandler = backtestJobWebSocketHandler;
     }
     
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(tradeWebSocketHandler, "/ws/trades")
                 .setAllowedOrigins("*");
+        registry.addHandler(backtestJobWebSocketHandler, "/ws/backtests")
+                .setAllowedOrigins("*");
     }
 }
@@ -0,0 +1,144 @@
+package com.aero.quickfix.client;
+
+import com.aero.quickfix.dto.MarketPriceDto;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for streaming parsing of Alpha Vantage daily time series and quote fallback.
+ */
+@DisplayName("Finviz Market Data Client Tests")
+public class FinvizMarketDataClientTest {
+
+    private static final String RESPONSE = """
+        {
+          "Meta Data": {"1. Information": "Daily Prices", "2. Symbol": "IBM", "nested": {"a": [1, 2]}},
+          "Time Series (Daily)": {
+            "2024-03-05": {"1. open": "103.0", "2. high": "104.5", "3. low": "102.0", "4. close": "104.0", "5. volume": "1200"},
+            "2024-03-04": {"1. open": "101.0", "2. high": "103.5", "3. low": "100.5", "4. close": "103.0", "5. volume": "1100"},
+            "2024-03-01": {"1. open": "100.0", "2. high": "101.5", "3. low": "99.5", "4. close": "101.0", "5. volume": "1000"},
+            "2024-02-29": {"1. open": "99.0", "2. high": "100.5", "3. low": "98.5", "4. close": "100.0", "5. volume": "900"}
+          }
+        }
+        """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FinvizMarketDataClient client = new FinvizMarketDataClient(new RestTemplate(), objectMapper, HttpClient.newHttpClient());
+
+    @Test
+    @DisplayName("Should emit only bars inside the requested range")
+    void testParseDailyTimeSeries() throws Exception {
+        List<OHLCVData> bars = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(RESPONSE)) {
+            int count = client.parseDailyTimeSeries(parser, "IBM",
+                LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4), bars::add);
+            assertEquals(2, count);
+        }
+
+        assertEquals(2, bars.size());
+        OHLCVData first = bars.get(0);
+        assertEquals(LocalDate.of(2024, 3, 4).atStartOfDay(), first.getTime());
+        assertEquals("IBM", first.getSymbol());
+        assertEquals(new BigDecimal("101.0"), first.getOpen());
+        assertEquals(new BigDecimal("103.5"), first.getHigh());
+        assertEquals(new BigDecimal("100.5"), first.getLow());
+        assertEquals(new BigDecimal("103.0"), first.getClose());
+        assertEquals(1100L, first.getVolume());
+        assertEquals(LocalDate.of(2024, 3, 1).atStartOfDay(), bars.get(1).getTime());
+    }
+
+    @Test
+    @DisplayName("Malformed quotes from both providers should give an invalid price, not a hung future")
+    @SuppressWarnings("unchecked")
+    void testMalformedQuoteCompletes() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        HttpResponse<String> finnhub = mock(HttpResponse.class);
+        when(finnhub.statusCode()).thenReturn(200);
+        when(finnhub.body()).thenReturn("<html>Bad gateway</html>");
+        HttpResponse<String> alphaVantage = mock(HttpResponse.class);
+        when(alphaVantage.statusCode()).thenReturn(200);
+        when(alphaVantage.body()).thenReturn("{\"Global Quote\": {\"05. price\": \"n/a\"}}");
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(invocation ->
+            CompletableFuture.completedFuture(((HttpRequest) invocation.getArgument(0)).uri().getHost().contains("finnhub")
+                ? finnhub : alphaVantage));
+
+        FinvizMarketDataClient quoting = configured(httpClient);
+        try {
+            MarketPriceDto price = quoting.fetchLatestPriceAsync("IBM").get(5, TimeUnit.SECONDS);
+            assertFalse(price.isValid());
+            assertTrue(price.getErrorMessage().startsWith("Alpha Vantage error"), price.getErrorMessage());
+            verify(httpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        } finally {
+            quoting.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A rate-limit or error body should fail the history fetch, not look like an empty range")
+    void testHistoryFailuresAreNotEmpty() throws Exception {
+        FinvizMarketDataClient history = configured(mock(HttpClient.class));
+        try {
+            for (String field : new String[]{"Note", "Information"}) {
+                try (JsonParser parser = objectMapper.getFactory().createParser(
+                        "{\"" + field + "\": \"Thank you for using Alpha Vantage! Please slow down.\"}")) {
+                    assertThrows(IllegalStateException.class, () -> history.parseDailyTimeSeries(parser, "IBM",
+                        LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4), bar -> { }));
+                }
+            }
+            Map<?, ?> alphaVantage = (Map<?, ?>) history.getProviderStats().get("alphaVantage");
+            assertEquals(2L, ((Number) alphaVantage.get("rateLimited")).longValue());
+
+            try (JsonParser parser = objectMapper.getFactory().createParser("{\"Error Message\": \"Invalid API call\"}")) {
+                assertThrows(IllegalStateException.class, () -> history.parseDailyTimeSeries(parser, "IBM",
+                    LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4), bar -> { }));
+            }
+
+            // A real series with nothing in the range is still an empty answer
+            try (JsonParser parser = objectMapper.getFactory().createParser(RESPONSE)) {
+                assertEquals(0, history.parseDailyTimeSeries(parser, "IBM",
+                    LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31), bar -> { }));
+            }
+        } finally {
+            history.shutdown();
+        }
+    }
+
+    private FinvizMarketDataClient configured(HttpClient httpClient) {
+        FinvizMarketDataClient configured = new FinvizMarketDataClient(new RestTemplate(), objectMapper, httpClient);
+        ReflectionTestUtils.setField(configured, "enabled", true);
+        ReflectionTestUtils.setField(configured, "finnhubApiKey", "test");
+        ReflectionTestUtils.setField(configured, "alphaVantageApiKey", "test");
+        for (String provider : new String[]{"finnhub", "alphaVantage"}) {
+            ReflectionTestUtils.setField(configured, provider + "RequestsPerMinute", 600);
+            ReflectionTestUtils.setField(configured, provider + "Burst", 5);
+            ReflectionTestUtils.setField(configured, provider + "MaxConcurrency", 2);
+            ReflectionTestUtils.setField(configured, provider + "MaxQueueDepth", 10);
+        }
+        ReflectionTestUtils.setField(configured, "queueMaxWaitMs", 5000L);
+        ReflectionTestUtils.setField(configured, "readTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(configured, "breakerFailureThreshold", 5);
+        ReflectionTestUtils.setField(configured, "breakerOpenMs", 1000L);
+        configured.initSchedulers();
+        return configured;
+    }
+}
@@ -0,0 +1,63 @@
+package com.aero.quickfix.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for provider health tracking and the circuit breaker.
+ */
+@DisplayName("Provider Health Tests")
+public class ProviderHealthTest {
+
+    @Test
+    @DisplayName("Circuit should open after consecutive failures and close after a successful trial")
+    void testCircuitBreaker() throws Exception {
+        ProviderHealth health = new ProviderHealth("test", 3, 100);
+
+        health.recordFailure();
+        health.recordFailure();
+        health.recordSuccess(TimeUnit.MILLISECONDS.toNanos(50));
+        health.recordFailure();
+        health.recordFailure();
+        assertEquals(ProviderHealth.State.CLOSED, health.getState());
+
+        health.recordFailure();
+        assertEquals(ProviderHealth.State.OPEN, health.getState());
+        assertFalse(health.allowRequest());
+
+        Thread.sleep(150);
+        assertTrue(health.allowRequest());
+        assertEquals(ProviderHealth.State.HALF_OPEN, health.getState());
+        // Only one trial at a time
+        assertFalse(health.allowRequest());
+
+        health.recordFailure();
+        assertEquals(ProviderHealth.State.OPEN, health.getState());
+
+        Thread.sleep(150);
+        assertTrue(health.allowRequest());
+        health.recordSuccess(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(ProviderHealth.State.CLOSED, health.getState());
+        assertTrue(health.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Latency percentile should need enough samples")
+    void testLatencyPercentile() {
+        ProviderHealth health = new ProviderHealth("test", 5, 1000);
+        for (int ms = 1; ms <= 19; ms++) {
+            health.recordSuccess(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(-1, health.latencyPercentileMs(0.95));
+
+        for (int ms = 20; ms <= 100; ms++) {
+            health.recordSuccess(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(95, health.latencyPercentileMs(0.95));
+        assertEquals(50, health.latencyPercentileMs(0.50));
+    }
+}
@@ -0,0 +1,120 @@
+package com.aero.quickfix.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-provider token-bucket request scheduler.
+ */
+@DisplayName("Provider Scheduler Tests")
+public class ProviderSchedulerTest {
+
+    private ProviderScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Interactive requests should start before queued background refreshes")
+    void testInteractiveBeforeBackground() throws Exception {
+        // One request at a time, a token every 100 ms
+        scheduler = new ProviderScheduler("test", 600, 1, 1, 10, 5000);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> first = scheduler.submit("A", ProviderScheduler.Priority.BACKGROUND, () -> call(started, "A"));
+        CompletableFuture<String> second = scheduler.submit("B", ProviderScheduler.Priority.BACKGROUND, () -> call(started, "B"));
+        CompletableFuture<String> third = scheduler.submit("C", ProviderScheduler.Priority.INTERACTIVE, () -> call(started, "C"));
+        assertEquals(2, scheduler.getQueueDepth());
+
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("A", "C", "B"), started);
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Queued requests for the same key should share one call, and a rate limit should pause the queue")
+    void testCoalescingAndThrottle() throws Exception {
+        scheduler = new ProviderScheduler("test", 6000, 1, 1, 10, 5000);
+        AtomicInteger calls = new AtomicInteger();
+
+        scheduler.throttle(300);
+        long paused = System.nanoTime();
+        CompletableFuture<Integer> first = scheduler.submit("AAPL", ProviderScheduler.Priority.BACKGROUND,
+            () -> CompletableFuture.completedFuture(calls.incrementAndGet()));
+        CompletableFuture<Integer> second = scheduler.submit("AAPL", ProviderScheduler.Priority.INTERACTIVE,
+            () -> CompletableFuture.completedFuture(calls.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - paused) >= 250);
+        assertEquals(1, calls.get());
+        assertEquals(1L, scheduler.getStats().get("coalesced"));
+        assertEquals(1L, scheduler.getStats().get("rateLimited"));
+    }
+
+    @Test
+    @DisplayName("A full queue should reject new requests and a request waiting too long should expire")
+    void testQueueBounds() throws Exception {
+        scheduler = new ProviderScheduler("test", 600, 1, 1, 2, 200);
+        CompletableFuture<String> never = new CompletableFuture<>();
+        CompletableFuture<String> running = scheduler.submit("A", ProviderScheduler.Priority.INTERACTIVE, () -> never);
+        CompletableFuture<String> waiting = scheduler.submit("B", ProviderScheduler.Priority.INTERACTIVE, () -> never);
+        CompletableFuture<String> alsoWaiting = scheduler.submit("C", ProviderScheduler.Priority.INTERACTIVE, () -> never);
+        CompletableFuture<String> rejected = scheduler.submit("D", ProviderScheduler.Priority.INTERACTIVE, () -> never);
+        // The background queue has its own bound
+        CompletableFuture<String> background = scheduler.submit("E", ProviderScheduler.Priority.BACKGROUND, () -> never);
+
+        ExecutionException full = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, full.getCause());
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> waiting.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, timedOut.getCause());
+        assertThrows(ExecutionException.class, () -> alsoWaiting.get(2, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> background.get(2, TimeUnit.SECONDS));
+
+        // A started request is never expired
+        assertFalse(running.isDone());
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(1L, scheduler.getStats().get("rejected"));
+        assertEquals(3L, scheduler.getStats().get("expired"));
+    }
+
+    @Test
+    @DisplayName("A queued request should not start after its deadline unless a later caller extends it")
+    void testDeadline() throws Exception {
+        scheduler = new ProviderScheduler("test", 600, 1, 1, 10, 60000);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        List<String> started = new CopyOnWriteArrayList<>();
+        scheduler.submit("A", ProviderScheduler.Priority.INTERACTIVE, () -> first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        CompletableFuture<String> late = scheduler.submit("B", ProviderScheduler.Priority.INTERACTIVE, deadline,
+            () -> call(started, "B"));
+        CompletableFuture<String> joined = scheduler.submit("C", ProviderScheduler.Priority.INTERACTIVE, deadline,
+            () -> call(started, "C"));
+        scheduler.submit("C", ProviderScheduler.Priority.INTERACTIVE, () -> call(started, "C"));
+
+        ExecutionException dropped = assertThrows(ExecutionException.class, () -> late.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, dropped.getCause());
+        first.complete("A");
+        assertEquals("C", joined.get(2, TimeUnit.SECONDS));
+        assertEquals(List.of("C"), started);
+        assertEquals(1L, scheduler.getStats().get("expired"));
+    }
+
+    private static CompletableFuture<String> call(List<String> started, String name) {
+        started.add(name);
+        return CompletableFuture.supplyAsync(() -> name, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,134 @@
+package com.aero.quickfix.quant.indicators;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests checking the streaming indicators against IndicatorCalculator.
+ */
+@DisplayName("Streaming Indicator Tests")
+public class StreamingIndicatorTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    private List<Double> closes;
+    private List<Double> highs;
+    private List<Double> lows;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        closes = new ArrayList<>();
+        highs = new ArrayList<>();
+        lows = new ArrayList<>();
+        double price = 100;
+        for (int i = 0; i < 500; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            closes.add(price);
+            highs.add(price + random.nextDouble() * 2);
+            lows.add(price - random.nextDouble() * 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming SMA should match batch SMA")
+    void testSma() {
+        List<Double> expected = IndicatorCalculator.calculateSMA(closes, 20);
+        StreamingSMA sma = new StreamingSMA(20);
+        for (int i = 0; i < closes.size(); i++) {
+            sma.update(closes.get(i));
+            if (expected.get(i) == null) {
+                assertFalse(sma.isReady());
+            } else {
+                assertEquals(expected.get(i), sma.value(), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming EMA should match batch EMA")
+    void testEma() {
+        List<Double> expected = IndicatorCalculator.calculateEMA(closes, 12);
+        StreamingEMA ema = new StreamingEMA(12);
+        int offset = 12 - 1;
+        for (int i = 0; i < closes.size(); i++) {
+            ema.update(closes.get(i));
+            if (i >= offset) {
+                assertEquals(expected.get(i - offset), ema.value(), TOLERANCE);
+            } else {
+                assertFalse(ema.isReady());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming RSI should match batch RSI")
+    void testRsi() {
+        List<Double> expected = IndicatorCalculator.calculateRSI(closes, 14);
+        StreamingRSI rsi = new StreamingRSI(14);
+        rsi.update(closes.get(0));
+        for (int i = 1; i < closes.size(); i++) {
+            rsi.update(closes.get(i));
+            Double value = expected.get(i - 1);
+            if (value == null) {
+                assertFalse(rsi.isReady());
+            } else {
+                assertEquals(value, rsi.value(), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming ATR should match batch ATR")
+    void testAtr() {
+        List<Double> expected = IndicatorCalculator.calculateATR(highs, lows, closes, 14);
+        StreamingATR atr = new StreamingATR(14);
+        for (int i = 0; i < closes.size(); i++) {
+            atr.update(highs.get(i), lows.get(i), closes.get(i));
+            if (expected.get(i) == null) {
+                assertFalse(atr.isReady());
+            } else {
+                assertEquals(expected.get(i), atr.value(), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming Bollinger Bands should match batch bands")
+    void testBollingerBands() {
+        Map<String, List<Double>> expected = IndicatorCalculator.calculateBollingerBands(closes, 20, 2.0);
+        StreamingBollingerBands bands = new StreamingBollingerBands(20, 2.0);
+        for (int i = 0; i < closes.size(); i++) {
+            bands.update(closes.get(i));
+            if (expected.get("upper").get(i) == null) {
+                assertFalse(bands.isReady());
+            } else {
+                assertEquals(expected.get("middle").get(i), bands.middle(), 1e-6);
+                assertEquals(expected.get("upper").get(i), bands.upper(), 1e-6);
+                assertEquals(expected.get("lower").get(i), bands.lower(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reset should clear streaming state")
+    void testReset() {
+        StreamingSMA sma = new StreamingSMA(3);
+        sma.update(1);
+        sma.update(2);
+        sma.update(3);
+        assertEquals(2.0, sma.value(), TOLERANCE);
+
+        sma.reset();
+        assertFalse(sma.isReady());
+        assertTrue(Double.isNaN(sma.value()));
+    }
+}
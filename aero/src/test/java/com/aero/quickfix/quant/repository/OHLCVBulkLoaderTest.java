@@ -0,0 +1,129 @@
+package com.aero.quickfix.quant.repository;
+
+import com.aero.quickfix.quant.model.OHLCVData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for COPY-based OHLCV loads against TimescaleDB.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("OHLCV Bulk Loader Tests")
+public class OHLCVBulkLoaderTest {
+
+    private static final LocalDateTime START = LocalDate.of(2022, 3, 1).atStartOfDay();
+
+    @Container
+    private static final PostgreSQLContainer<?> DATABASE = TimescaleTestDatabase.container();
+
+    private JdbcTemplate jdbcTemplate;
+    private OHLCVBulkLoader loader;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = TimescaleTestDatabase.jdbcTemplate(DATABASE);
+        jdbcTemplate.update("TRUNCATE ohlcv_data");
+        loader = new OHLCVBulkLoader(jdbcTemplate);
+        // The staging table is emptied on commit, so loads need a transaction as in the application
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    @Test
+    @DisplayName("SKIP_EXISTING should only insert new bars and report the earliest one")
+    void testSkipExisting() {
+        load(bars(0, 10, 100), OHLCVBulkLoader.Mode.SKIP_EXISTING);
+
+        // Days 5-14: 5-9 are stored already (with other prices), 10-14 are new
+        OHLCVBulkLoader.LoadResult result = load(bars(5, 10, 200), OHLCVBulkLoader.Mode.SKIP_EXISTING);
+
+        assertEquals(5, result.getInserted());
+        assertEquals(0, result.getUpdated());
+        assertEquals(START.plusDays(10), result.getEarliestChange());
+        assertEquals(15, count());
+        assertEquals(0, closeOn(7).compareTo(BigDecimal.valueOf(107)));
+    }
+
+    @Test
+    @DisplayName("UPSERT should overwrite changed bars only and report the earliest change")
+    void testUpsert() {
+        load(bars(0, 10, 100), OHLCVBulkLoader.Mode.UPSERT);
+
+        List<OHLCVData> reload = bars(0, 12, 100);
+        // Only day 6 changes among the stored bars
+        reload.set(6, bar(6, 150));
+        OHLCVBulkLoader.LoadResult result = load(reload, OHLCVBulkLoader.Mode.UPSERT);
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(START.plusDays(6), result.getEarliestChange());
+        assertEquals(12, count());
+        assertEquals(0, closeOn(6).compareTo(BigDecimal.valueOf(150)));
+
+        OHLCVBulkLoader.LoadResult unchanged = load(reload, OHLCVBulkLoader.Mode.UPSERT);
+        assertEquals(0, unchanged.getInserted() + unchanged.getUpdated());
+        assertNull(unchanged.getEarliestChange());
+    }
+
+    @Test
+    @DisplayName("The migration should remove duplicate bars before adding the unique index")
+    void testMigrationDeduplicates() throws Exception {
+        jdbcTemplate.execute("DROP INDEX " + OHLCVBulkLoader.UNIQUE_INDEX);
+        assertThrows(IllegalStateException.class, loader::verifySchema);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO ohlcv_data (time, symbol, open, high, low, close, volume, updated_at) " +
+                "VALUES ('2022-03-01', 'DBTEST', 1, 1, 1, ?, 10, NOW() + ? * INTERVAL '1 second')", 100 + i, i);
+        }
+
+        TimescaleTestDatabase.applyMigration(jdbcTemplate, "002_ohlcv_unique.sql");
+        TimescaleTestDatabase.applyMigration(jdbcTemplate, "002_ohlcv_unique.sql");
+
+        loader.verifySchema();
+        assertEquals(1, count());
+        // The most recently updated bar is kept
+        assertEquals(0, closeOn(0).compareTo(BigDecimal.valueOf(102)));
+    }
+
+    private OHLCVBulkLoader.LoadResult load(List<OHLCVData> bars, OHLCVBulkLoader.Mode mode) {
+        return transaction.execute(status -> loader.load("DBTEST", bars, mode));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ohlcv_data WHERE symbol = 'DBTEST'", Integer.class);
+    }
+
+    private BigDecimal closeOn(int day) {
+        return jdbcTemplate.queryForObject("SELECT close FROM ohlcv_data WHERE symbol = 'DBTEST' AND time = ?",
+            BigDecimal.class, Timestamp.valueOf(START.plusDays(day)));
+    }
+
+    // Closes at base + day, so overlapping loads with another base differ on every bar
+    private static List<OHLCVData> bars(int fromDay, int days, int base) {
+        List<OHLCVData> bars = new ArrayList<>();
+        for (int day = fromDay; day < fromDay + days; day++) {
+            bars.add(bar(day, base + day));
+        }
+        return bars;
+    }
+
+    private static OHLCVData bar(int day, double close) {
+        BigDecimal price = BigDecimal.valueOf(close);
+        return new OHLCVData(START.plusDays(day), "DBTEST", price, price, price, price, 1000L);
+    }
+}
@@ -0,0 +1,106 @@
+package com.aero.quickfix.quant.repository;
+
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.service.IndicatorStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for stored indicator columns against TimescaleDB.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Technical Indicator Repository Tests")
+public class TechnicalIndicatorRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> DATABASE = TimescaleTestDatabase.container();
+
+    private JdbcTemplate jdbcTemplate;
+    private TechnicalIndicatorRepository repository;
+    private List<OHLCVData> bars;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = TimescaleTestDatabase.jdbcTemplate(DATABASE);
+        jdbcTemplate.update("TRUNCATE technical_indicators");
+        repository = new TechnicalIndicatorRepository(jdbcTemplate);
+
+        Random random = new Random(5);
+        bars = new ArrayList<>();
+        double price = 100;
+        for (int i = 0; i < 300; i++) {
+            double open = price;
+            price = Math.max(1, price * (1 + random.nextGaussian() * 0.01));
+            bars.add(new OHLCVData(LocalDate.of(2021, 1, 1).plusDays(i).atStartOfDay(), "DBTEST",
+                BigDecimal.valueOf(open), BigDecimal.valueOf(Math.max(open, price) * 1.002),
+                BigDecimal.valueOf(Math.min(open, price) * 0.998), BigDecimal.valueOf(price), 1000L));
+        }
+    }
+
+    @Test
+    @DisplayName("Stored columns should be written once and load back exactly, whatever the series start")
+    void testStoreRoundTrip() throws Exception {
+        assertTrue(repository.hasUniqueKey());
+        BarSeries full = BarSeries.from("DBTEST", bars);
+
+        IndicatorStore writer = new IndicatorStore(repository, 16, true);
+        double[] computed = writer.get(full, "SMA_20");
+        writer.get(full, "EMA_12");
+        writer.shutdown();
+        // Writing the same column again merges into the existing rows
+        IndicatorStore rewriter = new IndicatorStore(repository, 16, true);
+        rewriter.get(BarSeries.from("DBTEST", bars.subList(0, 200)), "RSI_14");
+        rewriter.shutdown();
+        repository.insertValues("DBTEST", 20, "SMA", "SMA_20", full, computed, new int[]{19, 20, 21});
+
+        assertEquals(300 - 19, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM technical_indicators WHERE symbol = 'DBTEST'", Integer.class));
+
+        // A later-starting series is served from the rows the full series stored
+        BarSeries later = BarSeries.from("DBTEST", bars.subList(100, 300));
+        IndicatorStore reader = new IndicatorStore(repository, 16, true);
+        assertArrayEquals(IndicatorCalculator.calculate("SMA_20", later), reader.get(later, "SMA_20"), 1e-9);
+        // The full series reads back exactly what it computed
+        IndicatorStore fullReader = new IndicatorStore(repository, 16, true);
+        assertArrayEquals(computed, fullReader.get(full, "SMA_20"));
+        fullReader.shutdown();
+        assertEquals(1, ((Number) reader.getStats().get("databaseLoads")).intValue());
+        assertEquals(0, ((Number) reader.getStats().get("computations")).intValue());
+        reader.shutdown();
+    }
+
+    @Test
+    @DisplayName("The migration should remove duplicates and recursive rows before adding the unique index")
+    void testMigrationDeduplicates() throws Exception {
+        jdbcTemplate.execute("DROP INDEX idx_indicators_unique");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO technical_indicators (time, symbol, period, indicator_type, indicator_name, value) " +
+                "VALUES ('2021-01-05', 'DBTEST', 20, 'SMA', 'SMA_20', 101.5)");
+        }
+        jdbcTemplate.update("INSERT INTO technical_indicators (time, symbol, period, indicator_type, indicator_name, value) " +
+            "VALUES ('2021-01-05', 'DBTEST', 12, 'EMA', 'EMA_12@2021-01-01', 100.25)");
+        assertFalse(repository.hasUniqueKey());
+
+        TimescaleTestDatabase.applyMigration(jdbcTemplate, "001_technical_indicators_unique.sql");
+        TimescaleTestDatabase.applyMigration(jdbcTemplate, "001_technical_indicators_unique.sql");
+
+        assertTrue(repository.hasUniqueKey());
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM technical_indicators WHERE symbol = 'DBTEST'", Integer.class));
+    }
+}
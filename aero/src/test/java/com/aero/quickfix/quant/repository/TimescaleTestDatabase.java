@@ -0,0 +1,43 @@
+package com.aero.quickfix.quant.repository;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * TimescaleDB container initialized with the same init.sql as docker-compose, for repository tests.
+ */
+final class TimescaleTestDatabase {
+
+    private static final String SERVER_DIR = "../quickfix-server/";
+
+    private TimescaleTestDatabase() {}
+
+    static PostgreSQLContainer<?> container() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("timescale/timescaledb:latest-pg15")
+                .asCompatibleSubstituteFor("postgres"))
+            .withCopyFileToContainer(MountableFile.forHostPath(SERVER_DIR + "init.sql"),
+                "/docker-entrypoint-initdb.d/init.sql");
+    }
+
+    static JdbcTemplate jdbcTemplate(PostgreSQLContainer<?> container) {
+        return new JdbcTemplate(new DriverManagerDataSource(
+            container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+    }
+
+    /**
+     * Run a script from quickfix-server/migrations
+     */
+    static void applyMigration(JdbcTemplate jdbcTemplate, String name) throws SQLException {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource(SERVER_DIR + "migrations/" + name));
+        }
+    }
+}
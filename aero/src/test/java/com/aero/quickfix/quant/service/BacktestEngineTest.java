@@ -0,0 +1,131 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.model.TradeLog;
+import com.aero.quickfix.quant.repository.BacktestResultsRepository;
+import com.aero.quickfix.quant.repository.OHLCVDataRepository;
+import com.aero.quickfix.quant.repository.TechnicalIndicatorRepository;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests comparing the FAST (double) and EXACT (BigDecimal) accounting modes.
+ */
+@DisplayName("Backtest Engine Tests")
+public class BacktestEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    @Mock
+    private OHLCVDataRepository ohlcvDataRepository;
+
+    @Mock
+    private BacktestResultsRepository backtestResultsRepository;
+
+    @Mock
+    private TradeLogWriter tradeLogWriter;
+
+    @Spy
+    private MetricsCalculator metricsCalculator = new MetricsCalculator();
+
+    @Spy
+    private IndicatorStore indicatorStore = new IndicatorStore(mock(TechnicalIndicatorRepository.class), 16, false);
+
+    @InjectMocks
+    private BacktestEngine backtestEngine;
+
+    private BarSeries series;
+    private LocalDate end;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // Random walk with a slow cycle so the crossover trades regularly
+        Random random = new Random(7);
+        List<OHLCVData> bars = new ArrayList<>();
+        double price = 50;
+        for (int i = 0; i < 2500; i++) {
+            price = Math.max(1, price * (1 + 0.002 * Math.sin(i / 40.0) + random.nextGaussian() * 0.01));
+            BigDecimal value = BigDecimal.valueOf(price);
+            bars.add(new OHLCVData(START.plusDays(i).atStartOfDay(), "TEST", value, value, value, value, 1000L));
+        }
+        series = BarSeries.from("TEST", bars);
+        end = START.plusDays(bars.size() - 1);
+    }
+
+    @Test
+    @DisplayName("Fast accounting should match exact accounting within tolerance")
+    void testFastModeMatchesExactMode() {
+        Strategy strategy = new SmaCrossoverStrategy(10, 30);
+        Map<String, double[]> indicators = backtestEngine.calculateIndicators(strategy, series);
+
+        BacktestEngine.Simulation exact = backtestEngine.evaluateRange(strategy, series, indicators,
+            0, series.size(), START, end, CAPITAL, BacktestEngine.AccountingMode.EXACT);
+        BacktestEngine.Simulation fast = backtestEngine.evaluateRange(strategy, series, indicators,
+            0, series.size(), START, end, CAPITAL, BacktestEngine.AccountingMode.FAST);
+
+        assertTrue(exact.getTrades().size() > 20, "series should produce a meaningful number of trades");
+        assertEquals(exact.getTrades().size(), fast.getTrades().size());
+        assertEquals(exact.getEquity().length, fast.getEquity().length);
+        for (int i = 0; i < exact.getTrades().size(); i++) {
+            TradeLog exactTrade = exact.getTrades().get(i);
+            TradeLog fastTrade = fast.getTrades().get(i);
+            assertEquals(exactTrade.getTradeDate(), fastTrade.getTradeDate());
+            assertEquals(exactTrade.getProfitLossPct().doubleValue(), fastTrade.getProfitLossPct().doubleValue(), 0.011);
+        }
+        for (int i = 0; i < exact.getEquity().length; i++) {
+            assertEquals(exact.getEquity()[i], fast.getEquity()[i], exact.getEquity()[i] * 1e-6);
+        }
+
+        BacktestResults exactResults = exact.getResults();
+        BacktestResults fastResults = fast.getResults();
+        assertEquals(exactResults.getFinalValue().doubleValue(), fastResults.getFinalValue().doubleValue(),
+            exactResults.getFinalValue().doubleValue() * 1e-6);
+        assertEquals(exactResults.getTotalReturn().doubleValue(), fastResults.getTotalReturn().doubleValue(), 0.01);
+        assertEquals(exactResults.getSharpeRatio().doubleValue(), fastResults.getSharpeRatio().doubleValue(), 1e-3);
+        assertEquals(exactResults.getSortinoRatio().doubleValue(), fastResults.getSortinoRatio().doubleValue(), 1e-3);
+        assertEquals(exactResults.getMaxDrawdown().doubleValue(), fastResults.getMaxDrawdown().doubleValue(), 0.01);
+        assertEquals(exactResults.getWinningTrades(), fastResults.getWinningTrades());
+        assertEquals(exactResults.getWinRate(), fastResults.getWinRate());
+    }
+
+    @Test
+    @DisplayName("Fast accounting should match exact accounting on a bar range")
+    void testFastModeMatchesExactModeOnRange() {
+        Strategy strategy = new SmaCrossoverStrategy(10, 30);
+        Map<String, double[]> indicators = backtestEngine.calculateIndicators(strategy, series);
+        int from = 800;
+        int to = 1600;
+
+        BacktestResults exact = backtestEngine.evaluateRange(strategy, series, indicators, from, to,
+            series.getDate(from), series.getDate(to - 1), CAPITAL, BacktestEngine.AccountingMode.EXACT).getResults();
+        BacktestResults fast = backtestEngine.evaluateRange(strategy, series, indicators, from, to,
+            series.getDate(from), series.getDate(to - 1), CAPITAL, BacktestEngine.AccountingMode.FAST).getResults();
+
+        assertEquals(exact.getTotalTrades(), fast.getTotalTrades());
+        assertEquals(exact.getFinalValue().doubleValue(), fast.getFinalValue().doubleValue(),
+            exact.getFinalValue().doubleValue() * 1e-6);
+        assertEquals(exact.getSharpeRatio().doubleValue(), fast.getSharpeRatio().doubleValue(), 1e-3);
+    }
+}
@@ -0,0 +1,160 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.dto.BacktestJobDTO;
+import com.aero.quickfix.quant.model.BacktestJob;
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import com.aero.quickfix.websocket.BacktestJobWebSocketHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the asynchronous backtest job queue.
+ */
+@DisplayName("Backtest Job Service Tests")
+public class BacktestJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END = LocalDate.of(2021, 1, 1);
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    private final BacktestEngine backtestEngine = mock(BacktestEngine.class);
+    private final BacktestJobWebSocketHandler handler = mock(BacktestJobWebSocketHandler.class);
+    private final Strategy strategy = new SmaCrossoverStrategy();
+    // Statuses published per job, in publish order
+    private final Map<UUID, List<String>> published = new ConcurrentHashMap<>();
+    private BacktestJobService jobService;
+
+    private void start(int workers) {
+        doAnswer(invocation -> {
+            BacktestJobDTO job = invocation.getArgument(0);
+            published.computeIfAbsent(job.getJobId(), id -> new CopyOnWriteArrayList<>()).add(job.getStatus());
+            return null;
+        }).when(handler).publish(any());
+        when(backtestEngine.loadBarSeries(anyString(), any(), any()))
+            .thenAnswer(invocation -> BarSeries.from(invocation.getArgument(0), List.of()));
+        jobService = new BacktestJobService(backtestEngine, handler, new ModelMapper(), workers, 100, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Queued jobs should run by priority, then in submission order, and cancel without running")
+    void testQueueOrdering() throws Exception {
+        start(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = new CopyOnWriteArrayList<>();
+        when(backtestEngine.runBacktest(eq(strategy), any(BarSeries.class), eq(START), eq(END), eq(CAPITAL), any()))
+            .thenAnswer(invocation -> {
+                String symbol = invocation.<BarSeries>getArgument(1).getSymbol();
+                ran.add(symbol);
+                if (symbol.equals("BLOCK")) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return new BacktestResults();
+            });
+
+        BacktestJob blocker = jobService.submit(strategy, "BLOCK", START, END, CAPITAL, 0);
+        while (ran.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        List<BacktestJob> queued = new ArrayList<>();
+        queued.add(jobService.submit(strategy, "LOW", START, END, CAPITAL, 0));
+        queued.add(jobService.submit(strategy, "HIGH", START, END, CAPITAL, 5));
+        BacktestJob dropped = jobService.submit(strategy, "DROPPED", START, END, CAPITAL, 9);
+        queued.add(jobService.submit(strategy, "MID", START, END, CAPITAL, 2));
+        queued.add(jobService.submit(strategy, "LATER", START, END, CAPITAL, 0));
+
+        assertTrue(jobService.cancel(dropped.getId()));
+        assertEquals(BacktestJob.Status.CANCELLED, dropped.getStatus());
+        release.countDown();
+
+        for (BacktestJob job : queued) {
+            awaitFinished(job);
+        }
+        assertEquals(List.of("BLOCK", "HIGH", "MID", "LOW", "LATER"), ran);
+        assertEquals(List.of("QUEUED", "CANCELLED"), published.get(dropped.getId()));
+        for (BacktestJob job : queued) {
+            assertEquals(List.of("QUEUED", "RUNNING", "COMPLETED"), published.get(job.getId()));
+        }
+        awaitFinished(blocker);
+    }
+
+    @Test
+    @DisplayName("Cancelling around the moment a job starts should finish it exactly once")
+    void testCancelRaceBetweenQueuedAndRunning() throws Exception {
+        start(2);
+        when(backtestEngine.runBacktest(eq(strategy), any(BarSeries.class), eq(START), eq(END), eq(CAPITAL), any()))
+            .thenAnswer(invocation -> {
+                BacktestMonitor monitor = invocation.getArgument(5);
+                for (int i = 0; i < 50; i++) {
+                    if (monitor.isCancelled()) {
+                        throw new CancellationException("cancelled");
+                    }
+                    Thread.sleep(0, 100_000);
+                }
+                return new BacktestResults();
+            });
+
+        ExecutorService cancellers = Executors.newFixedThreadPool(2);
+        try {
+            List<BacktestJob> jobs = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                BacktestJob job = jobService.submit(strategy, "SYM" + i, START, END, CAPITAL, i % 3);
+                jobs.add(job);
+                long delayMicros = (i % 10) * 100L;
+                cancellers.execute(() -> {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(delayMicros));
+                    jobService.cancel(job.getId());
+                });
+            }
+
+            for (BacktestJob job : jobs) {
+                awaitFinished(job);
+                BacktestJob.Status status = job.getStatus();
+                assertTrue(status == BacktestJob.Status.CANCELLED || status == BacktestJob.Status.COMPLETED,
+                    "unexpected status " + status);
+                List<String> statuses = published.get(job.getId());
+                assertEquals("QUEUED", statuses.get(0));
+                assertEquals(status.name(), statuses.get(statuses.size() - 1));
+                assertEquals(1, statuses.stream().filter(s -> s.equals("CANCELLED") || s.equals("COMPLETED")).count(),
+                    "finished more than once: " + statuses);
+            }
+            assertEquals(0, jobService.getQueuedCount());
+        } finally {
+            cancellers.shutdownNow();
+        }
+    }
+
+    // Finished and its final update published
+    private void awaitFinished(BacktestJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(job.isFinished() && published.get(job.getId()).contains(job.getStatus().name()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(job.isFinished(), "job " + job.getSymbol() + " did not finish");
+    }
+}
@@ -0,0 +1,111 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for batch backtests: reporting and cancellation.
+ */
+@DisplayName("Batch Backtest Service Tests")
+public class BatchBacktestServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END = LocalDate.of(2021, 1, 1);
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    private BacktestEngine backtestEngine;
+    private BatchBacktestService batchService;
+    private final List<String> reported = new CopyOnWriteArrayList<>();
+
+    private final BatchBacktestService.BatchListener listener = new BatchBacktestService.BatchListener() {
+        @Override
+        public void onResult(BacktestResults result) {
+            reported.add("result:" + result.getSymbol());
+        }
+
+        @Override
+        public void onError(String symbol, String strategyName, Throwable error) {
+            reported.add("error:" + symbol);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        backtestEngine = mock(BacktestEngine.class);
+        // One worker, so jobs run one after another
+        batchService = new BatchBacktestService(backtestEngine, 1);
+        when(backtestEngine.loadBarSeries(anyString(), any(), any()))
+            .thenAnswer(invocation -> BarSeries.from(invocation.getArgument(0), List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every job should be reported and counted in the summary")
+    void testBatchReportsEveryJob() throws Exception {
+        when(backtestEngine.runBacktest(any(Strategy.class), any(BarSeries.class), eq(START), eq(END), eq(CAPITAL)))
+            .thenAnswer(invocation -> result(invocation.<BarSeries>getArgument(1).getSymbol()));
+        when(backtestEngine.loadBarSeries(eq("BAD"), any(), any())).thenThrow(new IllegalStateException("no data"));
+
+        BatchBacktestService.BatchSummary summary = batchService.runBatch(List.of("AAPL", "BAD", "MSFT"),
+            List.of(new SmaCrossoverStrategy()), START, END, CAPITAL, listener).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, summary.getTotalJobs());
+        assertEquals(2, summary.getCompleted());
+        assertEquals(1, summary.getFailed());
+        assertTrue(reported.containsAll(List.of("result:AAPL", "error:BAD", "result:MSFT")));
+    }
+
+    @Test
+    @DisplayName("Cancelling the batch should skip jobs not yet started and stop reporting")
+    void testCancelStopsBetweenJobs() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(backtestEngine.runBacktest(any(Strategy.class), any(BarSeries.class), eq(START), eq(END), eq(CAPITAL)))
+            .thenAnswer(invocation -> {
+                running.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return result(invocation.<BarSeries>getArgument(1).getSymbol());
+            });
+
+        CompletableFuture<BatchBacktestService.BatchSummary> batch = batchService.runBatch(
+            List.of("A", "B", "C", "D"), List.of(new SmaCrossoverStrategy()), START, END, CAPITAL, listener);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertTrue(batch.cancel(false));
+        release.countDown();
+
+        // Let the single worker drain whatever was queued
+        CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS)).join();
+        verify(backtestEngine, times(1)).runBacktest(any(Strategy.class), any(BarSeries.class), any(), any(), any());
+        assertTrue(reported.isEmpty(), "reported after cancel: " + reported);
+    }
+
+    private static BacktestResults result(String symbol) {
+        BacktestResults results = new BacktestResults();
+        results.setSymbol(symbol);
+        return results;
+    }
+}
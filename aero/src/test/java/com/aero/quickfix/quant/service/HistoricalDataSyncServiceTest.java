@@ -0,0 +1,141 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.client.FinvizMarketDataClient;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.OHLCVBulkLoader;
+import com.aero.quickfix.quant.repository.OHLCVDataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for gap detection in the incremental historical data sync.
+ */
+@DisplayName("Historical Data Sync Tests")
+public class HistoricalDataSyncServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);   // Monday
+    private static final LocalDate TO = LocalDate.of(2024, 3, 29);    // Friday
+
+    @Mock
+    private OHLCVDataRepository ohlcvRepository;
+
+    @Mock
+    private FinvizMarketDataClient finvizClient;
+
+    @Mock
+    private HistoricalDataService historicalDataService;
+
+    private HistoricalDataSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        syncService = new HistoricalDataSyncService(ohlcvRepository, finvizClient, historicalDataService,
+            20, 3, Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Should find the tail and long holes but ignore holidays and weekends")
+    void testFindGaps() {
+        List<LocalDateTime> stored = new ArrayList<>();
+        for (LocalDate day = FROM; !day.isAfter(LocalDate.of(2024, 3, 15)); day = day.plusDays(1)) {
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean holiday = day.equals(LocalDate.of(2024, 1, 15));
+            boolean hole = !day.isBefore(LocalDate.of(2024, 2, 5)) && !day.isAfter(LocalDate.of(2024, 2, 9));
+            if (!weekend && !holiday && !hole) {
+                stored.add(day.atStartOfDay());
+            }
+        }
+        stubStored(stored);
+
+        List<HistoricalDataSyncService.DateRange> gaps = syncService.findGaps("TEST", FROM, TO);
+
+        assertEquals(2, gaps.size());
+        assertEquals(LocalDate.of(2024, 2, 5), gaps.get(0).from);
+        assertEquals(LocalDate.of(2024, 2, 9), gaps.get(0).to);
+        assertFalse(gaps.get(0).tail);
+        assertEquals(LocalDate.of(2024, 3, 18), gaps.get(1).from);
+        assertEquals(TO, gaps.get(1).to);
+        assertTrue(gaps.get(1).tail);
+    }
+
+    @Test
+    @DisplayName("Should write only bars inside the gaps and not ask again for empty holes")
+    void testSyncWritesOnlyMissingBars() {
+        List<LocalDateTime> stored = new ArrayList<>();
+        for (LocalDate day = FROM; !day.isAfter(TO); day = day.plusDays(1)) {
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean hole = !day.isBefore(LocalDate.of(2024, 2, 5)) && !day.isAfter(LocalDate.of(2024, 2, 9));
+            if (!weekend && !hole) {
+                stored.add(day.atStartOfDay());
+            }
+        }
+        stubStored(stored);
+
+        // The provider returns bars around the hole, but none inside it
+        List<OHLCVData> fetched = List.of(bar(LocalDate.of(2024, 2, 2)), bar(LocalDate.of(2024, 2, 12)));
+        when(finvizClient.streamHistoricalOHLCV(eq("TEST"), any(), any(), any())).thenAnswer(invocation -> {
+            Consumer<OHLCVData> sink = invocation.getArgument(3);
+            fetched.forEach(sink);
+            return fetched.size();
+        });
+
+        HistoricalDataSyncService.SyncResult result = syncService.sync("TEST", FROM, TO);
+        assertEquals(1, result.getGaps());
+        assertEquals(0, result.getBarsInserted());
+        verify(historicalDataService, never()).storeHistoricalData(any(), any(), any(OHLCVBulkLoader.Mode.class));
+
+        assertTrue(syncService.findGaps("TEST", FROM, TO).isEmpty());
+    }
+
+    @Test
+    @DisplayName("A failed fetch should not mark the gap as empty")
+    void testFailedFetchIsRetried() {
+        List<LocalDateTime> stored = new ArrayList<>();
+        for (LocalDate day = FROM; !day.isAfter(TO); day = day.plusDays(1)) {
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean hole = !day.isBefore(LocalDate.of(2024, 2, 5)) && !day.isAfter(LocalDate.of(2024, 2, 9));
+            if (!weekend && !hole) {
+                stored.add(day.atStartOfDay());
+            }
+        }
+        stubStored(stored);
+        when(finvizClient.streamHistoricalOHLCV(eq("TEST"), any(), any(), any()))
+            .thenThrow(new IllegalStateException("Alpha Vantage rate limit: please slow down"));
+
+        HistoricalDataSyncService.SyncResult result = syncService.sync("TEST", FROM, TO);
+        assertTrue(result.getMessage().startsWith("Error"), result.getMessage());
+
+        List<HistoricalDataSyncService.DateRange> gaps = syncService.findGaps("TEST", FROM, TO);
+        assertEquals(1, gaps.size());
+        assertEquals(LocalDate.of(2024, 2, 5), gaps.get(0).from);
+    }
+
+    private void stubStored(List<LocalDateTime> stored) {
+        OHLCVData latest = bar(stored.get(stored.size() - 1).toLocalDate());
+        when(ohlcvRepository.findLatestBySymbol("TEST")).thenReturn(Optional.of(latest));
+        when(ohlcvRepository.findTimesBySymbolAndDateRange(eq("TEST"), any(), any())).thenReturn(stored);
+    }
+
+    private static OHLCVData bar(LocalDate date) {
+        BigDecimal price = new BigDecimal("100");
+        return new OHLCVData(date.atStartOfDay(), "TEST", price, price, price, price, 1000L);
+    }
+}
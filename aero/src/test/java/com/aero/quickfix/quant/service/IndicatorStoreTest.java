@@ -0,0 +1,136 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.indicators.IndicatorCalculator;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.TechnicalIndicatorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the indicator store's memory and database tiers.
+ */
+@DisplayName("Indicator Store Tests")
+public class IndicatorStoreTest {
+
+    private static final String[] SPECS = {"SMA_20", "EMA_12", "RSI_14", "ATR_14", "MACD", "BOLLINGER_BANDS"};
+
+    private List<OHLCVData> bars;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(11);
+        bars = new ArrayList<>();
+        double price = 100;
+        for (int i = 0; i < 600; i++) {
+            double open = price;
+            price = Math.max(1, price * (1 + random.nextGaussian() * 0.01));
+            bars.add(new OHLCVData(LocalDate.of(2020, 1, 1).plusDays(i).atStartOfDay(), "TEST",
+                BigDecimal.valueOf(open), BigDecimal.valueOf(Math.max(open, price) * 1.002),
+                BigDecimal.valueOf(Math.min(open, price) * 0.998), BigDecimal.valueOf(price), 1000L));
+        }
+    }
+
+    @Test
+    @DisplayName("Extended and prefix columns should match a full computation")
+    void testExtensionMatchesFullComputation() {
+        IndicatorStore store = new IndicatorStore(mock(TechnicalIndicatorRepository.class), 16, false);
+        BarSeries initial = BarSeries.from("TEST", bars.subList(0, 400));
+        BarSeries grown = BarSeries.from("TEST", bars);
+        BarSeries prefix = BarSeries.from("TEST", bars.subList(0, 250));
+
+        for (String spec : SPECS) {
+            double[] first = store.get(initial, spec);
+            assertArrayEquals(IndicatorCalculator.calculate(spec, initial), first, spec);
+            assertSame(first, store.get(initial, spec), spec + " should be served from memory");
+            assertArrayEquals(IndicatorCalculator.calculate(spec, grown), store.get(grown, spec), spec);
+            assertArrayEquals(IndicatorCalculator.calculate(spec, prefix), store.get(prefix, spec), spec);
+        }
+
+        assertEquals(SPECS.length, ((Number) store.getStats().get("computations")).intValue());
+        assertEquals(SPECS.length, ((Number) store.getStats().get("extensions")).intValue());
+    }
+
+    @Test
+    @DisplayName("A fully stored column should be loaded instead of computed")
+    void testLoadsCompleteColumnFromDatabase() {
+        TechnicalIndicatorRepository repository = mock(TechnicalIndicatorRepository.class);
+        BarSeries series = BarSeries.from("TEST", bars);
+        double[] expected = IndicatorCalculator.calculate("SMA_20", series);
+        when(repository.loadAligned(eq("TEST"), eq("SMA"), eq("SMA_20"), same(series), any(double[].class)))
+            .thenAnswer(invocation -> {
+                double[] target = invocation.getArgument(4);
+                int filled = 0;
+                for (int i = 0; i < expected.length; i++) {
+                    if (!Double.isNaN(expected[i])) {
+                        target[i] = expected[i];
+                        filled++;
+                    }
+                }
+                return filled;
+            });
+
+        IndicatorStore store = new IndicatorStore(repository, 16, true);
+        assertArrayEquals(expected, store.get(series, "SMA_20"));
+
+        assertEquals(1, ((Number) store.getStats().get("databaseLoads")).intValue());
+        assertEquals(0, ((Number) store.getStats().get("computations")).intValue());
+        verify(repository, never()).insertValues(any(), anyInt(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Stored rows should be matched to bars by position, not by count")
+    void testStoredRowsMatchedByPosition() {
+        BarSeries full = BarSeries.from("TEST", bars);
+        double[] fullSma = IndicatorCalculator.calculate("SMA_20", full);
+        BarSeries later = BarSeries.from("TEST", bars.subList(100, 400));
+
+        // Rows stored by the earlier-starting series cover the later series' warm-up bars too
+        TechnicalIndicatorRepository repository = mock(TechnicalIndicatorRepository.class);
+        when(repository.loadAligned(any(), any(), any(), any(), any(double[].class))).thenAnswer(invocation -> {
+            double[] target = invocation.getArgument(4);
+            System.arraycopy(fullSma, 100, target, 0, target.length);
+            return target.length;
+        });
+        IndicatorStore store = new IndicatorStore(repository, 16, true);
+        // The rolling sum behind those rows started earlier, so only the last bits may differ
+        assertArrayEquals(IndicatorCalculator.calculate("SMA_20", later), store.get(later, "SMA_20"), 1e-9);
+        assertEquals(1, ((Number) store.getStats().get("databaseLoads")).intValue());
+
+        // As many rows as bars past the warm-up, but the newest bars are missing
+        TechnicalIndicatorRepository gappy = mock(TechnicalIndicatorRepository.class);
+        when(gappy.loadAligned(any(), any(), any(), any(), any(double[].class))).thenAnswer(invocation -> {
+            double[] target = invocation.getArgument(4);
+            System.arraycopy(fullSma, 100, target, 0, target.length - 19);
+            return target.length - 19;
+        });
+        IndicatorStore gappyStore = new IndicatorStore(gappy, 16, true);
+        assertArrayEquals(IndicatorCalculator.calculate("SMA_20", later), gappyStore.get(later, "SMA_20"));
+        assertEquals(0, ((Number) gappyStore.getStats().get("databaseLoads")).intValue());
+        assertEquals(1, ((Number) gappyStore.getStats().get("computations")).intValue());
+    }
+
+    @Test
+    @DisplayName("Recursive indicators should never touch the database")
+    void testRecursiveIndicatorsNotStored() throws Exception {
+        TechnicalIndicatorRepository repository = mock(TechnicalIndicatorRepository.class);
+        IndicatorStore store = new IndicatorStore(repository, 16, true);
+        BarSeries series = BarSeries.from("TEST", bars);
+        for (String spec : new String[]{"EMA_12", "RSI_14", "ATR_14", "MACD"}) {
+            assertArrayEquals(IndicatorCalculator.calculate(spec, series), store.get(series, spec), spec);
+        }
+        store.shutdown();
+        verifyNoInteractions(repository);
+    }
+}
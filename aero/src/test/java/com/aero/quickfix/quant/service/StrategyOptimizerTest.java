@@ -0,0 +1,156 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BacktestResults;
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.BacktestResultsRepository;
+import com.aero.quickfix.quant.repository.OHLCVDataRepository;
+import com.aero.quickfix.quant.repository.TechnicalIndicatorRepository;
+import com.aero.quickfix.quant.strategy.ParameterRange;
+import com.aero.quickfix.quant.strategy.Strategy;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for grid and random parameter sweeps.
+ */
+@DisplayName("Strategy Optimizer Tests")
+public class StrategyOptimizerTest {
+
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    @Mock
+    private OHLCVDataRepository ohlcvDataRepository;
+
+    @Mock
+    private BacktestResultsRepository backtestResultsRepository;
+
+    @Mock
+    private TradeLogWriter tradeLogWriter;
+
+    @Spy
+    private MetricsCalculator metricsCalculator = new MetricsCalculator();
+
+    @Spy
+    private IndicatorStore indicatorStore = new IndicatorStore(mock(TechnicalIndicatorRepository.class), 16, false);
+
+    @InjectMocks
+    private BacktestEngine backtestEngine;
+
+    private StrategyOptimizer optimizer;
+    private StrategyDescriptor descriptor;
+    private List<ParameterRange> ranges;
+    private BarSeries series;
+    private LocalDate end;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        optimizer = new StrategyOptimizer(backtestEngine, 2, BacktestEngine.AccountingMode.FAST);
+        descriptor = SmaCrossoverStrategy.descriptor();
+        ranges = List.of(
+            new ParameterRange(SmaCrossoverStrategy.PARAM_FAST, 5, 30, 5),
+            new ParameterRange(SmaCrossoverStrategy.PARAM_SLOW, 20, 80, 10));
+
+        // Trending cycles with noise, so the crossover's periods matter
+        Random random = new Random(11);
+        List<OHLCVData> bars = new ArrayList<>();
+        double price = 50;
+        for (int i = 0; i < 1500; i++) {
+            price = Math.max(1, price * (1 + 0.003 * Math.sin(i / 60.0) + random.nextGaussian() * 0.008));
+            BigDecimal value = BigDecimal.valueOf(price);
+            bars.add(new OHLCVData(START.plusDays(i).atStartOfDay(), "TEST", value, value, value, value, 1000L));
+        }
+        series = BarSeries.from("TEST", bars);
+        end = START.plusDays(bars.size() - 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        optimizer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Grid and random search should both find the best parameters of an exhaustive scan")
+    void testSearchesFindBestParameters() {
+        Map<String, Integer> best = null;
+        double bestSharpe = Double.NEGATIVE_INFINITY;
+        int valid = 0;
+        for (int fast = 5; fast <= 30; fast += 5) {
+            for (int slow = 20; slow <= 80; slow += 10) {
+                Map<String, Integer> parameters = new LinkedHashMap<>();
+                parameters.put(SmaCrossoverStrategy.PARAM_FAST, fast);
+                parameters.put(SmaCrossoverStrategy.PARAM_SLOW, slow);
+                Strategy strategy = descriptor.create(parameters);
+                if (!strategy.isValid()) {
+                    continue;
+                }
+                valid++;
+                BacktestResults results = backtestEngine.evaluateRange(strategy, series,
+                    backtestEngine.calculateIndicators(strategy, series), 0, series.size(), START, end, CAPITAL,
+                    BacktestEngine.AccountingMode.FAST).getResults();
+                if (results.getSharpeRatio().doubleValue() > bestSharpe) {
+                    bestSharpe = results.getSharpeRatio().doubleValue();
+                    best = parameters;
+                }
+            }
+        }
+
+        StrategyOptimizer.OptimizationReport grid = optimizer.gridSearch(descriptor, ranges, series,
+            START, end, CAPITAL, 5);
+        assertEquals(valid, grid.getEvaluated());
+        assertEquals(42 - valid, grid.getSkipped());
+        assertEquals(best, grid.getTopResults().get(0).getParameters());
+        assertEquals(bestSharpe, grid.getTopResults().get(0).getResults().getSharpeRatio().doubleValue(), 1e-12);
+
+        // As many samples as the space holds: every set is drawn once
+        StrategyOptimizer.OptimizationReport random = optimizer.randomSearch(descriptor, ranges, 1000, 3L, series,
+            START, end, CAPITAL, 5);
+        assertEquals(valid, random.getEvaluated());
+        assertEquals(best, random.getTopResults().get(0).getParameters());
+    }
+
+    @Test
+    @DisplayName("Results should be the best N by Sharpe, highest first")
+    void testTopResultsBoundedAndRanked() {
+        StrategyOptimizer.OptimizationReport all = optimizer.gridSearch(descriptor, ranges, series,
+            START, end, CAPITAL, StrategyOptimizer.MAX_TOP_N);
+        StrategyOptimizer.OptimizationReport top = optimizer.gridSearch(descriptor, ranges, series,
+            START, end, CAPITAL, 3);
+
+        assertEquals(all.getEvaluated(), all.getTopResults().size());
+        assertEquals(3, top.getTopResults().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(all.getTopResults().get(i).getParameters(), top.getTopResults().get(i).getParameters());
+        }
+        for (int i = 1; i < all.getTopResults().size(); i++) {
+            assertTrue(all.getTopResults().get(i - 1).getResults().getSharpeRatio()
+                .compareTo(all.getTopResults().get(i).getResults().getSharpeRatio()) >= 0);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.gridSearch(descriptor, ranges, series,
+            START, end, CAPITAL, StrategyOptimizer.MAX_TOP_N + 1));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.randomSearch(descriptor, ranges,
+            StrategyOptimizer.MAX_COMBINATIONS + 1, 1L, series, START, end, CAPITAL, 5));
+    }
+}
@@ -0,0 +1,149 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.TradeLog;
+import com.aero.quickfix.quant.repository.BacktestResultsRepository;
+import com.aero.quickfix.quant.repository.TradeLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bulk and deferred trade log writes.
+ */
+@DisplayName("Trade Log Writer Tests")
+public class TradeLogWriterTest {
+
+    private TradeLogRepository tradeLogRepository;
+    private BacktestResultsRepository backtestResultsRepository;
+    private PlatformTransactionManager transactionManager;
+    private TradeLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        tradeLogRepository = mock(TradeLogRepository.class);
+        backtestResultsRepository = mock(BacktestResultsRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        writer = new TradeLogWriter(tradeLogRepository, backtestResultsRepository, transactionManager, 1, 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Each backtest's trades should be written with a single saveAll")
+    void testOneSaveAllPerBacktest() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<TradeLog> firstTrades = trades(5);
+        List<TradeLog> secondTrades = trades(3);
+
+        writer.write(first, firstTrades);
+        writer.write(second, secondTrades);
+        writer.write(UUID.randomUUID(), List.of());
+
+        verify(tradeLogRepository, times(1)).saveAll(firstTrades);
+        verify(tradeLogRepository, times(1)).saveAll(secondTrades);
+        verify(tradeLogRepository, times(2)).saveAll(anyList());
+        verify(tradeLogRepository, never()).save(any());
+        assertTrue(firstTrades.stream().allMatch(trade -> first.equals(trade.getBacktestId())));
+        assertTrue(secondTrades.stream().allMatch(trade -> second.equals(trade.getBacktestId())));
+    }
+
+    @Test
+    @DisplayName("A deferred write should be retried after a transient failure")
+    void testRetryAfterFailure() throws Exception {
+        List<TradeLog> trades = trades(2);
+        when(tradeLogRepository.saveAll(trades))
+            .thenThrow(new DataAccessResourceFailureException("connection reset"))
+            .thenReturn(trades);
+
+        writer.writeAsync(UUID.randomUUID(), trades).get(5, TimeUnit.SECONDS);
+
+        verify(tradeLogRepository, times(2)).saveAll(trades);
+        verify(backtestResultsRepository, never()).markTradesIncomplete(any());
+    }
+
+    @Test
+    @DisplayName("The result row should be flagged once every attempt has failed")
+    void testMarkIncompleteAfterLastAttempt() {
+        UUID backtestId = UUID.randomUUID();
+        List<TradeLog> trades = trades(2);
+        when(tradeLogRepository.saveAll(trades)).thenThrow(new DataAccessResourceFailureException("database down"));
+
+        assertThrows(CompletionException.class, () -> writer.writeAsync(backtestId, trades).join());
+
+        verify(tradeLogRepository, times(3)).saveAll(trades);
+        verify(backtestResultsRepository, timeout(1000)).markTradesIncomplete(backtestId);
+    }
+
+    @Test
+    @DisplayName("A write run by the caller on a full queue should commit in its own transaction after commit")
+    void testCallerRunsInNewTransactionWhenQueueFull() throws Exception {
+        List<TradeLog> blocking = trades(1);
+        List<TradeLog> queued = trades(2);
+        List<TradeLog> overflow = trades(3);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(tradeLogRepository.saveAll(blocking)).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return blocking;
+        });
+
+        // Occupy the writer and the single queue slot
+        writer.writeAsync(UUID.randomUUID(), blocking);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writer.writeAsync(UUID.randomUUID(), queued);
+        assertEquals(1, writer.getQueueDepth());
+
+        // The next write overflows and runs inside afterCommit of the outer transaction
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.writeAfterCommit(UUID.randomUUID(), overflow);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(tradeLogRepository).saveAll(overflow);
+        release.countDown();
+
+        verify(tradeLogRepository, timeout(5000)).saveAll(queued);
+        verify(transactionManager, timeout(5000).times(3)).commit(any());
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(3)).getTransaction(definitions.capture());
+        assertTrue(definitions.getAllValues().stream()
+            .allMatch(d -> d.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(backtestResultsRepository, never()).markTradesIncomplete(any());
+    }
+
+    private static List<TradeLog> trades(int count) {
+        List<TradeLog> trades = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            trades.add(new TradeLog());
+        }
+        return trades;
+    }
+}
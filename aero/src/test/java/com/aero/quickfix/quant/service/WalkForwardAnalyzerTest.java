@@ -0,0 +1,199 @@
+package com.aero.quickfix.quant.service;
+
+import com.aero.quickfix.quant.model.BarSeries;
+import com.aero.quickfix.quant.model.OHLCVData;
+import com.aero.quickfix.quant.repository.BacktestResultsRepository;
+import com.aero.quickfix.quant.repository.OHLCVDataRepository;
+import com.aero.quickfix.quant.repository.TechnicalIndicatorRepository;
+import com.aero.quickfix.quant.strategy.ParameterRange;
+import com.aero.quickfix.quant.strategy.StrategyDescriptor;
+import com.aero.quickfix.quant.strategy.impl.SmaCrossoverStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for walk-forward window splitting, stitching and cancellation.
+ */
+@DisplayName("Walk Forward Analyzer Tests")
+public class WalkForwardAnalyzerTest {
+
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+    private static final LocalDate END = LocalDate.of(2018, 12, 31);
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+
+    @Mock
+    private OHLCVDataRepository ohlcvDataRepository;
+
+    @Mock
+    private BacktestResultsRepository backtestResultsRepository;
+
+    @Mock
+    private TradeLogWriter tradeLogWriter;
+
+    @Spy
+    private MetricsCalculator metricsCalculator = new MetricsCalculator();
+
+    @Spy
+    private IndicatorStore indicatorStore = new IndicatorStore(mock(TechnicalIndicatorRepository.class), 16, false);
+
+    @InjectMocks
+    private BacktestEngine engine;
+
+    private BacktestEngine backtestEngine;
+    private StrategyOptimizer optimizer;
+    private WalkForwardAnalyzer analyzer;
+    private StrategyDescriptor descriptor;
+    private List<ParameterRange> ranges;
+    private BarSeries series;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        Random random = new Random(3);
+        List<OHLCVData> bars = new ArrayList<>();
+        double price = 50;
+        int i = 0;
+        for (LocalDate day = START; !day.isAfter(END); day = day.plusDays(1), i++) {
+            price = Math.max(1, price * (1 + 0.003 * Math.sin(i / 50.0) + random.nextGaussian() * 0.008));
+            BigDecimal value = BigDecimal.valueOf(price);
+            bars.add(new OHLCVData(day.atStartOfDay(), "TEST", value, value, value, value, 1000L));
+        }
+        series = BarSeries.from("TEST", bars);
+
+        backtestEngine = spy(engine);
+        doReturn(series).when(backtestEngine).loadBarSeries(eq("TEST"), any(), any());
+        optimizer = new StrategyOptimizer(backtestEngine, 2, BacktestEngine.AccountingMode.FAST);
+        analyzer = new WalkForwardAnalyzer(backtestEngine, optimizer, metricsCalculator, 2);
+        descriptor = SmaCrossoverStrategy.descriptor();
+        ranges = List.of(
+            new ParameterRange(SmaCrossoverStrategy.PARAM_FAST, 5, 20, 5),
+            new ParameterRange(SmaCrossoverStrategy.PARAM_SLOW, 30, 60, 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        analyzer.shutdown();
+        optimizer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Rolling windows should keep their train length and anchored ones should start at the range start")
+    void testWindowBoundaries() {
+        WalkForwardAnalyzer.WalkForwardReport rolling = analyzer.run(descriptor, ranges, null, 1L, "TEST",
+            START, END, CAPITAL, 12, 6, false);
+        WalkForwardAnalyzer.WalkForwardReport anchored = analyzer.run(descriptor, ranges, null, 1L, "TEST",
+            START, END, CAPITAL, 12, 6, true);
+
+        // Test windows cover 2016-01 to 2018-12 in six-month steps
+        assertEquals(6, rolling.getWindows().size());
+        assertEquals(6, anchored.getWindows().size());
+        for (int w = 0; w < 6; w++) {
+            LocalDate testStart = START.plusMonths(12 + 6L * w);
+            for (WalkForwardAnalyzer.WindowResult window : List.of(rolling.getWindows().get(w), anchored.getWindows().get(w))) {
+                assertEquals(testStart, window.getTestStart());
+                assertEquals(testStart.minusDays(1), window.getTrainEnd());
+                assertEquals(testStart.plusMonths(6).minusDays(1), window.getTestEnd());
+            }
+            assertEquals(START.plusMonths(6L * w), rolling.getWindows().get(w).getTrainStart());
+            assertEquals(START, anchored.getWindows().get(w).getTrainStart());
+        }
+        assertEquals(END, rolling.getWindows().get(5).getTestEnd());
+    }
+
+    @Test
+    @DisplayName("The stitched final value should compound the per-window returns")
+    void testStitchedFinalValue() {
+        WalkForwardAnalyzer.WalkForwardReport report = analyzer.run(descriptor, ranges, null, 1L, "TEST",
+            START, END, CAPITAL, 12, 6, false);
+
+        double expected = CAPITAL.doubleValue();
+        int traded = 0;
+        for (WalkForwardAnalyzer.WindowResult window : report.getWindows()) {
+            if (window.getOutOfSample() != null) {
+                traded++;
+                expected *= window.getOutOfSample().getFinalValue().doubleValue() / CAPITAL.doubleValue();
+            }
+        }
+        assertTrue(traded > 0);
+        assertEquals(expected, report.getAggregate().getFinalValue().doubleValue(), expected * 1e-8);
+        assertEquals(report.getWindows().get(0).getTestStart(), report.getAggregate().getStartDate());
+    }
+
+    @Test
+    @DisplayName("A failing window should stop the others at their next parameter set")
+    void testFailureCancelsOtherWindows() {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 3) {
+                throw new IllegalStateException("window failed");
+            }
+            Thread.sleep(20);
+            return invocation.callRealMethod();
+        }).when(backtestEngine).evaluateRange(any(), any(), any(), anyInt(), anyInt(), any(), any(), any(), any());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> analyzer.run(descriptor,
+            ranges, null, 1L, "TEST", START, END, CAPITAL, 12, 6, false));
+        assertTrue(error.getMessage().contains("window failed"), error.getMessage());
+
+        // 6 windows of 16 sets each would be about 100 evaluations without cancellation
+        int afterFailure = calls.get();
+        assertTrue(afterFailure < 40, "evaluations: " + afterFailure);
+
+        assertThrows(CancellationException.class, () -> optimizer.gridSearch(descriptor, ranges, series,
+            0, series.size(), new ConcurrentHashMap<>(), START, END, CAPITAL, 1, () -> true));
+    }
+
+    @Test
+    @DisplayName("A failure in the last window should stop the earlier ones without waiting for them")
+    void testLastWindowFailureCancelsEarlierWindows() {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            Thread.sleep(20);
+            return invocation.callRealMethod();
+        }).when(backtestEngine).evaluateRange(any(), any(), any(), anyInt(), anyInt(), any(), any(), any(), any());
+        StrategyOptimizer failing = spy(optimizer);
+        LocalDate lastTrainStart = START.plusMonths(30);
+        doAnswer(invocation -> {
+            if (lastTrainStart.equals(invocation.getArgument(6))) {
+                throw new IllegalStateException("last window failed");
+            }
+            return invocation.callRealMethod();
+        }).when(failing).gridSearch(any(), any(), any(), anyInt(), anyInt(), any(), any(), any(), any(), anyInt(), any());
+
+        // One thread per window, so the last window starts (and fails) alongside the others
+        WalkForwardAnalyzer parallel = new WalkForwardAnalyzer(backtestEngine, failing, metricsCalculator, 6);
+        try {
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> parallel.run(descriptor,
+                ranges, null, 1L, "TEST", START, END, CAPITAL, 12, 6, false));
+            assertEquals("last window failed", error.getMessage());
+        } finally {
+            parallel.shutdown();
+        }
+
+        // The five other windows would make 80 evaluations if they ran to completion
+        assertTrue(calls.get() < 20, "evaluations: " + calls.get());
+    }
+}
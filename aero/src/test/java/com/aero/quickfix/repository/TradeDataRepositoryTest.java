@@ -0,0 +1,105 @@
+package com.aero.quickfix.repository;
+
+import com.aero.quickfix.model.TradeData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ring-buffer trade history.
+ */
+@DisplayName("Trade Data Repository Tests")
+public class TradeDataRepositoryTest {
+
+    @Test
+    @DisplayName("History should keep the newest trades in order once the buffer wraps")
+    void testHistoryWrapsAround() {
+        TradeDataRepository repository = new TradeDataRepository(8);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, repository.save(trade(i)));
+        }
+
+        assertEquals(8, repository.getTotalTradeCount());
+        assertEquals(List.of("ORD17", "ORD18", "ORD19"), orderIds(repository.getRecentTrades(3)));
+        assertEquals(orderIds(repository.getHistory()), orderIds(repository.getTradesSince(0)));
+        assertEquals("ORD12", repository.getHistory().get(0).getOrderId());
+        assertEquals(List.of("ORD18", "ORD19"), orderIds(repository.getTradesSince(18)));
+        assertEquals(List.of("ORD15", "ORD16"), orderIds(repository.getTradesBefore(17, 2)));
+        assertEquals(List.of("ORD12", "ORD13"), orderIds(repository.getTradesBefore(14, 5)));
+
+        repository.clear();
+        assertEquals(0, repository.getTotalTradeCount());
+        assertTrue(repository.getRecentTrades(5).isEmpty());
+        assertEquals(20, repository.save(trade(20)));
+        assertEquals(List.of("ORD20"), orderIds(repository.getHistory()));
+    }
+
+    @Test
+    @DisplayName("Readers racing a writer should only ever see trades in ascending order")
+    void testReadersNeverSeeOverwrittenSlots() throws Exception {
+        TradeDataRepository repository = new TradeDataRepository(16);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                List<TradeData> recent = repository.getRecentTrades(16);
+                for (int i = 1; i < recent.size(); i++) {
+                    long previous = Long.parseLong(recent.get(i - 1).getOrderId().substring(3));
+                    long current = Long.parseLong(recent.get(i).getOrderId().substring(3));
+                    if (current <= previous) {
+                        failure.set(previous + " before " + current);
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200_000; i++) {
+            repository.save(trade(i));
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    @DisplayName("Aggregates should match the trades still held after evictions")
+    void testAggregatesFollowEvictions() {
+        TradeDataRepository repository = new TradeDataRepository(8);
+        String[] symbols = {"AAPL", "MSFT", "NVDA"};
+        for (int i = 0; i < 30; i++) {
+            TradeData trade = new TradeData("ORD" + i, symbols[i % 3], i % 2 == 0 ? "BUY" : "SELL",
+                (double) (10 + i), 100.0 + i, "NEW", "NewOrder");
+            repository.save(trade);
+        }
+
+        List<TradeData> held = repository.getHistory();
+        assertEquals(Math.round(held.stream().mapToDouble(TradeData::getQuantity).sum()), repository.getTotalVolume());
+        assertEquals(held.stream().mapToDouble(TradeData::getPrice).average().orElse(0), repository.getAveragePrice(), 1e-9);
+
+        TradeAggregates.Snapshot snapshot = repository.getStatsSnapshot();
+        assertEquals(8, snapshot.getTotal().getCount());
+        assertEquals(held.stream().filter(t -> t.getSymbol().equals("AAPL")).count(),
+            snapshot.getBySymbol().get("AAPL").getCount());
+        assertEquals(4, snapshot.getBySide().get("BUY").getCount());
+        assertEquals(4, snapshot.getBySide().get("SELL").getCount());
+
+        repository.clear();
+        assertEquals(0, repository.getTotalVolume());
+        assertTrue(repository.getStatsSnapshot().getBySymbol().isEmpty());
+    }
+
+    private static TradeData trade(int i) {
+        return new TradeData("ORD" + i, "AAPL", "BUY", 10.0, 100.0, "NEW", "NewOrder");
+    }
+
+    private static List<String> orderIds(List<TradeData> trades) {
+        return trades.stream().map(TradeData::getOrderId).toList();
+    }
+}
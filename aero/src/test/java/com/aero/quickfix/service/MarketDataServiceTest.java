@@ -0,0 +1,139 @@
+package com.aero.quickfix.service;
+
+import com.aero.quickfix.client.FinvizMarketDataClient;
+import com.aero.quickfix.dto.MarketPriceDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for price loading and caching in the MarketDataService.
+ */
+@DisplayName("Market Data Service Tests")
+public class MarketDataServiceTest {
+
+    @Mock
+    private FinvizMarketDataClient finvizClient;
+
+    @Spy
+    private PriceCache priceCache = new PriceCache(2, 60 * 60 * 1000, 0.8, 10 * 60 * 1000);
+
+    @InjectMocks
+    private MarketDataService marketDataService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(marketDataService, "fanOutDeadlineMs", 500L);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should share a single upstream fetch")
+    void testConcurrentCallersShareOneFetch() throws Exception {
+        CompletableFuture<MarketPriceDto> response = new CompletableFuture<>();
+        when(finvizClient.fetchLatestPriceAsync(eq("AAPL"), any(), anyLong())).thenReturn(response);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MarketPriceDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> marketDataService.getCurrentPrice("AAPL")));
+            }
+            Thread.sleep(200);
+            response.complete(new MarketPriceDto("AAPL", new BigDecimal("190.50")));
+
+            for (Future<MarketPriceDto> result : results) {
+                assertEquals(new BigDecimal("190.50"), result.get(5, TimeUnit.SECONDS).getPrice());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(finvizClient, times(1)).fetchLatestPriceAsync(eq("AAPL"), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Recently expired prices should be served while they are refreshed")
+    void testStaleWhileRevalidate() {
+        MarketPriceDto stale = new MarketPriceDto("MSFT", new BigDecimal("400.00"));
+        stale.setLastUpdated(System.currentTimeMillis() - 61 * 60 * 1000);
+        when(finvizClient.fetchLatestPriceAsync(eq("MSFT"), any(), anyLong()))
+            .thenReturn(CompletableFuture.completedFuture(stale))
+            .thenReturn(CompletableFuture.supplyAsync(() -> new MarketPriceDto("MSFT", new BigDecimal("401.00")),
+                CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)));
+
+        // First call caches an already expired price; the second serves it and refreshes
+        marketDataService.getCurrentPrice("MSFT");
+        assertEquals(new BigDecimal("400.00"), marketDataService.getCurrentPrice("MSFT").getPrice());
+
+        verify(finvizClient, timeout(2000).times(2)).fetchLatestPriceAsync(eq("MSFT"), any(), anyLong());
+        long deadline = System.currentTimeMillis() + 2000;
+        while (marketDataService.getCurrentPrice("MSFT").getPrice().equals(new BigDecimal("400.00"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(new BigDecimal("401.00"), marketDataService.getCurrentPrice("MSFT").getPrice());
+    }
+
+    @Test
+    @DisplayName("Cache should stay bounded and count hits, misses and evictions")
+    void testBoundedCacheStats() {
+        for (String symbol : new String[] {"AAPL", "MSFT", "NVDA"}) {
+            when(finvizClient.fetchLatestPriceAsync(eq(symbol), any(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(new MarketPriceDto(symbol, BigDecimal.TEN)));
+            marketDataService.getCurrentPrice(symbol);
+        }
+        marketDataService.getCurrentPrice("NVDA");
+
+        Map<String, Object> stats = marketDataService.getCacheStats();
+        assertEquals(2, stats.get("cacheSize"));
+        assertEquals(3L, stats.get("misses"));
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(3L, stats.get("loads"));
+        assertEquals(1L, stats.get("evictions"));
+        assertFalse(marketDataService.getAllCachedPrices().containsKey("AAPL"));
+    }
+
+    @Test
+    @DisplayName("Multi-symbol lookups should run concurrently and return partial results at the deadline")
+    void testFanOutReturnsPartialResults() throws Exception {
+        CompletableFuture<MarketPriceDto> slow = new CompletableFuture<>();
+        for (String symbol : new String[] {"AAPL", "MSFT"}) {
+            when(finvizClient.fetchLatestPriceAsync(eq(symbol), any(), anyLong())).thenReturn(CompletableFuture.supplyAsync(
+                () -> new MarketPriceDto(symbol, BigDecimal.ONE),
+                CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS)));
+        }
+        when(finvizClient.fetchLatestPriceAsync(eq("SLOW"), any(), anyLong())).thenReturn(slow);
+
+        try {
+            long started = System.currentTimeMillis();
+            Map<String, MarketPriceDto> prices = marketDataService
+                .getCurrentPricesAsync(List.of("AAPL", "SLOW", "MSFT")).get(5, TimeUnit.SECONDS);
+            long elapsed = System.currentTimeMillis() - started;
+
+            assertEquals(List.of("AAPL", "SLOW", "MSFT"), new ArrayList<>(prices.keySet()));
+            assertTrue(prices.get("AAPL").isValid());
+            assertTrue(prices.get("MSFT").isValid());
+            assertFalse(prices.get("SLOW").isValid());
+            assertTrue(elapsed < 1000, "took " + elapsed + " ms");
+        } finally {
+            slow.complete(new MarketPriceDto("SLOW", BigDecimal.ONE));
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.aero.quickfix.websocket;
+
+import com.aero.quickfix.model.TradeData;
+import com.aero.quickfix.repository.TradeDataRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for coalesced trade broadcasts over per-session outboxes and the delta protocol.
+ */
+@DisplayName("Trade WebSocket Handler Tests")
+public class TradeWebSocketHandlerTest {
+
+    private TradeDataRepository repository;
+    private TradeWebSocketHandler handler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        repository = new TradeDataRepository(64);
+        handler = new TradeWebSocketHandler(repository, 2, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    @DisplayName("A burst of updates should reach each client as one serialized message per tick")
+    void testBurstIsCoalesced() throws Exception {
+        WebSocketSession first = session("1");
+        WebSocketSession second = session("2");
+        handler.afterConnectionEstablished(first);
+        handler.afterConnectionEstablished(second);
+        verify(first, timeout(2000)).sendMessage(any());
+        verify(second, timeout(2000)).sendMessage(any());
+
+        for (int i = 0; i < 100; i++) {
+            repository.save(new TradeData("ORD" + i, "AAPL", "BUY", 10.0, 100.0, "NEW", "NewOrder"));
+            handler.broadcastTradeUpdate();
+        }
+        handler.flushTradeUpdates();
+        handler.flushTradeUpdates();
+
+        verify(first, timeout(2000).times(2)).sendMessage(any());
+        verify(second, timeout(2000).times(2)).sendMessage(any());
+        Thread.sleep(100);
+        verify(first, times(2)).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("A blocked client should have its backlog conflated without delaying others")
+    void testSlowClientIsConflated() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        WebSocketSession slow = session("slow");
+        doAnswer(invocation -> {
+            unblock.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(slow).sendMessage(any());
+        WebSocketSession fast = session("fast");
+
+        handler.afterConnectionEstablished(slow);
+        handler.afterConnectionEstablished(fast);
+        for (int i = 0; i < 10; i++) {
+            repository.save(new TradeData("ORD" + i, "MSFT", "SELL", 5.0, 400.0, "NEW", "NewOrder"));
+            handler.broadcastTradeUpdate();
+            handler.flushTradeUpdates();
+        }
+
+        // The fast client is up to date while the slow one is still blocked on its first send
+        verify(fast, timeout(2000)).sendMessage(argThat(message ->
+            ((TextMessage) message).getPayload().contains("\"totalTrades\":10")));
+        verify(slow, atMost(1)).sendMessage(any());
+        assertTrue((long) handler.getStats().get("conflatedMessages") > 0);
+        assertTrue((int) handler.getStats().get("queuedMessages") <= 2);
+
+        unblock.countDown();
+        // The slow client still ends up with the latest stats
+        verify(slow, timeout(2000)).sendMessage(argThat(message ->
+            ((TextMessage) message).getPayload().contains("\"totalTrades\":10")));
+        Thread.sleep(100);
+        verify(slow, atMost(3)).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Delta protocol clients should get a sequenced snapshot and then only new trades")
+    void testDeltaProtocol() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            repository.save(new TradeData("OLD" + i, "AAPL", "BUY", 10.0, 100.0, "NEW", "NewOrder"));
+            handler.broadcastTradeUpdate();
+        }
+        handler.flushTradeUpdates();
+        WebSocketSession client = session("delta");
+        when(client.getUri()).thenReturn(URI.create("ws://localhost:8080/ws/trades?protocol=2"));
+        List<String> received = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(client).sendMessage(any());
+
+        handler.afterConnectionEstablished(client);
+        verify(client, timeout(2000)).sendMessage(any());
+        JsonNode snapshot = objectMapper.readTree(received.get(0));
+        assertEquals("snapshot", snapshot.get("type").asText());
+        assertEquals(3, snapshot.get("seq").asLong());
+        assertEquals(3, snapshot.get("recentTrades").size());
+
+        repository.save(new TradeData("NEW0", "MSFT", "SELL", 5.0, 400.0, "NEW", "NewOrder"));
+        repository.save(new TradeData("NEW1", "MSFT", "SELL", 5.0, 400.0, "NEW", "NewOrder"));
+        handler.broadcastTradeUpdate();
+        handler.flushTradeUpdates();
+
+        verify(client, timeout(2000).times(2)).sendMessage(any());
+        JsonNode delta = objectMapper.readTree(received.get(1));
+        assertEquals("delta", delta.get("type").asText());
+        assertEquals(3, delta.get("fromSeq").asLong());
+        assertEquals(5, delta.get("toSeq").asLong());
+        assertEquals(2, delta.get("trades").size());
+        assertEquals("NEW0", delta.get("trades").get(0).get("orderId").asText());
+        assertEquals(5, delta.get("totalTrades").asInt());
+
+        handler.handleTextMessage(client, new TextMessage("resync"));
+        verify(client, timeout(2000).times(3)).sendMessage(any());
+        JsonNode resync = objectMapper.readTree(received.get(2));
+        assertEquals("snapshot", resync.get("type").asText());
+        assertEquals(5, resync.get("seq").asLong());
+    }
+
+    @Test
+    @DisplayName("Symbol subscribers should only get ticks with matching trades, picking up where they left off")
+    void testSymbolSubscription() throws Exception {
+        WebSocketSession everything = session("everything");
+        WebSocketSession apple = session("apple");
+        when(apple.getUri()).thenReturn(URI.create("ws://localhost:8080/ws/trades?protocol=2"));
+        List<String> received = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(apple).sendMessage(any());
+
+        handler.afterConnectionEstablished(everything);
+        handler.afterConnectionEstablished(apple);
+        handler.handleTextMessage(apple, new TextMessage("subscribe symbol aapl"));
+        verify(apple, timeout(2000).times(2)).sendMessage(any());
+        JsonNode snapshot = objectMapper.readTree(received.get(1));
+        assertEquals(0, snapshot.get("seq").asLong());
+        assertEquals(0, snapshot.get("topicTotals").get("symbol:AAPL").get("count").asLong());
+
+        repository.save(new TradeData("ORD0", "MSFT", "SELL", 5.0, 400.0, "NEW", "NewOrder"));
+        handler.broadcastTradeUpdate();
+        handler.flushTradeUpdates();
+        repository.save(new TradeData("ORD1", "AAPL", "BUY", 10.0, 100.0, "NEW", "NewOrder"));
+        repository.save(new TradeData("ORD2", "MSFT", "BUY", 5.0, 400.0, "NEW", "NewOrder"));
+        handler.broadcastTradeUpdate();
+        handler.flushTradeUpdates();
+
+        verify(everything, timeout(2000).times(3)).sendMessage(any());
+        verify(apple, timeout(2000).times(3)).sendMessage(any());
+        JsonNode delta = objectMapper.readTree(received.get(2));
+        assertEquals(0, delta.get("fromSeq").asLong());
+        assertEquals(3, delta.get("toSeq").asLong());
+        assertEquals(1, delta.get("trades").size());
+        assertEquals("ORD1", delta.get("trades").get(0).get("orderId").asText());
+        assertEquals(1, delta.get("topicTotals").get("symbol:AAPL").get("count").asLong());
+        assertEquals(1, handler.getStats().get("subscribedSessions"));
+
+        handler.handleTextMessage(apple, new TextMessage("unsubscribe"));
+        verify(apple, timeout(2000).times(4)).sendMessage(any());
+        assertEquals(3, objectMapper.readTree(received.get(3)).get("recentTrades").size());
+        assertEquals(0, handler.getStats().get("subscribedSessions"));
+    }
+
+    @Test
+    @DisplayName("Topic totals should match trades whatever their case, and topics per session should be capped")
+    void testTopicNormalizationAndCap() throws Exception {
+        WebSocketSession apple = session("apple");
+        List<String> received = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(apple).sendMessage(any());
+        repository.save(new TradeData("ORD1", "aapl", "buy", 10.0, 100.0, "NEW", "NewOrder"));
+        repository.save(new TradeData("ORD2", "AAPL", "BUY", 10.0, 110.0, "NEW", "NewOrder"));
+
+        handler.afterConnectionEstablished(apple);
+        handler.handleTextMessage(apple, new TextMessage("subscribe symbol Aapl"));
+        verify(apple, timeout(2000).times(2)).sendMessage(any());
+        JsonNode topicTotals = objectMapper.readTree(received.get(1)).get("topicTotals");
+        assertEquals(2, topicTotals.get("symbol:AAPL").get("count").asLong());
+        assertEquals(2, repository.getSideTotals("Buy").getCount());
+
+        StringBuilder tooMany = new StringBuilder("subscribe symbol");
+        for (int i = 0; i < TradeSubscriptions.MAX_TOPICS_PER_SESSION; i++) {
+            tooMany.append(" S").append(i);
+        }
+        handler.handleTextMessage(apple, new TextMessage(tooMany.toString()));
+        // Rejected as a whole: no new snapshot, and only the first topic is held
+        assertEquals(1, handler.getStats().get("topics"));
+        verify(apple, after(200).times(2)).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("Delta clients connecting during ticks should always start with a snapshot and see contiguous deltas")
+    void testSnapshotPrecedesDeltasUnderConcurrentTicks() throws Exception {
+        Map<String, List<String>> received = new ConcurrentHashMap<>();
+        AtomicBoolean ticking = new AtomicBoolean(true);
+        Thread ticker = new Thread(() -> {
+            int i = 0;
+            while (ticking.get()) {
+                repository.save(new TradeData("ORD" + i++, "AAPL", "BUY", 1.0, 100.0, "NEW", "NewOrder"));
+                handler.broadcastTradeUpdate();
+                handler.flushTradeUpdates();
+            }
+        });
+        ticker.start();
+        try {
+            for (int c = 0; c < 50; c++) {
+                String id = "delta" + c;
+                List<String> messages = new CopyOnWriteArrayList<>();
+                received.put(id, messages);
+                WebSocketSession client = session(id);
+                when(client.getUri()).thenReturn(URI.create("ws://localhost:8080/ws/trades?protocol=2"));
+                doAnswer(invocation -> {
+                    messages.add(((TextMessage) invocation.getArgument(0)).getPayload());
+                    return null;
+                }).when(client).sendMessage(any());
+                handler.afterConnectionEstablished(client);
+            }
+            Thread.sleep(50);
+        } finally {
+            ticking.set(false);
+            ticker.join();
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (((int) handler.getStats().get("queuedMessages") > 0
+                || received.values().stream().anyMatch(List::isEmpty)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Let senders finish messages already taken off their queues
+        Thread.sleep(100);
+
+        for (Map.Entry<String, List<String>> client : received.entrySet()) {
+            List<String> messages = client.getValue();
+            assertFalse(messages.isEmpty(), client.getKey());
+            long expected = -1;
+            for (String message : messages) {
+                JsonNode node = objectMapper.readTree(message);
+                if ("snapshot".equals(node.get("type").asText())) {
+                    expected = node.get("seq").asLong();
+                } else {
+                    assertTrue(expected >= 0, client.getKey() + " got a delta before its first snapshot");
+                    assertEquals(expected, node.get("fromSeq").asLong(), client.getKey() + " missed trades");
+                    expected = node.get("toSeq").asLong();
+                }
+            }
+        }
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
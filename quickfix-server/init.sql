@@ -31,6 +31,10 @@ SELECT create_hypertable('ohlcv_data', 'time',
 CREATE INDEX IF NOT EXISTS idx_ohlcv_symbol_time 
     ON ohlcv_data (symbol, time DESC);
 
+-- One bar per symbol and timestamp; bulk loads merge on this key
+CREATE UNIQUE INDEX IF NOT EXISTS idx_ohlcv_symbol_time_unique
+    ON ohlcv_data (symbol, time);
+
 -- ============================================================================
 -- Technical Indicators Cache Table
 -- ============================================================================
@@ -40,7 +44,7 @@ CREATE TABLE IF NOT EXISTS technical_indicators (
     period INTEGER NOT NULL,
     indicator_type TEXT NOT NULL,
     indicator_name TEXT NOT NULL,
-    value DECIMAL(15, 8),
+    value DOUBLE PRECISION,
     signal_value DECIMAL(15, 8),
     histogram DECIMAL(15, 8),
     created_at TIMESTAMPTZ DEFAULT NOW()
@@ -55,6 +59,10 @@ SELECT create_hypertable('technical_indicators', 'time',
 CREATE INDEX IF NOT EXISTS idx_indicators_symbol_type
     ON technical_indicators (symbol, indicator_type, time DESC);
 
+-- One value per indicator and bar; the indicator store merges its writes on this key
+CREATE UNIQUE INDEX IF NOT EXISTS idx_indicators_unique
+    ON technical_indicators (symbol, indicator_type, indicator_name, time);
+
 -- ============================================================================
 -- Backtest Results Table
 -- ============================================================================
@@ -78,6 +86,7 @@ CREATE TABLE IF NOT EXISTS backtest_results (
     losing_trades INTEGER,
     avg_win DECIMAL(15, 2),
     avg_loss DECIMAL(15, 2),
+    trades_incomplete BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMPTZ DEFAULT NOW()
 );
 
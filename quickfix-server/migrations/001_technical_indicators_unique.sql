@@ -0,0 +1,25 @@
+-- Brings a technical_indicators table created by an earlier init.sql up to date.
+-- New databases get all of this from init.sql. Safe to run more than once:
+--   psql -U aero_user -d aero_quant -f migrations/001_technical_indicators_unique.sql
+
+BEGIN;
+
+-- Recursive indicators were stored per series start date ("EMA_12@2020-01-01"); they are no longer stored
+DELETE FROM technical_indicators WHERE indicator_name LIKE '%@%';
+
+-- Plain inserts left duplicate rows; keep one per indicator and bar
+DELETE FROM technical_indicators a
+USING technical_indicators b
+WHERE a.symbol = b.symbol
+  AND a.indicator_type = b.indicator_type
+  AND a.indicator_name = b.indicator_name
+  AND a.time = b.time
+  AND a.ctid < b.ctid;
+
+-- Stored values must read back exactly as computed
+ALTER TABLE technical_indicators ALTER COLUMN value TYPE DOUBLE PRECISION;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_indicators_unique
+    ON technical_indicators (symbol, indicator_type, indicator_name, time);
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- Adds the (symbol, time) key that OHLCV bulk loads merge on to an ohlcv_data table
+-- created by an earlier init.sql. New databases get it from init.sql. Safe to run more than once:
+--   psql -U aero_user -d aero_quant -f migrations/002_ohlcv_unique.sql
+
+BEGIN;
+
+-- Plain inserts left duplicate bars; keep the most recently updated one per symbol and time
+DELETE FROM ohlcv_data a
+USING ohlcv_data b
+WHERE a.symbol = b.symbol
+  AND a.time = b.time
+  AND (COALESCE(a.updated_at, '-infinity'), a.ctid) < (COALESCE(b.updated_at, '-infinity'), b.ctid);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_ohlcv_symbol_time_unique
+    ON ohlcv_data (symbol, time);
+
+COMMIT;
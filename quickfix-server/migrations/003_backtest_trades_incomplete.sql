@@ -0,0 +1,5 @@
+-- Adds the flag set on backtest_results rows whose trade log could not be persisted
+-- to a table created by an earlier init.sql. New databases get it from init.sql. Safe to run more than once:
+--   psql -U aero_user -d aero_quant -f migrations/003_backtest_trades_incomplete.sql
+
+ALTER TABLE backtest_results ADD COLUMN IF NOT EXISTS trades_incomplete BOOLEAN NOT NULL DEFAULT FALSE;